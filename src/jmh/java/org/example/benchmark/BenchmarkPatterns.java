@@ -0,0 +1,60 @@
+package org.example.benchmark;
+
+import org.example.model.Grid;
+import org.example.rle.RLEReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+// Loads the bundled patterns for the benchmarks without RLEParser's logging. Patterns are read from the
+// classpath, so the shaded benchmark jar runs from any directory.
+final class BenchmarkPatterns {
+    private static final int MIN_SIZE = 100;
+
+    private BenchmarkPatterns() {
+    }
+
+    // Centres the pattern on a size x size board. A size of 0 uses RLEParser's padding (twice the pattern,
+    // at least 100 cells); cells that do not fit on a smaller board are dropped.
+    static Grid load(String pattern, int size) throws IOException {
+        try (InputStream in = open(pattern); RLEReader reader = new RLEReader(Channels.newChannel(in))) {
+            RLEReader.Header header = reader.readHeader();
+            int width = size > 0 ? size : Math.max(header.getWidth() * 2, MIN_SIZE);
+            int height = size > 0 ? size : Math.max(header.getHeight() * 2, MIN_SIZE);
+            int offsetX = (width - header.getWidth()) / 2;
+            int offsetY = (height - header.getHeight()) / 2;
+
+            Grid grid = new Grid(width, height);
+            reader.decode((row, words, wordCount) -> {
+                int y = offsetY + row;
+                if (y < 0 || y >= height) {
+                    return;
+                }
+                RLEReader.forEachRun(words, wordCount, (col, length) -> {
+                    int from = Math.max(offsetX + col, 0);
+                    int to = Math.min(offsetX + col + length, width);
+                    if (from < to) {
+                        grid.getCurrent().set(grid.getIndex(y, from), grid.getIndex(y, 0) + to);
+                    }
+                });
+            });
+            return grid;
+        }
+    }
+
+    private static InputStream open(String pattern) throws IOException {
+        InputStream in = BenchmarkPatterns.class.getClassLoader().getResourceAsStream("patterns/" + pattern);
+        if (in != null) {
+            return in;
+        }
+        File file = new File(pattern);
+        if (!file.isFile()) {
+            throw new FileNotFoundException("Pattern not found on classpath or disk: " + pattern);
+        }
+        return new FileInputStream(file);
+    }
+}
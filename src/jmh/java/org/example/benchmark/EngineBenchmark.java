@@ -0,0 +1,54 @@
+package org.example.benchmark;
+
+import org.example.engine.EngineOptions;
+import org.example.engine.EngineRegistry;
+import org.example.engine.LifeEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Single-threaded engines from the registry (auto is limited to one thread). Scores are generations per
+// second. The gpu and gpu-fused engines need an OpenCL device, so they only run when selected explicitly
+// with -p engine=gpu or -p engine=gpu-fused; any other registered mode (engines added through
+// EngineProvider) can be selected the same way.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark extends EngineBenchmarkState {
+
+    @Param({"sequential", "bitboard", "hashlife", "tiled", "lookup", "auto"})
+    public String engine;
+
+    private LifeEngine simulator;
+
+    @Setup(Level.Trial)
+    public void createEngine() {
+        EngineOptions options = new EngineOptions();
+        options.setThreads(1);
+        simulator = EngineRegistry.createDefault().create(engine, options);
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseEngine() {
+        simulator.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GENERATIONS)
+    public void generations() {
+        simulator.simulate(grid, GENERATIONS);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.benchmark;
+
+import org.example.model.Grid;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+// Pattern and board parameters shared by the engine benchmarks. The initial pattern is restored before
+// every iteration, not every invocation: on the small boards an invocation takes microseconds, where JMH's
+// per-invocation setup and timestamps would distort the score. Within an iteration each invocation
+// continues the run, so every iteration covers the same generations of the pattern from its start.
+@State(Scope.Benchmark)
+public abstract class EngineBenchmarkState {
+    static final int GENERATIONS = 100;
+
+    @Param({"glider.rle", "gosper_glider_gun.rle", "pulsar.rle", "rpentominoequivalents.rle",
+            "diehard2500.rle", "pp8primecalculator.rle"})
+    public String pattern;
+
+    // Side of the square board; 0 keeps the pattern's padded size as used by the command line.
+    @Param({"0", "1024", "4096"})
+    public int size;
+
+    private Grid initial;
+    protected Grid grid;
+
+    @Setup(Level.Trial)
+    public void loadPattern() throws IOException {
+        initial = BenchmarkPatterns.load(pattern, size);
+        grid = new Grid(initial.getWidth(), initial.getHeight());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetGrid() {
+        grid.getCurrent().clear();
+        grid.getCurrent().or(initial.getCurrent());
+        grid.getNext().clear();
+    }
+}
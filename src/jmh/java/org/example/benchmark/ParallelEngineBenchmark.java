@@ -0,0 +1,55 @@
+package org.example.benchmark;
+
+import org.example.engine.EngineOptions;
+import org.example.engine.EngineRegistry;
+import org.example.engine.LifeEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Multithreaded engines over a range of thread counts. Counts above the number of available processors
+// are capped by the engines, so those results repeat the highest real count.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelEngineBenchmark extends EngineBenchmarkState {
+
+    @Param({"parallel", "bands", "temporal"})
+    public String engine;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private LifeEngine simulator;
+
+    @Setup(Level.Trial)
+    public void createEngine() {
+        EngineOptions options = new EngineOptions();
+        options.setThreads(threads);
+        simulator = EngineRegistry.createDefault().create(engine, options);
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseEngine() {
+        simulator.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GENERATIONS)
+    public void generations() {
+        simulator.simulate(grid, GENERATIONS);
+    }
+}
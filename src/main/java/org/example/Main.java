@@ -1,54 +1,447 @@
 package org.example;
 
-import org.example.algorithms.GameOfLifeGpu;
+import org.example.algorithms.GameOfLifeBandParallel;
+import org.example.algorithms.GameOfLifeBitboard;
+import org.example.algorithms.GameOfLifeGpuFused;
+import org.example.algorithms.GameOfLifeHashLife;
 import org.example.algorithms.GameOfLifeParallel;
 import org.example.algorithms.GameOfLifeSequential;
+import org.example.algorithms.GameOfLifeTemporal;
+import org.example.distributed.DistributedEngine;
+import org.example.engine.EngineOptions;
+import org.example.engine.EngineRegistry;
+import org.example.engine.GenerationObserver;
+import org.example.engine.GenerationStats;
+import org.example.engine.LifeEngine;
+import org.example.metrics.AllocationCheck;
+import org.example.metrics.Metrics;
+import org.example.model.ChunkedGrid;
 import org.example.model.Grid;
+import org.example.model.OffHeapGrid;
+import org.example.model.Rule;
 import org.example.rle.RLEParser;
+import org.example.rle.RLEWriter;
+import org.example.server.SimulationServer;
+import org.example.snapshot.CheckpointWriter;
+import org.example.snapshot.GenerationHistory;
+import org.example.snapshot.RecordingReader;
+import org.example.snapshot.RecordingWriter;
+import org.example.snapshot.ResultCache;
+import org.example.snapshot.Snapshot;
+import org.example.soup.SoupResult;
+import org.example.soup.SoupSearch;
 import org.example.utils.StatisticsLogger;
 import org.example.utils.Timer;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class Main {
     public static void main(String[] args) {
-        if (args.length < 3) {
+        EngineRegistry registry = EngineRegistry.createDefault();
+        if (args.length >= 1 && args[0].equalsIgnoreCase("serve")) {
+            runServer(registry, args);
+            return;
+        }
+        if (args.length >= 2 && args[0].equalsIgnoreCase("replay")) {
+            runReplay(args);
+            return;
+        }
+        if (args.length >= 2 && args[0].equalsIgnoreCase("soup")) {
+            runSoupSearch(args);
+            return;
+        }
+        boolean hasPattern = args.length >= 3 && !args[2].startsWith("-");
+        if (args.length < 2 || (!hasPattern && !Arrays.asList(args).contains("--resume"))) {
             System.out.println("Usage: java -jar game-of-life.jar <mode> <steps> <pattern>");
-            System.out.println("  mode: sequential | parallel | gpu");
+            System.out.println("       java -jar game-of-life.jar <mode> <steps> --resume <checkpoint>");
+            System.out.println("       java -jar game-of-life.jar serve [--port <n>] [--jobs <n>] [--queue <n>] [-t <threads>]"
+                    + " [--cache-dir <dir>] [--cache-memory <MB>]");
+            System.out.println("       java -jar game-of-life.jar soup <count> [--soup-size <n>] [--seed <n>]"
+                    + " [--max-generations <n>] [-t <threads>] [--census <file.csv>]");
+            System.out.println("       java -jar game-of-life.jar replay <recording> [<generation>] [--export <file.rle>]");
+            System.out.println("  mode: " + String.join(" | ", registry.getNames()));
             System.out.println("  steps: number of iterations");
             System.out.println("  pattern: path to RLE file");
             System.out.println("\nOptional arguments:");
-            System.out.println("  -t <threads>: number of threads for parallel mode (default: available processors)");
+            System.out.println("  -t <threads>: number of threads for parallel, bands and auto modes (default: available processors)");
+            System.out.println("  --max-nodes <n>: node cache size for hashlife mode (default: "
+                    + GameOfLifeHashLife.DEFAULT_MAX_NODES + ")");
+            System.out.println("  --auto-interval <n>: generations between engine choices in auto mode (default: "
+                    + EngineOptions.DEFAULT_AUTO_INTERVAL + ")");
+            System.out.println("  --scheduler <static|stealing>: how parallel mode shares a step among its threads"
+                    + " (default: static)");
+            System.out.println("  --cycle-window <n>: in bitboard and tiled modes, detect cycles within n generations"
+                    + " and skip the remaining periods");
+            System.out.println("  --block-depth <k>: generations per tile in temporal mode (default: "
+                    + GameOfLifeTemporal.DEFAULT_DEPTH + ")");
+            System.out.println("  --block-size <rows>x<cols>: tile size in cells for temporal mode (default: "
+                    + GameOfLifeTemporal.DEFAULT_TILE_ROWS + "x" + GameOfLifeTemporal.DEFAULT_TILE_COLUMNS + ")");
+            System.out.println("  --workers <n>: worker processes in distributed mode (default: "
+                    + DistributedEngine.DEFAULT_WORKERS + ")");
+            System.out.println("  --rule <B/S>: rule such as B36/S23, overriding the pattern header (default: header or "
+                    + Rule.CONWAY + "); rules other than " + Rule.CONWAY + " need lookup mode");
+            System.out.println("  --cl-platform <n>: OpenCL platform for the gpu modes (default: search all)");
+            System.out.println("  --cl-device <gpu|cpu|all>: OpenCL device type (default: gpu, falling back to cpu)");
+            System.out.println("  --cl-device-index <n>: index among the matching OpenCL devices (default: 0)");
+            System.out.println("  --gpu-generations <k>: generations per kernel launch in gpu-fused mode (default: "
+                    + GameOfLifeGpuFused.DEFAULT_GENERATIONS_PER_LAUNCH + ", at most "
+                    + GameOfLifeGpuFused.MAX_GENERATIONS_PER_LAUNCH + ")");
+            System.out.println("  --unbounded: run sequential or parallel mode on an unbounded chunked universe");
+            System.out.println("  --offheap: run bitboard or bands mode on off-heap storage (no 2^31 cell limit)");
+            System.out.println("  --offheap-file <path>: like --offheap, but backed by a memory-mapped file");
+            System.out.println("  --export <file.rle>: write the final generation as RLE");
+            System.out.println("  --checkpoint-every <n>: write a binary checkpoint every n generations");
+            System.out.println("  --checkpoint-file <path>: checkpoint location (default: <pattern>.ckpt)");
+            System.out.println("  --compress: deflate checkpoint files");
+            System.out.println("  --resume <checkpoint>: continue from a checkpoint up to generation <steps>");
+            System.out.println("  --record <file.bin>: record the run as keyframes and XOR-delta frames (see replay)");
+            System.out.println("  --every <n>: generations between recorded frames (default: 1)");
+            System.out.println("  --history <MB>: keep recorded frames in memory within a budget, dropping the oldest");
+            System.out.println("  --history-at <g>[,<g>...]: after a --history run, rebuild these generations and write"
+                    + " each to <pattern>.gen<g>.rle");
+            System.out.println("  --cache-dir <dir>: reuse results of earlier runs of the same pattern and rule from a"
+                    + " cache directory, resuming from the furthest cached generation");
+            System.out.println("  --cache-size <MB>: disk space for --cache-dir before the least recently used results"
+                    + " are deleted (default: " + (ResultCache.DEFAULT_DISK_BYTES >> 20) + ")");
+            System.out.println("  --metrics: record per-step time, cells evaluated, population and allocation");
+            System.out.println("  --assert-no-alloc: fail if a step of sequential, parallel or bitboard mode allocates"
+                    + " after the warm-up steps");
+            System.out.println("  --alloc-warmup <n>: steps excluded from --assert-no-alloc while the JIT compiles"
+                    + " (default: " + AllocationCheck.DEFAULT_WARMUP_STEPS + ")");
+            System.out.println("  --stats: count population, births, deaths and bounding box while stepping and print"
+                    + " them for the last generation");
             return;
         }
 
         String mode = args[0].toLowerCase();
         int steps = Integer.parseInt(args[1]);
-        String patternFile = args[2];
+        String patternFile = hasPattern ? args[2] : null;
 
-        int threads = Runtime.getRuntime().availableProcessors();
+        EngineOptions options = new EngineOptions();
+        boolean unbounded = false;
+        boolean offHeap = false;
+        File offHeapFile = null;
+        File exportFile = null;
+        int checkpointEvery = 0;
+        File checkpointFile = null;
+        boolean compress = false;
+        File resumeFile = null;
+        boolean metrics = false;
+        boolean assertNoAlloc = false;
+        int allocWarmup = AllocationCheck.DEFAULT_WARMUP_STEPS;
+        File recordFile = null;
+        int recordEvery = 1;
+        Rule rule = null;
+        File cacheDir = null;
+        long cacheBytes = ResultCache.DEFAULT_DISK_BYTES;
+        long historyBytes = 0;
+        long[] historyAt = new long[0];
 
-        for (int i = 3; i < args.length; i++) {
+        for (int i = hasPattern ? 3 : 2; i < args.length; i++) {
             if (args[i].equals("-t") && i + 1 < args.length) {
+                options.setThreads(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--max-nodes") && i + 1 < args.length) {
+                options.setMaxNodes(Long.parseLong(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--cycle-window") && i + 1 < args.length) {
+                options.setCycleWindow(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--block-depth") && i + 1 < args.length) {
+                options.setBlockDepth(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--block-size") && i + 1 < args.length) {
+                String[] size = args[i + 1].toLowerCase().split("x");
+                int rows = Integer.parseInt(size[0]);
+                options.setBlockSize(rows, size.length > 1 ? Integer.parseInt(size[1]) : rows);
+                i++;
+            } else if (args[i].equals("--auto-interval") && i + 1 < args.length) {
+                options.setAutoInterval(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--scheduler") && i + 1 < args.length) {
+                options.setScheduler(args[i + 1].toLowerCase());
+                i++;
+            } else if (args[i].equals("--workers") && i + 1 < args.length) {
+                options.setWorkers(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--rule") && i + 1 < args.length) {
+                rule = Rule.parse(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--cl-platform") && i + 1 < args.length) {
+                options.setClPlatform(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--cl-device") && i + 1 < args.length) {
+                options.setClDeviceType(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--cl-device-index") && i + 1 < args.length) {
+                options.setClDeviceIndex(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--gpu-generations") && i + 1 < args.length) {
+                options.setGpuGenerations(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--unbounded")) {
+                unbounded = true;
+            } else if (args[i].equals("--offheap")) {
+                offHeap = true;
+            } else if (args[i].equals("--offheap-file") && i + 1 < args.length) {
+                offHeap = true;
+                offHeapFile = new File(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--export") && i + 1 < args.length) {
+                exportFile = new File(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--checkpoint-every") && i + 1 < args.length) {
+                checkpointEvery = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--checkpoint-file") && i + 1 < args.length) {
+                checkpointFile = new File(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--compress")) {
+                compress = true;
+            } else if (args[i].equals("--resume") && i + 1 < args.length) {
+                resumeFile = new File(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--record") && i + 1 < args.length) {
+                recordFile = new File(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--every") && i + 1 < args.length) {
+                recordEvery = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--cache-dir") && i + 1 < args.length) {
+                cacheDir = new File(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--cache-size") && i + 1 < args.length) {
+                cacheBytes = Long.parseLong(args[i + 1]) << 20;
+                i++;
+            } else if (args[i].equals("--history") && i + 1 < args.length) {
+                historyBytes = Long.parseLong(args[i + 1]) << 20;
+                i++;
+            } else if (args[i].equals("--history-at") && i + 1 < args.length) {
+                historyAt = Arrays.stream(args[i + 1].split(",")).mapToLong(Long::parseLong).toArray();
+                i++;
+            } else if (args[i].equals("--metrics")) {
+                metrics = true;
+            } else if (args[i].equals("--assert-no-alloc")) {
+                assertNoAlloc = true;
+            } else if (args[i].equals("--alloc-warmup") && i + 1 < args.length) {
+                allocWarmup = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--stats")) {
+                options.setGenerationStats(true);
+            }
+        }
+
+        if ((unbounded || offHeap) && (resumeFile != null || checkpointEvery > 0)) {
+            throw new IllegalArgumentException("Checkpoints are only supported on the default grid");
+        }
+        if ((unbounded || offHeap) && recordFile != null) {
+            throw new IllegalArgumentException("Recording is only supported on the default grid");
+        }
+        if ((unbounded || offHeap) && historyBytes > 0) {
+            throw new IllegalArgumentException("--history is only supported on the default grid");
+        }
+        if (historyAt.length > 0 && historyBytes <= 0) {
+            throw new IllegalArgumentException("--history-at needs --history");
+        }
+        // The chunk map of the unbounded universe boxes its keys and builds a candidate list every step.
+        if ((unbounded || offHeap) && assertNoAlloc) {
+            throw new IllegalArgumentException("--assert-no-alloc is only supported on the default grid");
+        }
+        if ((unbounded || offHeap) && cacheDir != null) {
+            throw new IllegalArgumentException("The result cache is only supported on the default grid");
+        }
+        if (recordEvery <= 0) {
+            throw new IllegalArgumentException("--every must be positive: " + recordEvery);
+        }
+
+        if (rule == null && patternFile != null) {
+            rule = RLEParser.readRule(new File(patternFile));
+        }
+        if (resumeFile != null) {
+            rule = resumeRule(resumeFile, rule);
+        }
+        options.setRule(rule != null ? rule : Rule.CONWAY);
+        if ((unbounded || offHeap) && !options.getRule().isConway()) {
+            throw new IllegalArgumentException("--unbounded and --offheap only support " + Rule.CONWAY);
+        }
+
+        StatisticsLogger.logSystemInfo();
+        if (metrics) {
+            Metrics.enable(mode);
+        }
+        if (assertNoAlloc) {
+            AllocationCheck.enable(allocWarmup);
+        }
+
+        if (unbounded) {
+            runUnboundedSimulation(mode, patternFile, steps, options.getThreads());
+        } else if (offHeap) {
+            runOffHeapSimulation(mode, patternFile, steps, options.getThreads(), offHeapFile);
+        } else {
+            CheckpointOptions checkpoints = new CheckpointOptions(checkpointEvery, checkpointFile, compress, resumeFile,
+                    recordFile, recordEvery, historyBytes, historyAt, options.getThreads());
+            // A single run looks up one result, so the memory side of the cache only needs to hold it.
+            ResultCache cache = cacheDir != null ? new ResultCache(cacheDir, 0, cacheBytes) : null;
+            runSimulation(registry, mode, patternFile, steps, options, exportFile, checkpoints, cache);
+            if (cache != null) {
+                System.out.println("Result cache: " + cache.summary());
+            }
+        }
+
+        if (metrics) {
+            Metrics.disable().report();
+        }
+        if (assertNoAlloc) {
+            AllocationCheck check = AllocationCheck.disable();
+            System.out.println("Allocation check passed: " + check.getCheckedSteps()
+                    + " steady-state steps allocated nothing");
+        }
+    }
+
+    // Runs the HTTP simulation server until the JVM is stopped.
+    private static void runServer(EngineRegistry registry, String[] args) {
+        EngineOptions options = new EngineOptions();
+        int port = SimulationServer.DEFAULT_PORT;
+        int concurrentJobs = SimulationServer.DEFAULT_CONCURRENT_JOBS;
+        int queueSize = SimulationServer.DEFAULT_QUEUE_SIZE;
+        File cacheDir = null;
+        long cacheBytes = ResultCache.DEFAULT_DISK_BYTES;
+        long cacheMemory = -1;
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--jobs") && i + 1 < args.length) {
+                concurrentJobs = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--queue") && i + 1 < args.length) {
+                queueSize = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (args[i].equals("-t") && i + 1 < args.length) {
+                options.setThreads(Integer.parseInt(args[i + 1]));
+                i++;
+            } else if (args[i].equals("--cache-dir") && i + 1 < args.length) {
+                cacheDir = new File(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--cache-size") && i + 1 < args.length) {
+                cacheBytes = Long.parseLong(args[i + 1]) << 20;
+                i++;
+            } else if (args[i].equals("--cache-memory") && i + 1 < args.length) {
+                cacheMemory = Long.parseLong(args[i + 1]) << 20;
+                i++;
+            }
+        }
+
+        StatisticsLogger.logSystemInfo();
+        ResultCache cache = null;
+        if (cacheDir != null || cacheMemory >= 0) {
+            cache = new ResultCache(cacheDir, cacheMemory >= 0 ? cacheMemory : ResultCache.DEFAULT_MEMORY_BYTES,
+                    cacheBytes);
+        }
+        try {
+            SimulationServer server = new SimulationServer(registry, options, port, concurrentJobs, queueSize, cache);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close, "GameOfLife-Shutdown"));
+            server.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Error starting server: " + e.getMessage(), e);
+        }
+    }
+
+    // Evolves count random soups to stabilization and prints the census summary.
+    private static void runSoupSearch(String[] args) {
+        long count = Long.parseLong(args[1]);
+        int soupSize = SoupSearch.DEFAULT_SOUP_SIZE;
+        long seed = 0;
+        int maxGenerations = SoupSearch.DEFAULT_MAX_GENERATIONS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        File censusFile = null;
+
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--soup-size") && i + 1 < args.length) {
+                soupSize = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[i + 1]);
+                i++;
+            } else if (args[i].equals("--max-generations") && i + 1 < args.length) {
+                maxGenerations = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (args[i].equals("-t") && i + 1 < args.length) {
                 threads = Integer.parseInt(args[i + 1]);
                 i++;
+            } else if (args[i].equals("--census") && i + 1 < args.length) {
+                censusFile = new File(args[i + 1]);
+                i++;
             }
         }
 
         StatisticsLogger.logSystemInfo();
-        runSimulation(mode, patternFile, steps, threads);
+        SoupSearch search = new SoupSearch(soupSize, seed, maxGenerations, threads);
+        long start = System.currentTimeMillis();
+        List<SoupResult> census = search.run(count);
+        SoupSearch.printSummary(census, System.currentTimeMillis() - start);
+
+        if (censusFile != null) {
+            try {
+                SoupSearch.writeCensus(census, censusFile);
+                System.out.println("Census written to " + censusFile);
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing census: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // Prints the frames of a recording, or decodes the frame at or before a generation.
+    private static void runReplay(String[] args) {
+        File recording = new File(args[1]);
+        Long generation = null;
+        File exportFile = null;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--export") && i + 1 < args.length) {
+                exportFile = new File(args[i + 1]);
+                i++;
+            } else if (!args[i].startsWith("-")) {
+                generation = Long.parseLong(args[i]);
+            }
+        }
+
+        try (RecordingReader reader = new RecordingReader(recording)) {
+            int frames = reader.getFrameCount();
+            System.out.println("Recording " + recording + ": " + reader.getWidth() + "x" + reader.getHeight() + ", "
+                    + reader.getRule() + ", " + frames + " frames" + (frames > 0 ? ", generations " + reader.getGeneration(0) + " to "
+                    + reader.getGeneration(frames - 1) : ""));
+            if (frames == 0) {
+                return;
+            }
+
+            int frame = generation != null ? reader.findFrame(generation) : frames - 1;
+            if (frame < 0) {
+                throw new IllegalArgumentException("Recording starts after generation " + generation);
+            }
+            long start = System.currentTimeMillis();
+            Grid grid = reader.readFrame(frame);
+            System.out.println("Frame " + frame + " (generation " + reader.getGeneration(frame) + "): "
+                    + grid.getLiveCellCount() + " live cells, decoded in " + (System.currentTimeMillis() - start) + " ms");
+            if (exportFile != null) {
+                RLEWriter.write(grid, exportFile, reader.getRule());
+                System.out.println("Frame written to " + exportFile);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading recording: " + e.getMessage(), e);
+        }
     }
 
-    private static void runSimulation(String mode, String patternFile, int steps, int threads) {
+    private static void runUnboundedSimulation(String mode, String patternFile, int steps, int threads) {
         File file = new File(patternFile);
         String patternName = file.getName();
         System.out.println("Pattern name: " + patternName);
 
-        final Grid grid = RLEParser.parse(file);
-
-        if (mode.equals("parallel")) {
-            System.out.println("Using " + threads + " threads");
-        }
+        final ChunkedGrid grid = RLEParser.parseUnbounded(file);
 
         long time;
 
@@ -58,15 +451,298 @@ public class Main {
                 StatisticsLogger.log(mode + "-" + patternName, time, grid, 0, steps);
                 break;
             case "parallel":
+                System.out.println("Using " + threads + " threads");
                 time = Timer.measure(() -> new GameOfLifeParallel().simulate(grid, steps, threads));
                 StatisticsLogger.log(mode + "-" + patternName, time, grid, threads, steps);
                 break;
-            case "gpu":
-                time = Timer.measure(() -> new GameOfLifeGpu().simulate(grid, steps));
-                StatisticsLogger.log(mode + "-" + patternName, time, grid, 0, steps);
-                break;
             default:
-                throw new IllegalArgumentException("Unknown mode: " + mode);
+                throw new IllegalArgumentException("Mode " + mode + " does not support --unbounded");
+        }
+    }
+
+    private static void runOffHeapSimulation(String mode, String patternFile, int steps, int threads, File mapFile) {
+        File file = new File(patternFile);
+        String patternName = file.getName();
+        System.out.println("Pattern name: " + patternName);
+
+        try (OffHeapGrid grid = RLEParser.parseOffHeap(file, mapFile)) {
+            long time;
+
+            switch (mode) {
+                case "bitboard":
+                    time = Timer.measure(() -> new GameOfLifeBitboard().simulate(grid, steps));
+                    StatisticsLogger.log(mode + "-" + patternName, time, grid.getLiveCellCount(),
+                            grid.getCellCount(), 0, steps);
+                    break;
+                case "bands":
+                    System.out.println("Using " + threads + " threads");
+                    try (GameOfLifeBandParallel engine = new GameOfLifeBandParallel()) {
+                        time = Timer.measure(() -> engine.simulate(grid, steps, threads));
+                    }
+                    StatisticsLogger.log(mode + "-" + patternName, time, grid.getLiveCellCount(),
+                            grid.getCellCount(), threads, steps);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Mode " + mode + " does not support --offheap");
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing off-heap grid: " + e.getMessage());
+        }
+    }
+
+    private static class CheckpointOptions {
+        final int every;
+        final File file;
+        final boolean compress;
+        final File resumeFile;
+        final File recordFile;
+        final int recordEvery;
+        final long historyBytes;
+        final long[] historyAt;
+        final int historyThreads;
+
+        CheckpointOptions(int every, File file, boolean compress, File resumeFile, File recordFile, int recordEvery,
+                          long historyBytes, long[] historyAt, int historyThreads) {
+            this.every = every;
+            this.file = file;
+            this.compress = compress;
+            this.resumeFile = resumeFile;
+            this.recordFile = recordFile;
+            this.recordEvery = recordEvery;
+            this.historyBytes = historyBytes;
+            this.historyAt = historyAt;
+            this.historyThreads = historyThreads;
+        }
+    }
+
+    // A checkpoint continues with the rule it was written with; an explicit --rule must agree with it.
+    // Checkpoints from before the rule was stored fall back to --rule or the default.
+    private static Rule resumeRule(File resumeFile, Rule rule) {
+        String stored;
+        try {
+            stored = Snapshot.readRule(resumeFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading checkpoint: " + e.getMessage(), e);
+        }
+        if (stored == null) {
+            return rule;
+        }
+        Rule checkpointRule = Rule.parse(stored);
+        if (rule != null && !rule.equals(checkpointRule)) {
+            throw new IllegalArgumentException("Checkpoint " + resumeFile + " was written with rule " + checkpointRule
+                    + ", not " + rule);
+        }
+        return checkpointRule;
+    }
+
+    private static void runSimulation(EngineRegistry registry, String mode, String patternFile, int steps,
+                                      EngineOptions options, File exportFile, CheckpointOptions checkpoints,
+                                      ResultCache cache) {
+        Grid grid;
+        final String patternName;
+        long generation = 0;
+
+        if (checkpoints.resumeFile != null) {
+            try {
+                Snapshot snapshot = Snapshot.read(checkpoints.resumeFile);
+                grid = snapshot.toGrid();
+                generation = snapshot.getGeneration();
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading checkpoint: " + e.getMessage(), e);
+            }
+            patternName = checkpoints.resumeFile.getName();
+            System.out.println("Resuming " + grid.getWidth() + "x" + grid.getHeight() + " grid from generation "
+                    + generation + " with " + grid.getLiveCellCount() + " live cells");
+        } else {
+            File file = new File(patternFile);
+            patternName = file.getName();
+            System.out.println("Pattern name: " + patternName);
+            grid = RLEParser.parse(file);
+        }
+
+        // Cached generations count from the state the run starts from, so a resumed checkpoint is a run of its own.
+        long cacheBase = generation;
+        String cacheKey = null;
+        if (cache != null && steps > cacheBase) {
+            cacheKey = ResultCache.key(grid, options.getRule(), mode);
+            Snapshot cached = cache.lookup(cacheKey, steps - cacheBase);
+            if (cached != null) {
+                grid = cached.toGrid();
+                generation = cacheBase + cached.getGeneration();
+                System.out.println("Result cache " + (generation == steps ? "hit" : "resume") + " at generation "
+                        + generation + " with " + grid.getLiveCellCount() + " live cells");
+            }
+        }
+
+        if (cacheKey != null && generation == steps) {
+            // Nothing was simulated, so there is no run to log and no generations to checkpoint or record.
+            List<String> skipped = new ArrayList<>();
+            if (checkpoints.every > 0) {
+                skipped.add("--checkpoint-every");
+            }
+            if (checkpoints.recordFile != null) {
+                skipped.add("--record");
+            }
+            if (checkpoints.historyBytes > 0) {
+                skipped.add("--history");
+            }
+            if (!skipped.isEmpty()) {
+                System.out.println("Skipped " + String.join(", ", skipped) + ": the result came from the cache");
+            }
+        } else {
+            try (LifeEngine engine = registry.create(mode, options)) {
+                if (!engine.supportsRule(options.getRule())) {
+                    throw new IllegalArgumentException("Mode " + mode + " does not support rule " + options.getRule()
+                            + "; use lookup mode");
+                }
+                int loggedThreads = engine.isMultithreaded() ? options.getThreads() : 0;
+                if (engine.isMultithreaded()) {
+                    System.out.println("Using " + options.getThreads() + " threads");
+                }
+                run(engine, grid, mode, patternName, generation, steps, loggedThreads, checkpoints, options.getRule());
+                String summary = engine.getSummary();
+                if (summary != null) {
+                    System.out.println(summary);
+                }
+            }
+            if (cacheKey != null) {
+                cache.store(cacheKey, grid, steps - cacheBase);
+            }
+        }
+        if (cache != null) {
+            StatisticsLogger.logCache(mode + "-" + patternName, cache.getHits(), cache.getResumes(),
+                    cache.getMisses(), cache.getGenerationsSaved());
         }
+
+        if (exportFile != null) {
+            try {
+                RLEWriter.write(grid, exportFile, options.getRule().toString());
+                System.out.println("Final generation written to " + exportFile);
+            } catch (IOException e) {
+                System.err.println("Error writing RLE file: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void run(LifeEngine engine, Grid grid, String mode, String patternName, long generation,
+                            int steps, int loggedThreads, CheckpointOptions checkpoints, Rule rule) {
+        long startGeneration = generation;
+        int remaining = (int) Math.max(0, steps - startGeneration);
+        long time;
+
+        if (checkpoints.every > 0 || checkpoints.recordFile != null || checkpoints.historyBytes > 0) {
+            File checkpointFile = checkpoints.file != null ? checkpoints.file : new File(patternName + ".ckpt");
+            CheckpointWriter writer = checkpoints.every > 0
+                    ? new CheckpointWriter(checkpointFile, checkpoints.compress, rule.toString()) : null;
+            RecordingWriter recorder = null;
+            GenerationHistory history = checkpoints.historyBytes > 0
+                    ? new GenerationHistory(grid.getWidth(), grid.getHeight(), checkpoints.historyBytes,
+                    GenerationHistory.DEFAULT_KEYFRAME_INTERVAL, checkpoints.historyThreads) : null;
+            try {
+                if (checkpoints.recordFile != null) {
+                    recorder = new RecordingWriter(checkpoints.recordFile, grid.getWidth(), grid.getHeight(),
+                            rule.toString(), RecordingWriter.DEFAULT_KEYFRAME_INTERVAL);
+                }
+                RecordingWriter segmentRecorder = recorder;
+                time = Timer.measure(() -> runInSegments(engine, grid, startGeneration, remaining,
+                        checkpoints, writer, segmentRecorder, history));
+                if (history != null) {
+                    inspectHistory(history, checkpoints.historyAt, patternName, rule);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error creating recording: " + e.getMessage(), e);
+            } finally {
+                if (recorder != null) {
+                    recorder.close();
+                }
+                if (writer != null) {
+                    writer.close();
+                }
+                if (history != null) {
+                    history.close();
+                }
+            }
+        } else {
+            time = Timer.measure(() -> engine.simulate(grid, remaining));
+        }
+        // Engines that counted the last generation save the logger its scan of the grid.
+        GenerationStats stats = remaining > 0 ? engine.getGenerationStats() : null;
+        if (stats != null) {
+            System.out.println("Last generation: " + stats);
+            StatisticsLogger.log(mode + "-" + patternName, time, stats.getPopulation(),
+                    (long) grid.getWidth() * grid.getHeight(), loggedThreads, remaining);
+        } else {
+            StatisticsLogger.log(mode + "-" + patternName, time, grid, loggedThreads, remaining);
+        }
+    }
+
+    // Prints what the history kept and writes the requested generations as RLE.
+    private static void inspectHistory(GenerationHistory history, long[] generations, String patternName, Rule rule) {
+        System.out.println("History: " + history.getFrameCount() + " frames from generation "
+                + history.getOldestGeneration() + " to " + history.getNewestGeneration() + ", "
+                + history.getEvictedFrames() + " dropped, " + (history.getMemoryUsed() >> 10) + " of "
+                + (history.getBudget() >> 10) + " KB used");
+        for (long generation : generations) {
+            if (!history.contains(generation)) {
+                System.out.println("Generation " + generation + " is not in the history");
+                continue;
+            }
+            long start = System.currentTimeMillis();
+            Grid state = history.stateAt(generation);
+            File file = new File(patternName.replaceFirst("\\.rle$", "") + ".gen" + generation + ".rle");
+            System.out.println("Generation " + generation + ": " + state.getLiveCellCount() + " live cells, rebuilt in "
+                    + (System.currentTimeMillis() - start) + " ms, written to " + file);
+            try {
+                RLEWriter.write(state, file, rule.toString());
+            } catch (IOException e) {
+                System.err.println("Error writing RLE file: " + e.getMessage());
+            }
+        }
+    }
+
+    // Runs the engine through an observer that stops on multiples of the checkpoint and recording intervals,
+    // handing a copy of each boundary generation (and of the first and last one) to the background writers
+    // and the history. Any of them may be null. Engines that keep a packed board keep it across the stops
+    // (see LifeEngine.simulate with an observer), so recording every generation does not rebuild it.
+    private static void runInSegments(LifeEngine engine, Grid grid, long startGeneration, int steps,
+                                      CheckpointOptions checkpoints, CheckpointWriter writer, RecordingWriter recorder,
+                                      GenerationHistory history) {
+        long end = startGeneration + steps;
+        if (recorder != null) {
+            recorder.record(grid, startGeneration);
+        }
+        if (history != null) {
+            history.record(grid, startGeneration);
+        }
+
+        engine.simulate(grid, steps, new GenerationObserver() {
+            private long generation = startGeneration;
+
+            @Override
+            public int stepsToNext() {
+                long next = end;
+                if (writer != null) {
+                    next = Math.min(next, generation + checkpoints.every - generation % checkpoints.every);
+                }
+                if (recorder != null || history != null) {
+                    next = Math.min(next, generation + checkpoints.recordEvery - generation % checkpoints.recordEvery);
+                }
+                return (int) (next - generation);
+            }
+
+            @Override
+            public void observe(Grid current, int advanced) {
+                generation += advanced;
+                if (writer != null && (generation % checkpoints.every == 0 || generation == end)) {
+                    writer.submit(current, generation);
+                }
+                if (recorder != null && (generation % checkpoints.recordEvery == 0 || generation == end)) {
+                    recorder.record(current, generation);
+                }
+                if (history != null && (generation % checkpoints.recordEvery == 0 || generation == end)) {
+                    history.record(current, generation);
+                }
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package org.example.algorithms;
+
+import org.example.model.PackedGrid;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Finds the point where a run becomes periodic (a still life is period 1, a dead board too) and skips
+// the whole periods that remain. The hashes of the last `window` generations are kept; when a hash
+// comes back, the state is copied and stepped one more period, and only an exact match of the words
+// counts as a cycle, so a hash collision can never change the result. A run may be split over several
+// calls: when a call starts from the state the previous one ended with, it continues the same run, so
+// generations count from the start of the run and a cycle found earlier is skipped right away.
+public class CycleDetector {
+
+    public interface HashedStepper {
+        // Steps the board one generation and returns the hash of the new state, given the hash of the old.
+        long step(PackedGrid board, long hash);
+    }
+
+    private final int window;
+    private final long[] recentHashes;
+    private final long[] recentGenerations;
+    private final Map<Long, Long> generations = new HashMap<>();
+    private int recorded;
+
+    private long generation;
+    private long lastHash;
+    // The state the last call ended with, kept once a cycle is found to check that the next call continues it.
+    private long[] cycleState;
+
+    private long period = -1;
+    private long stabilizedAt = -1;
+    private long skipped;
+
+    public CycleDetector(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Cycle window must be positive: " + window);
+        }
+        this.window = window;
+        this.recentHashes = new long[window];
+        this.recentGenerations = new long[window];
+    }
+
+    // Advances the board by steps generations and returns the number that were actually computed.
+    public long run(PackedGrid board, long steps, HashedStepper stepper) {
+        long hash = StateHash.of(board.getCurrent());
+        if (recorded > 0 && (hash != lastHash
+                || (cycleState != null && !Arrays.equals(cycleState, board.getCurrent())))) {
+            reset();
+        }
+        if (recorded == 0) {
+            record(generation, hash);
+        }
+        long end = generation + steps;
+        long computed = 0;
+
+        if (period >= 0) {
+            long skip = steps / period * period;
+            generation += skip;
+            skipped += skip;
+        }
+        while (generation < end) {
+            hash = stepper.step(board, hash);
+            generation++;
+            computed++;
+
+            if (period >= 0) {
+                continue;
+            }
+
+            Long seen = generations.get(hash);
+            if (seen != null && generation + (generation - seen) <= end) {
+                long candidate = generation - seen;
+                long[] state = board.getCurrent().clone();
+
+                for (long i = 0; i < candidate; i++) {
+                    hash = stepper.step(board, hash);
+                }
+                generation += candidate;
+                computed += candidate;
+
+                if (Arrays.equals(state, board.getCurrent())) {
+                    period = candidate;
+                    stabilizedAt = seen;
+                    long skip = (end - generation) / period * period;
+                    generation += skip;
+                    skipped += skip;
+                    continue;
+                }
+            }
+            record(generation, hash);
+        }
+
+        lastHash = hash;
+        if (period >= 0) {
+            cycleState = board.getCurrent().clone();
+        }
+        return computed;
+    }
+
+    // Forgets the run, for a board that does not continue it.
+    private void reset() {
+        generations.clear();
+        recorded = 0;
+        generation = 0;
+        cycleState = null;
+        period = -1;
+        stabilizedAt = -1;
+        skipped = 0;
+    }
+
+    private void record(long generation, long hash) {
+        int slot = recorded % window;
+        if (recorded >= window) {
+            generations.remove(recentHashes[slot], recentGenerations[slot]);
+        }
+        recentHashes[slot] = hash;
+        recentGenerations[slot] = generation;
+        generations.put(hash, generation);
+        recorded++;
+    }
+
+    public boolean isCycleFound() {
+        return period >= 0;
+    }
+
+    public long getPeriod() {
+        return period;
+    }
+
+    // First generation of the cycle, counted from the start of the run, across calls.
+    public long getStabilizedAt() {
+        return stabilizedAt;
+    }
+
+    // Generations skipped over all calls of the run.
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public String summary() {
+        if (isCycleFound()) {
+            return "Cycle detected: period " + period + ", stabilized at generation " + stabilizedAt
+                    + ", skipped " + skipped + " generations";
+        }
+        return "No cycle detected within a window of " + window + " generations";
+    }
+}
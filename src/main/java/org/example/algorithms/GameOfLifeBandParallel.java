@@ -0,0 +1,209 @@
+package org.example.algorithms;
+
+import org.example.engine.GenerationStats;
+import org.example.engine.LifeEngine;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.Grid;
+import org.example.model.OffHeapGrid;
+import org.example.model.PackedGrid;
+
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class GameOfLifeBandParallel implements LifeEngine {
+    private final int threads;
+    private final GenerationStats stats = new GenerationStats();
+    private boolean trackStats;
+    private boolean stepped;
+    private WorkerGang gang;
+    private BandBarrier barrier;
+    private GenerationStats[] partials;
+
+    public GameOfLifeBandParallel() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameOfLifeBandParallel(int threads) {
+        this.threads = threads;
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps) {
+        simulate(grid, steps, threads);
+    }
+
+    @Override
+    public boolean isMultithreaded() {
+        return true;
+    }
+
+    @Override
+    public boolean enableGenerationStats() {
+        trackStats = true;
+        return true;
+    }
+
+    @Override
+    public GenerationStats getGenerationStats() {
+        return stepped ? stats : null;
+    }
+
+    public void simulate(Grid grid, int steps, int threads) {
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        simulate(board, steps, threads);
+        board.copyTo(grid);
+    }
+
+    public void simulate(PackedGrid board, int steps, int threads) {
+        int wordsPerRow = board.getWordsPerRow();
+        int height = board.getHeight();
+        long lastWordMask = board.getLastWordMask();
+
+        boolean counted = trackStats || Metrics.recorder() != null;
+        run(height, steps, threads, counted, board::swapGrids, board::getLiveCellCount, (rowStart, rowEnd) -> partial ->
+                GameOfLifeBitboard.stepRows(board.getCurrent(), board.getNext(), wordsPerRow, height,
+                        lastWordMask, rowStart, rowEnd, partial));
+    }
+
+    public void simulate(OffHeapGrid grid, int steps, int threads) {
+        run(grid.getHeight(), steps, threads, false, grid::swapGrids, grid::getLiveCellCount, (rowStart, rowEnd) -> {
+            long[][] window = GameOfLifeBitboard.newRowWindow(grid);
+            return partial -> GameOfLifeBitboard.streamRows(grid, rowStart, rowEnd, window);
+        });
+    }
+
+    private interface BandFactory {
+        Band create(int rowStart, int rowEnd);
+    }
+
+    private interface Band {
+        // Steps the band once and returns the number of words computed, counting its rows into partial
+        // unless it is null.
+        long step(GenerationStats partial);
+    }
+
+    // Each worker owns a contiguous band of rows for the whole call and writes only its own words of the
+    // next generation, so generations are separated by a single barrier and nothing has to be merged.
+    // The last worker to arrive at the barrier swaps the generations before the others are released, and
+    // also closes the step for the recorder, so a recorded step spans the slowest band. When counted, each
+    // worker counts its band into its own GenerationStats and the barrier adds them up. The workers and
+    // the barrier are kept across calls, so a run simulated in segments does not start a new gang for
+    // each one; they are replaced when the worker count changes or a worker failed, and stopped by close.
+    private void run(int height, int steps, int threads, boolean counted, Runnable swap, LongSupplier population,
+                     BandFactory bands) {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        int actualThreads = Math.min(threads, maxThreads);
+
+        if (actualThreads != threads) {
+            System.out.println("Warning: Requested " + threads + " threads, but only using "
+                    + actualThreads + " (system maximum)");
+        }
+
+        int workers = Math.max(1, Math.min(actualThreads, height));
+        int rowsPerBand = height / workers;
+        int extraRows = height % workers;
+
+        if (gang == null || gang.getWorkers() != workers || barrier.isTerminated()) {
+            close();
+            gang = new WorkerGang(workers);
+            barrier = new BandBarrier(workers);
+            partials = new GenerationStats[workers];
+            for (int i = 0; i < workers; i++) {
+                partials[i] = new GenerationStats();
+            }
+        }
+
+        Band[] workerBands = new Band[workers];
+        int rowStart = 0;
+        for (int i = 0; i < workers; i++) {
+            int rowEnd = rowStart + rowsPerBand + (i < extraRows ? 1 : 0);
+            workerBands[i] = bands.create(rowStart, rowEnd);
+            rowStart = rowEnd;
+        }
+
+        StepRecorder recorder = Metrics.recorder();
+        barrier.begin(steps, counted, swap, population, recorder);
+        if (recorder != null && steps > 0) {
+            recorder.beginStep();
+        }
+        gang.run(worker -> {
+            if (recorder != null) {
+                recorder.registerCurrentThread();
+            }
+            try {
+                GenerationStats partial = counted ? partials[worker] : null;
+                for (int i = 0; i < steps; i++) {
+                    long words = workerBands[worker].step(partial);
+                    if (recorder != null) {
+                        barrier.wordsComputed.add(words);
+                    }
+                    if (barrier.arriveAndAwaitAdvance() < 0) {
+                        return;
+                    }
+                }
+            } catch (Throwable t) {
+                // Releases the other bands; the gang reports the failure and the next call starts afresh.
+                barrier.forceTermination();
+                throw t;
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (gang != null) {
+            gang.close();
+            gang = null;
+            barrier = null;
+        }
+    }
+
+    // The barrier of the current gang. begin hands it the state of each call before the workers start.
+    private final class BandBarrier extends Phaser {
+        final LongAdder wordsComputed = new LongAdder();
+        private int steps;
+        private int stepsDone;
+        private boolean counted;
+        private Runnable swap;
+        private LongSupplier population;
+        private StepRecorder recorder;
+
+        BandBarrier(int workers) {
+            super(workers);
+        }
+
+        void begin(int steps, boolean counted, Runnable swap, LongSupplier population, StepRecorder recorder) {
+            this.steps = steps;
+            this.stepsDone = 0;
+            this.counted = counted;
+            this.swap = swap;
+            this.population = population;
+            this.recorder = recorder;
+            wordsComputed.reset();
+        }
+
+        @Override
+        protected boolean onAdvance(int phase, int registeredParties) {
+            swap.run();
+            if (counted) {
+                stats.clear();
+                for (GenerationStats partial : partials) {
+                    stats.merge(partial);
+                    partial.clear();
+                }
+                stepped = true;
+            }
+            stepsDone++;
+            if (recorder != null) {
+                recorder.endStep(1, wordsComputed.sumThenReset() * 64,
+                        counted ? stats.getPopulation() : population.getAsLong());
+                if (stepsDone < steps) {
+                    recorder.beginStep();
+                }
+            }
+            return super.onAdvance(phase, registeredParties);
+        }
+    }
+}
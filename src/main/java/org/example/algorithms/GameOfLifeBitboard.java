@@ -0,0 +1,331 @@
+package org.example.algorithms;
+
+import org.example.engine.GenerationObserver;
+import org.example.engine.GenerationStats;
+import org.example.engine.LifeEngine;
+import org.example.metrics.AllocationCheck;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.Grid;
+import org.example.model.OffHeapGrid;
+import org.example.model.PackedGrid;
+
+public class GameOfLifeBitboard implements LifeEngine {
+    private final int cycleWindow;
+    private CycleDetector detector;
+    private long cellsEvaluated;
+    private final GenerationStats stats = new GenerationStats();
+    private boolean trackStats;
+    private boolean stepped;
+    // Change in the StateHash over the last hashed step; an array so the static row loop can add to it.
+    private final long[] hashDelta = new long[1];
+
+    public GameOfLifeBitboard() {
+        this(0);
+    }
+
+    // A positive cycleWindow enables cycle detection over that many generations (see CycleDetector).
+    public GameOfLifeBitboard(int cycleWindow) {
+        this.cycleWindow = cycleWindow;
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps) {
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        advance(board, steps);
+        board.copyTo(grid);
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps, GenerationObserver observer) {
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        while (steps > 0) {
+            int segment = Math.min(steps, observer.stepsToNext());
+            advance(board, segment);
+            steps -= segment;
+            board.copyTo(grid);
+            observer.observe(grid, segment);
+        }
+    }
+
+    private void advance(PackedGrid board, int steps) {
+        StepRecorder recorder = Metrics.recorder();
+        AllocationCheck allocations = AllocationCheck.current();
+        if (cycleWindow > 0) {
+            // Kept across calls, so a run simulated in segments is checked as one run.
+            if (detector == null) {
+                detector = new CycleDetector(cycleWindow);
+            }
+            detector.run(board, steps, (b, hash) -> {
+                recordedStep(b, recorder, allocations, true);
+                return hash + hashDelta[0];
+            });
+        } else {
+            for (int i = 0; i < steps; i++) {
+                recordedStep(board, recorder, allocations, false);
+            }
+        }
+    }
+
+    private void recordedStep(PackedGrid board, StepRecorder recorder, AllocationCheck allocations,
+                              boolean hashed) {
+        if (recorder != null) {
+            recorder.beginStep();
+        }
+        if (allocations != null) {
+            allocations.beginStep();
+        }
+        if (hashed) {
+            stepHashed(board, trackStats || recorder != null);
+        } else {
+            step(board, trackStats || recorder != null);
+        }
+        if (allocations != null) {
+            allocations.endStep();
+        }
+        if (recorder != null) {
+            recorder.endStep(1, cellsEvaluated, stats.getPopulation());
+        }
+    }
+
+    @Override
+    public String getSummary() {
+        return detector != null ? detector.summary() : null;
+    }
+
+    @Override
+    public boolean enableGenerationStats() {
+        trackStats = true;
+        return true;
+    }
+
+    @Override
+    public GenerationStats getGenerationStats() {
+        return stepped ? stats : null;
+    }
+
+    public void simulate(OffHeapGrid grid, int steps) {
+        long[][] window = newRowWindow(grid);
+
+        StepRecorder recorder = Metrics.recorder();
+        for (int i = 0; i < steps; i++) {
+            if (recorder != null) {
+                recorder.beginStep();
+            }
+            long words = streamRows(grid, 0, grid.getHeight(), window);
+            grid.swapGrids();
+            if (recorder != null) {
+                recorder.endStep(1, words * 64, grid.getLiveCellCount());
+            }
+        }
+    }
+
+    // Cells whose next state was computed by the last step; words with an all-dead neighbourhood are skipped.
+    public long getCellsEvaluated() {
+        return cellsEvaluated;
+    }
+
+    public void step(PackedGrid board) {
+        step(board, trackStats);
+    }
+
+    private void step(PackedGrid board, boolean counted) {
+        stats.clear();
+        long words = stepRows(board.getCurrent(), board.getNext(), board.getWordsPerRow(), board.getHeight(),
+                board.getLastWordMask(), 0, board.getHeight(), counted ? stats : null);
+        cellsEvaluated = words * 64;
+        stepped = counted;
+        board.swapGrids();
+    }
+
+    // Like step, also summing the StateHash change of every word written into hashDelta, so the cycle
+    // detector keeps its hash current without comparing the two generations afterwards.
+    private void stepHashed(PackedGrid board, boolean counted) {
+        stats.clear();
+        long[] current = board.getCurrent();
+        long[] next = board.getNext();
+        int wordsPerRow = board.getWordsPerRow();
+        int height = board.getHeight();
+        long lastWordMask = board.getLastWordMask();
+        hashDelta[0] = 0;
+        long words = 0;
+        for (int row = 0; row < height; row++) {
+            int base = row * wordsPerRow;
+            long[] up = row > 0 ? current : null;
+            long[] down = row < height - 1 ? current : null;
+            words += counted
+                    ? stepRow(row, up, base - wordsPerRow, current, base, down, base + wordsPerRow,
+                            next, base, wordsPerRow, lastWordMask, true, stats, true, hashDelta)
+                    : stepRow(row, up, base - wordsPerRow, current, base, down, base + wordsPerRow,
+                            next, base, wordsPerRow, lastWordMask, false, null, true, hashDelta);
+        }
+        cellsEvaluated = words * 64;
+        stepped = counted;
+        board.swapGrids();
+    }
+
+    // Returns the number of words computed, not counting words skipped because their neighbourhood is empty.
+    public static long stepRows(long[] current, long[] next, int wordsPerRow, int height, long lastWordMask,
+                                int rowStart, int rowEnd) {
+        return stepRows(current, next, wordsPerRow, height, lastWordMask, rowStart, rowEnd, null);
+    }
+
+    // Like stepRows, also adding each new row to stats, counted from the words as they are written.
+    public static long stepRows(long[] current, long[] next, int wordsPerRow, int height, long lastWordMask,
+                                int rowStart, int rowEnd, GenerationStats stats) {
+        if (stats == null) {
+            long words = 0;
+            for (int row = rowStart; row < rowEnd; row++) {
+                int base = row * wordsPerRow;
+                words += stepRow(row > 0 ? current : null, base - wordsPerRow,
+                        current, base,
+                        row < height - 1 ? current : null, base + wordsPerRow,
+                        next, base, wordsPerRow, lastWordMask);
+            }
+            return words;
+        }
+
+        long words = 0;
+        for (int row = rowStart; row < rowEnd; row++) {
+            int base = row * wordsPerRow;
+            words += stepRow(row, row > 0 ? current : null, base - wordsPerRow,
+                    current, base,
+                    row < height - 1 ? current : null, base + wordsPerRow,
+                    next, base, wordsPerRow, lastWordMask, true, stats, false, null);
+        }
+        return words;
+    }
+
+    public static long[][] newRowWindow(OffHeapGrid grid) {
+        return new long[4][grid.getWordsPerRow()];
+    }
+
+    // Streams rows [rowStart, rowEnd) of the current generation through a three-row window and writes
+    // each result row into the next generation. The window comes from newRowWindow and must not be shared.
+    // Returns the number of words computed.
+    public static long streamRows(OffHeapGrid grid, int rowStart, int rowEnd, long[][] window) {
+        int wordsPerRow = grid.getWordsPerRow();
+        int height = grid.getHeight();
+        long lastWordMask = grid.getLastWordMask();
+
+        long[] above = window[0];
+        long[] middle = window[1];
+        long[] below = window[2];
+        long[] out = window[3];
+
+        if (rowStart > 0) {
+            grid.readRow(rowStart - 1, above);
+        }
+        grid.readRow(rowStart, middle);
+
+        long words = 0;
+        for (int row = rowStart; row < rowEnd; row++) {
+            boolean hasDown = row < height - 1;
+            if (hasDown) {
+                grid.readRow(row + 1, below);
+            }
+
+            words += stepRow(row > 0 ? above : null, 0, middle, 0, hasDown ? below : null, 0,
+                    out, 0, wordsPerRow, lastWordMask);
+            grid.writeNextRow(row, out);
+
+            long[] temp = above;
+            above = middle;
+            middle = below;
+            below = temp;
+        }
+        return words;
+    }
+
+    // Computes one row and returns the number of words that were not skipped. The rows above and below
+    // may be null at the grid border.
+    public static int stepRow(long[] up, int upOffset, long[] current, int offset, long[] down, int downOffset,
+                               long[] next, int nextOffset, int wordsPerRow, long lastWordMask) {
+        return stepRow(0, up, upOffset, current, offset, down, downOffset, next, nextOffset, wordsPerRow,
+                lastWordMask, false, null, false, null);
+    }
+
+    // The one row loop behind every step. When counted, the new row is added to stats: population, births
+    // and deaths by popcount of the words just computed, and the bounding box from the first and last live
+    // words of the row. When hashed, the StateHash change of each written word is added to hash[0]. Callers
+    // pass constants for both flags, so the JIT compiles a copy of the loop without the unused work.
+    private static int stepRow(int row, long[] up, int upOffset, long[] current, int offset, long[] down,
+                               int downOffset, long[] next, int nextOffset, int wordsPerRow, long lastWordMask,
+                               boolean counted, GenerationStats stats, boolean hashed, long[] hash) {
+        int last = wordsPerRow - 1;
+
+        long nw = 0, n = up != null ? up[upOffset] : 0;
+        long w = 0, c = current[offset];
+        long sw = 0, s = down != null ? down[downOffset] : 0;
+
+        int computed = 0;
+        long delta = 0;
+        long live = 0;
+        long born = 0;
+        long died = 0;
+        long any = 0;
+        for (int k = 0; k < wordsPerRow; k++) {
+            long ne = 0, e = 0, se = 0;
+            if (k < last) {
+                ne = up != null ? up[upOffset + k + 1] : 0;
+                e = current[offset + k + 1];
+                se = down != null ? down[downOffset + k + 1] : 0;
+            }
+
+            long result;
+            if ((nw | n | ne | w | c | e | sw | s | se) == 0) {
+                result = 0;
+            } else {
+                result = WordRules.nextWord(nw, n, ne, w, c, e, sw, s, se);
+                if (k == last) {
+                    result &= lastWordMask;
+                }
+                computed++;
+                if (hashed && result != c) {
+                    delta += StateHash.delta(offset + k, c, result);
+                }
+                if (counted) {
+                    live += Long.bitCount(result);
+                    born += Long.bitCount(result & ~c);
+                    died += Long.bitCount(c & ~result);
+                    any |= result;
+                }
+            }
+            next[nextOffset + k] = result;
+
+            nw = n;
+            n = ne;
+            w = c;
+            c = e;
+            sw = s;
+            s = se;
+        }
+
+        if (hashed) {
+            hash[0] += delta;
+        }
+        if (counted) {
+            addRow(stats, row, next, nextOffset, last, live, born, died, any);
+        }
+        return computed;
+    }
+
+    private static void addRow(GenerationStats stats, int row, long[] next, int nextOffset, int last, long live,
+                               long born, long died, long any) {
+        stats.addChanges(born, died);
+        if (any != 0) {
+            // The row has live cells, so both scans stop inside it; on a dense row they stop at once.
+            int first = 0;
+            while (next[nextOffset + first] == 0) {
+                first++;
+            }
+            int lastLive = last;
+            while (next[nextOffset + lastLive] == 0) {
+                lastLive--;
+            }
+            stats.addLive(live, row, row,
+                    (first << 6) + Long.numberOfTrailingZeros(next[nextOffset + first]),
+                    (lastLive << 6) + 63 - Long.numberOfLeadingZeros(next[nextOffset + lastLive]));
+        }
+    }
+}
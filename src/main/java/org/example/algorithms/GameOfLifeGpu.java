@@ -1,14 +1,15 @@
 package org.example.algorithms;
 
+import org.example.engine.LifeEngine;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
 import org.example.model.Grid;
-import org.jocl.CL;
 import org.jocl.Pointer;
 import org.jocl.Sizeof;
 import org.jocl.cl_context;
 import org.jocl.cl_device_id;
 import org.jocl.cl_kernel;
 import org.jocl.cl_mem;
-import org.jocl.cl_platform_id;
 import org.jocl.cl_program;
 import org.jocl.cl_command_queue;
 import org.jocl.CLException;
@@ -17,12 +18,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URL;
-import java.util.BitSet;
+import java.nio.ByteBuffer;
 import java.util.stream.Collectors;
 
 import static org.jocl.CL.*;
 
-public class GameOfLifeGpu {
+public class GameOfLifeGpu implements LifeEngine {
     private cl_context context;
     private cl_command_queue commandQueue;
     private cl_program program;
@@ -30,17 +31,50 @@ public class GameOfLifeGpu {
     private cl_kernel clearGridKernel;
     private cl_mem[] memObjects;
     private boolean gpuInitialized = false;
+    private int bufferWidth;
+    private int bufferHeight;
 
-    private int[] inputGrid;
-    private int[] outputGrid;
-    private Pointer srcPointer;
-    private Pointer dstPointer;
+    // One direct buffer stages both transfers: Grid writes its words into it in the kernel's int layout
+    // and reads the result back from it, so neither direction visits single cells.
+    private ByteBuffer hostBuffer;
+    private Pointer hostPointer;
+    private int bufferInts;
+
+    private final int platformIndex;
+    private final String deviceType;
+    private final int deviceIndex;
+
+    // clSetKernelArg copies the value, so the argument arrays are reused instead of allocated per step.
+    private final int[] sizeArg = new int[1];
+    private final int[] widthArg = new int[1];
+    private final int[] heightArg = new int[1];
 
     private static final int BATCH_SIZE = 100;
 
+    public GameOfLifeGpu() {
+        this(-1, OpenClDevice.TYPE_GPU, 0);
+    }
+
+    public GameOfLifeGpu(int platformIndex, String deviceType, int deviceIndex) {
+        this.platformIndex = platformIndex;
+        this.deviceType = deviceType;
+        this.deviceIndex = deviceIndex;
+    }
+
+    // Kernel launches are asynchronous, so the whole call (including transfers) is reported to the step
+    // recorder as a single step.
+    @Override
     public void simulate(Grid grid, int steps) {
+        StepRecorder recorder = Metrics.recorder();
+        if (recorder != null) {
+            recorder.beginStep();
+        }
+
         if (!gpuInitialized) {
-            initializeGpu(grid);
+            initializeGpu();
+        }
+        if (memObjects == null || grid.getWidth() != bufferWidth || grid.getHeight() != bufferHeight) {
+            allocateBuffers(grid);
         }
 
         prepareInputData(grid);
@@ -55,15 +89,21 @@ public class GameOfLifeGpu {
                 int inputIdx = currentBuffer;
                 int outputIdx = 1 - currentBuffer;
 
-                clearBuffer(memObjects[outputIdx], inputGrid.length);
+                clearBuffer(memObjects[outputIdx], bufferInts);
                 runSingleStepOnGpu(grid, memObjects[inputIdx], memObjects[outputIdx]);
                 currentBuffer = outputIdx;
             }
 
             remainingSteps -= batchSteps;
+            // The queue is in order, so launches only need to be submitted, not waited for, per batch.
+            clFlush(commandQueue);
         }
         downloadFinalResult(currentBuffer);
         updateGridFromGpuResult(grid);
+
+        if (recorder != null) {
+            recorder.endStep(steps, (long) grid.getWidth() * grid.getHeight() * steps, grid.getLiveCellCount());
+        }
     }
 
     private String loadKernelFromResource() {
@@ -81,42 +121,15 @@ public class GameOfLifeGpu {
         }
     }
 
-    private void initializeGpu(Grid grid) {
-        final int platformIndex = 0;
-        final long deviceType = CL_DEVICE_TYPE_GPU;
-        final int deviceIndex = 0;
-        final int width = grid.getWidth();
-        final int height = grid.getHeight();
-        final int bufferSize = width * height / 32 + 1;
-
-        CL.setExceptionsEnabled(true);
-        int[] numPlatformsArray = new int[1];
-        clGetPlatformIDs(0, null, numPlatformsArray);
-        int numPlatforms = numPlatformsArray[0];
-
-        cl_platform_id[] platforms = new cl_platform_id[numPlatforms];
-        clGetPlatformIDs(platforms.length, platforms, null);
-        cl_platform_id platform = platforms[platformIndex];
-
-        int[] numDevicesArray = new int[1];
-        clGetDeviceIDs(platform, deviceType, 0, null, numDevicesArray);
-        int numDevices = numDevicesArray[0];
-
-        cl_device_id[] devices = new cl_device_id[numDevices];
-        clGetDeviceIDs(platform, deviceType, numDevices, devices, null);
-        cl_device_id device = devices[deviceIndex];
-
-        byte[] nameBytes = new byte[256];
-        clGetDeviceInfo(device, CL_DEVICE_NAME, nameBytes.length, Pointer.to(nameBytes), null);
-        String deviceName = new String(nameBytes).trim();
-        System.out.println("Using GPU device: " + deviceName);
+    // The context and the compiled program are kept for the engine's lifetime; only the buffers depend on
+    // the grid size (see allocateBuffers), so a long-lived engine compiles its kernels once.
+    private void initializeGpu() {
+        OpenClDevice selected = OpenClDevice.select(platformIndex, deviceType, deviceIndex);
+        cl_device_id device = selected.getDevice();
+        System.out.println("Using OpenCL device: " + selected.getName());
 
         context = clCreateContext(null, 1, new cl_device_id[]{device}, null, null, null);
-        commandQueue = clCreateCommandQueue(context, device, CL_QUEUE_PROFILING_ENABLE, null);
-
-        memObjects = new cl_mem[2];
-        memObjects[0] = clCreateBuffer(context, CL_MEM_READ_WRITE, Sizeof.cl_int * bufferSize, null, null);
-        memObjects[1] = clCreateBuffer(context, CL_MEM_READ_WRITE, Sizeof.cl_int * bufferSize, null, null);
+        commandQueue = selected.createCommandQueue(context, CL_QUEUE_PROFILING_ENABLE);
 
         String kernelSource = loadKernelFromResource();
         program = clCreateProgramWithSource(context, 1, new String[]{kernelSource}, null, null);
@@ -135,39 +148,58 @@ public class GameOfLifeGpu {
         gameOfLifeStepKernel = clCreateKernel(program, "gameOfLifeStep", null);
         clearGridKernel = clCreateKernel(program, "clearGrid", null);
 
-        inputGrid = new int[bufferSize];
-        outputGrid = new int[bufferSize];
-        srcPointer = Pointer.to(inputGrid);
-        dstPointer = Pointer.to(outputGrid);
-
         gpuInitialized = true;
     }
 
-    private void prepareInputData(Grid grid) {
-        BitSet current = grid.getCurrent();
-        java.util.Arrays.fill(inputGrid, 0);
+    private void allocateBuffers(Grid grid) {
+        releaseBuffers();
+        bufferWidth = grid.getWidth();
+        bufferHeight = grid.getHeight();
+        bufferInts = bufferWidth * bufferHeight / 32 + 1;
 
-        for (int i = current.nextSetBit(0); i >= 0; i = current.nextSetBit(i + 1)) {
-            inputGrid[i / 32] |= (1 << (i % 32));
+        memObjects = new cl_mem[2];
+        memObjects[0] = clCreateBuffer(context, CL_MEM_READ_WRITE, Sizeof.cl_int * bufferInts, null, null);
+        memObjects[1] = clCreateBuffer(context, CL_MEM_READ_WRITE, Sizeof.cl_int * bufferInts, null, null);
+
+        // Whole words, and at least the ints the device buffers hold; the kernels read the ints as
+        // little-endian, like every OpenCL device in practice.
+        int bytes = Math.max(grid.getWordCount() * Long.BYTES, (bufferInts + 1) / 2 * Long.BYTES);
+        hostBuffer = ByteBuffer.allocateDirect(bytes);
+        hostPointer = Pointer.to(hostBuffer);
+    }
+
+    private void releaseBuffers() {
+        if (memObjects != null) {
+            clReleaseMemObject(memObjects[0]);
+            clReleaseMemObject(memObjects[1]);
+            memObjects = null;
+        }
+    }
+
+    private void prepareInputData(Grid grid) {
+        hostBuffer.clear();
+        grid.exportWords(hostBuffer);
+        while (hostBuffer.hasRemaining()) {
+            hostBuffer.put((byte) 0);
         }
+        hostBuffer.clear();
         clEnqueueWriteBuffer(
                 commandQueue, memObjects[0], CL_TRUE, 0,
-                (long) Sizeof.cl_int * inputGrid.length, srcPointer, 0, null, null);
+                (long) Sizeof.cl_int * bufferInts, hostPointer, 0, null, null);
 
-        clearBuffer(memObjects[1], inputGrid.length);
+        clearBuffer(memObjects[1], bufferInts);
     }
 
     private void clearBuffer(cl_mem buffer, int size) {
         clSetKernelArg(clearGridKernel, 0, Sizeof.cl_mem, Pointer.to(buffer));
-        clSetKernelArg(clearGridKernel, 1, Sizeof.cl_int, Pointer.to(new int[]{size}));
+        sizeArg[0] = size;
+        clSetKernelArg(clearGridKernel, 1, Sizeof.cl_int, Pointer.to(sizeArg));
 
         long[] globalWorkSize = new long[]{calculateOptimalSize(size)};
         long[] localWorkSize = new long[]{256};
 
         clEnqueueNDRangeKernel(
                 commandQueue, clearGridKernel, 1, null, globalWorkSize, localWorkSize, 0, null, null);
-
-        clFinish(commandQueue);
     }
 
     private void runSingleStepOnGpu(Grid grid, cl_mem inputBuffer, cl_mem outputBuffer) {
@@ -176,8 +208,10 @@ public class GameOfLifeGpu {
 
         clSetKernelArg(gameOfLifeStepKernel, 0, Sizeof.cl_mem, Pointer.to(inputBuffer));
         clSetKernelArg(gameOfLifeStepKernel, 1, Sizeof.cl_mem, Pointer.to(outputBuffer));
-        clSetKernelArg(gameOfLifeStepKernel, 2, Sizeof.cl_int, Pointer.to(new int[]{width}));
-        clSetKernelArg(gameOfLifeStepKernel, 3, Sizeof.cl_int, Pointer.to(new int[]{height}));
+        widthArg[0] = width;
+        heightArg[0] = height;
+        clSetKernelArg(gameOfLifeStepKernel, 2, Sizeof.cl_int, Pointer.to(widthArg));
+        clSetKernelArg(gameOfLifeStepKernel, 3, Sizeof.cl_int, Pointer.to(heightArg));
 
         long[] globalWorkSize = new long[]{
                 calculateOptimalSize(width),
@@ -187,47 +221,33 @@ public class GameOfLifeGpu {
 
         clEnqueueNDRangeKernel(
                 commandQueue, gameOfLifeStepKernel, 2, null, globalWorkSize, localWorkSize, 0, null, null);
-
-        clFinish(commandQueue);
     }
 
     private void downloadFinalResult(int bufferIndex) {
         clEnqueueReadBuffer(
                 commandQueue, memObjects[bufferIndex], CL_TRUE, 0,
-                (long) Sizeof.cl_int * outputGrid.length, dstPointer, 0, null, null);
+                (long) Sizeof.cl_int * bufferInts, hostPointer, 0, null, null);
     }
 
+    // Any bits the kernel left after the last cell are dropped by importWords.
     private void updateGridFromGpuResult(Grid grid) {
-        BitSet next = grid.getNext();
-        int width = grid.getWidth();
-        int height = grid.getHeight();
-
-        next.clear();
-        for (int i = 0; i < outputGrid.length; i++) {
-            int value = outputGrid[i];
-            if (value != 0) {
-                for (int bit = 0; bit < 32; bit++) {
-                    if ((value & (1 << bit)) != 0) {
-                        int index = i * 32 + bit;
-                        if (index < width * height) {
-                            next.set(index);
-                        }
-                    }
-                }
-            }
-        }
-
-        grid.swapGrids();
+        hostBuffer.clear();
+        grid.importWords(hostBuffer);
+        hostBuffer.clear();
     }
 
     private int calculateOptimalSize(int size) {
         return ((size + 255) / 256) * 256;
     }
 
+    @Override
+    public void close() {
+        cleanup();
+    }
+
     public void cleanup() {
         if (gpuInitialized) {
-            clReleaseMemObject(memObjects[0]);
-            clReleaseMemObject(memObjects[1]);
+            releaseBuffers();
             clReleaseKernel(gameOfLifeStepKernel);
             clReleaseKernel(clearGridKernel);
             clReleaseProgram(program);
@@ -0,0 +1,234 @@
+package org.example.algorithms;
+
+import org.example.engine.LifeEngine;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+import org.jocl.CLException;
+import org.jocl.Pointer;
+import org.jocl.Sizeof;
+import org.jocl.cl_command_queue;
+import org.jocl.cl_context;
+import org.jocl.cl_device_id;
+import org.jocl.cl_kernel;
+import org.jocl.cl_mem;
+import org.jocl.cl_program;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.stream.Collectors;
+
+import static org.jocl.CL.*;
+
+// OpenCL engine on the PackedGrid word layout. Each work item produces whole 64-bit words, and each
+// launch advances a work-group's tile up to `generationsPerLaunch` generations in local memory (see
+// kernels/gameOfLifeWords.cl), so there is no clear pass, no atomics and no host synchronization
+// between launches: the in-order queue is only flushed per batch and read back once at the end.
+public class GameOfLifeGpuFused implements LifeEngine {
+    public static final int DEFAULT_GENERATIONS_PER_LAUNCH = 16;
+    public static final int MAX_GENERATIONS_PER_LAUNCH = 64;
+
+    private static final String KERNEL_RESOURCE = "kernels/gameOfLifeWords.cl";
+    private static final int TILE_WORDS = 8;
+    private static final int MAX_TILE_ROWS = 128;
+    private static final int MIN_TILE_ROWS = 8;
+    private static final int BATCH_SIZE = 64;
+
+    private final int platformIndex;
+    private final String deviceType;
+    private final int deviceIndex;
+    private final int generationsPerLaunch;
+
+    private cl_context context;
+    private cl_command_queue commandQueue;
+    private cl_program program;
+    private cl_kernel kernel;
+    private cl_mem[] memObjects;
+    private boolean gpuInitialized = false;
+
+    private int width;
+    private int height;
+    private int tileRows;
+    private long[] globalWorkSize;
+    private long[] localWorkSize;
+
+    // clSetKernelArg copies the value, so the argument arrays and pointers are reused across launches.
+    private Pointer[] bufferArgs;
+    private final int[] generationsArg = new int[1];
+    private final Pointer generationsPointer = Pointer.to(generationsArg);
+    private final int[] dimensionArg = new int[1];
+    private final long[] maskArg = new long[1];
+
+    public GameOfLifeGpuFused() {
+        this(-1, OpenClDevice.TYPE_GPU, 0, DEFAULT_GENERATIONS_PER_LAUNCH);
+    }
+
+    public GameOfLifeGpuFused(int platformIndex, String deviceType, int deviceIndex, int generationsPerLaunch) {
+        if (generationsPerLaunch < 1 || generationsPerLaunch > MAX_GENERATIONS_PER_LAUNCH) {
+            throw new IllegalArgumentException("Generations per launch must be between 1 and "
+                    + MAX_GENERATIONS_PER_LAUNCH + ": " + generationsPerLaunch);
+        }
+        this.platformIndex = platformIndex;
+        this.deviceType = deviceType;
+        this.deviceIndex = deviceIndex;
+        this.generationsPerLaunch = generationsPerLaunch;
+    }
+
+    // Like the legacy gpu engine, the whole call (including transfers) is reported as a single step.
+    @Override
+    public void simulate(Grid grid, int steps) {
+        StepRecorder recorder = Metrics.recorder();
+        if (recorder != null) {
+            recorder.beginStep();
+        }
+
+        if (!gpuInitialized) {
+            initializeGpu();
+        }
+        if (memObjects == null || grid.getWidth() != width || grid.getHeight() != height) {
+            allocateBuffers(grid);
+        }
+
+        PackedGrid packed = PackedGrid.fromGrid(grid);
+        long[] words = packed.getCurrent();
+        long bytes = (long) Sizeof.cl_ulong * words.length;
+        clEnqueueWriteBuffer(commandQueue, memObjects[0], CL_TRUE, 0, bytes, Pointer.to(words), 0, null, null);
+
+        dimensionArg[0] = packed.getWordsPerRow();
+        clSetKernelArg(kernel, 2, Sizeof.cl_int, Pointer.to(dimensionArg));
+        dimensionArg[0] = height;
+        clSetKernelArg(kernel, 3, Sizeof.cl_int, Pointer.to(dimensionArg));
+        maskArg[0] = packed.getLastWordMask();
+        clSetKernelArg(kernel, 4, Sizeof.cl_ulong, Pointer.to(maskArg));
+
+        int currentBuffer = 0;
+        int launches = 0;
+        for (int remaining = steps; remaining > 0; ) {
+            int generations = Math.min(remaining, generationsPerLaunch);
+            generationsArg[0] = generations;
+
+            clSetKernelArg(kernel, 0, Sizeof.cl_mem, bufferArgs[currentBuffer]);
+            clSetKernelArg(kernel, 1, Sizeof.cl_mem, bufferArgs[1 - currentBuffer]);
+            clSetKernelArg(kernel, 5, Sizeof.cl_int, generationsPointer);
+            clEnqueueNDRangeKernel(commandQueue, kernel, 2, null, globalWorkSize, localWorkSize, 0, null, null);
+
+            currentBuffer = 1 - currentBuffer;
+            remaining -= generations;
+            if (++launches % BATCH_SIZE == 0) {
+                clFlush(commandQueue);
+            }
+        }
+
+        // Blocking read: the queue is in order, so this waits for the last launch.
+        clEnqueueReadBuffer(commandQueue, memObjects[currentBuffer], CL_TRUE, 0, bytes, Pointer.to(words),
+                0, null, null);
+        packed.copyTo(grid);
+
+        if (recorder != null) {
+            recorder.endStep(steps, (long) width * height * steps, grid.getLiveCellCount());
+        }
+    }
+
+    // The context and the compiled program only depend on the device and the launch depth, so a long-lived
+    // engine compiles them once; buffers and work sizes follow the grid (see allocateBuffers).
+    private void initializeGpu() {
+        OpenClDevice selected = OpenClDevice.select(platformIndex, deviceType, deviceIndex);
+        cl_device_id device = selected.getDevice();
+        System.out.println("Using OpenCL device: " + selected.getName());
+
+        // Two tiles of (rows + halo) x (TILE_WORDS + 2) words must fit in local memory.
+        long localMemory = selected.getLong(CL_DEVICE_LOCAL_MEM_SIZE);
+        tileRows = MAX_TILE_ROWS;
+        while (tileRows > MIN_TILE_ROWS
+                && 2L * (tileRows + 2 * generationsPerLaunch) * (TILE_WORDS + 2) * Long.BYTES > localMemory) {
+            tileRows /= 2;
+        }
+
+        context = clCreateContext(null, 1, new cl_device_id[]{device}, null, null, null);
+        commandQueue = selected.createCommandQueue(context, 0);
+
+        program = clCreateProgramWithSource(context, 1, new String[]{loadKernelFromResource()}, null, null);
+        String buildOptions = "-D TILE_WORDS=" + TILE_WORDS + " -D TILE_ROWS=" + tileRows
+                + " -D GENS=" + generationsPerLaunch;
+        try {
+            clBuildProgram(program, 0, null, buildOptions, null, null);
+        } catch (CLException e) {
+            long[] logSize = new long[1];
+            clGetProgramBuildInfo(program, device, CL_PROGRAM_BUILD_LOG, 0, null, logSize);
+            byte[] log = new byte[(int) logSize[0]];
+            clGetProgramBuildInfo(program, device, CL_PROGRAM_BUILD_LOG, log.length, Pointer.to(log), null);
+            System.err.println("OpenCL Build Log:\n" + new String(log));
+            throw e;
+        }
+        kernel = clCreateKernel(program, "lifeGenerations", null);
+
+        // One work item per tile column, and as many rows as the kernel allows (at most one per tile row).
+        long[] maxGroupSize = new long[1];
+        clGetKernelWorkGroupInfo(kernel, device, CL_KERNEL_WORK_GROUP_SIZE, Sizeof.size_t,
+                Pointer.to(maxGroupSize), null);
+        int localX = (int) Math.min(TILE_WORDS, maxGroupSize[0]);
+        int localY = (int) Math.max(1, Math.min(tileRows, maxGroupSize[0] / localX));
+        localWorkSize = new long[]{localX, localY};
+
+        gpuInitialized = true;
+    }
+
+    private void allocateBuffers(Grid grid) {
+        releaseBuffers();
+        width = grid.getWidth();
+        height = grid.getHeight();
+        int wordsPerRow = (width + 63) >>> 6;
+        long words = (long) wordsPerRow * height;
+
+        memObjects = new cl_mem[2];
+        memObjects[0] = clCreateBuffer(context, CL_MEM_READ_WRITE, Sizeof.cl_ulong * words, null, null);
+        memObjects[1] = clCreateBuffer(context, CL_MEM_READ_WRITE, Sizeof.cl_ulong * words, null, null);
+        bufferArgs = new Pointer[]{Pointer.to(memObjects[0]), Pointer.to(memObjects[1])};
+
+        long groupsX = (wordsPerRow + TILE_WORDS - 1) / TILE_WORDS;
+        long groupsY = (height + tileRows - 1) / tileRows;
+        globalWorkSize = new long[]{groupsX * localWorkSize[0], groupsY * localWorkSize[1]};
+    }
+
+    private void releaseBuffers() {
+        if (memObjects != null) {
+            clReleaseMemObject(memObjects[0]);
+            clReleaseMemObject(memObjects[1]);
+            memObjects = null;
+        }
+    }
+
+    private String loadKernelFromResource() {
+        try {
+            URL resource = getClass().getClassLoader().getResource(KERNEL_RESOURCE);
+            if (resource == null) {
+                throw new IOException("Kernel resource not found: " + KERNEL_RESOURCE);
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream()))) {
+                return reader.lines().collect(Collectors.joining("\n"));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load kernel code: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cleanup();
+    }
+
+    public void cleanup() {
+        if (gpuInitialized) {
+            releaseBuffers();
+            clReleaseKernel(kernel);
+            clReleaseProgram(program);
+            clReleaseCommandQueue(commandQueue);
+            clReleaseContext(context);
+            gpuInitialized = false;
+        }
+    }
+}
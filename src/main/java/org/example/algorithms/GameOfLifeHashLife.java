@@ -0,0 +1,77 @@
+package org.example.algorithms;
+
+import org.example.engine.LifeEngine;
+import org.example.hashlife.HashLifeUniverse;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.Grid;
+
+public class GameOfLifeHashLife implements LifeEngine {
+    public static final long DEFAULT_MAX_NODES = 4_000_000L;
+
+    private final long maxNodes;
+    private long nodes;
+    private long collections;
+
+    public GameOfLifeHashLife() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    public GameOfLifeHashLife(long maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps) {
+        HashLifeUniverse universe = HashLifeUniverse.fromGrid(grid, maxNodes);
+        advance(universe, grid.getWidth(), grid.getHeight(), steps);
+        universe.copyTo(grid);
+
+        nodes = universe.getTable().size();
+        collections += universe.getTable().getCollections();
+    }
+
+    // Nodes in the table at the end of the last call; the universe is rebuilt from the grid on every call.
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    // Collections of the node table over all calls.
+    public long getCollections() {
+        return collections;
+    }
+
+    @Override
+    public String getSummary() {
+        return "HashLife nodes: " + nodes + " (collections: " + collections + ")";
+    }
+
+    // The other engines treat everything outside the grid as permanently dead. A jump of k generations
+    // on the unbounded quadtree gives the same result as long as no live cell can reach the border
+    // within those k generations, so the jump size is limited by the distance to the border and the
+    // universe is clipped whenever a single generation has to be taken right at the edge.
+    // Each jump is reported to the step recorder as one step; memoized results are not cell evaluations,
+    // so no cells are reported.
+    public void advance(HashLifeUniverse universe, int width, int height, long steps) {
+        long remaining = steps;
+        StepRecorder recorder = Metrics.recorder();
+
+        while (remaining > 0 && universe.getPopulation() > 0) {
+            if (recorder != null) {
+                recorder.beginStep();
+            }
+            long margin = universe.margin(width, height);
+            long limit = Math.max(1, Math.min(remaining, margin - 1));
+            int log2 = 63 - Long.numberOfLeadingZeros(limit);
+
+            universe.step(log2);
+            if ((1L << log2) >= margin) {
+                universe.clip(width, height);
+            }
+            remaining -= 1L << log2;
+            if (recorder != null) {
+                recorder.endStep(1L << log2, 0, universe.getPopulation());
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.algorithms;
+
+import org.example.engine.GenerationObserver;
+import org.example.engine.GenerationStats;
+import org.example.engine.LifeEngine;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+import org.example.model.Rule;
+
+// Runs any B/S rule from a precomputed table. Each lookup takes a 4x4 neighbourhood (16 bits) and yields
+// the next state of its 2x2 centre, so a step walks the board in pairs of rows and produces 4 cells per
+// lookup. The board uses the PackedGrid layout.
+public class GameOfLifeLookup implements LifeEngine {
+    private final Rule rule;
+    private final byte[] table;
+    private final boolean bornFromEmpty;
+    private long cellsEvaluated;
+    private final GenerationStats stats = new GenerationStats();
+    private boolean trackStats;
+    private boolean stepped;
+
+    public GameOfLifeLookup() {
+        this(Rule.CONWAY);
+    }
+
+    public GameOfLifeLookup(Rule rule) {
+        this.rule = rule;
+        this.table = buildTable(rule);
+        this.bornFromEmpty = rule.isBorn(0);
+    }
+
+    // Bit 4y + x of the index is cell (y, x) of the block, that is column c - 1 + x of row r - 1 + y. Bits 0-1
+    // of the entry are cells (r, c) and (r, c + 1), bits 2-3 are (r + 1, c) and (r + 1, c + 1).
+    static byte[] buildTable(Rule rule) {
+        byte[] table = new byte[1 << 16];
+        for (int index = 0; index < table.length; index++) {
+            int result = 0;
+            for (int y = 1; y <= 2; y++) {
+                for (int x = 1; x <= 2; x++) {
+                    int neighbours = 0;
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dx = -1; dx <= 1; dx++) {
+                            if ((dy != 0 || dx != 0) && (index & (1 << ((y + dy) * 4 + x + dx))) != 0) {
+                                neighbours++;
+                            }
+                        }
+                    }
+                    boolean alive = (index & (1 << (y * 4 + x))) != 0;
+                    if (rule.nextState(alive, neighbours)) {
+                        result |= 1 << ((y - 1) * 2 + (x - 1));
+                    }
+                }
+            }
+            table[index] = (byte) result;
+        }
+        return table;
+    }
+
+    @Override
+    public boolean supportsRule(Rule rule) {
+        return rule.equals(this.rule);
+    }
+
+    @Override
+    public boolean enableGenerationStats() {
+        trackStats = true;
+        return true;
+    }
+
+    @Override
+    public GenerationStats getGenerationStats() {
+        return stepped ? stats : null;
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps) {
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        advance(board, steps);
+        board.copyTo(grid);
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps, GenerationObserver observer) {
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        while (steps > 0) {
+            int segment = Math.min(steps, observer.stepsToNext());
+            advance(board, segment);
+            steps -= segment;
+            board.copyTo(grid);
+            observer.observe(grid, segment);
+        }
+    }
+
+    private void advance(PackedGrid board, int steps) {
+        StepRecorder recorder = Metrics.recorder();
+        for (int i = 0; i < steps; i++) {
+            if (recorder != null) {
+                recorder.beginStep();
+            }
+            step(board, trackStats || recorder != null);
+            if (recorder != null) {
+                recorder.endStep(1, cellsEvaluated, stats.getPopulation());
+            }
+        }
+    }
+
+    // Cells whose next state was computed by the last step; word columns with an all-dead neighbourhood
+    // are skipped unless the rule has B0.
+    public long getCellsEvaluated() {
+        return cellsEvaluated;
+    }
+
+    public void step(PackedGrid board) {
+        step(board, trackStats);
+    }
+
+    // When counted, each row pair is added to the stats right after it is written, while it is in cache.
+    private void step(PackedGrid board, boolean counted) {
+        long[] current = board.getCurrent();
+        long[] next = board.getNext();
+        int wordsPerRow = board.getWordsPerRow();
+        int height = board.getHeight();
+
+        stats.clear();
+        long cells = 0;
+        for (int row = 0; row < height; row += 2) {
+            cells += stepRowPair(current, next, wordsPerRow, height, board.getLastWordMask(), row);
+            if (counted) {
+                for (int r = row; r < Math.min(row + 2, height); r++) {
+                    stats.addRow(r, current, r * wordsPerRow, next, r * wordsPerRow, wordsPerRow);
+                }
+            }
+        }
+        cellsEvaluated = cells;
+        stepped = counted;
+        board.swapGrids();
+    }
+
+    // Computes rows row and row + 1 (if it exists) from rows row - 1 to row + 2.
+    private long stepRowPair(long[] current, long[] next, int wordsPerRow, int height, long lastWordMask,
+                             int row) {
+        boolean hasBottom = row + 1 < height;
+        int above = row > 0 ? (row - 1) * wordsPerRow : -1;
+        int top = row * wordsPerRow;
+        int bottom = hasBottom ? top + wordsPerRow : -1;
+        int below = row + 2 < height ? top + 2 * wordsPerRow : -1;
+        long cells = 0;
+
+        for (int k = 0; k < wordsPerRow; k++) {
+            long a = word(current, above, k, wordsPerRow);
+            long b = word(current, top, k, wordsPerRow);
+            long c = word(current, bottom, k, wordsPerRow);
+            long d = word(current, below, k, wordsPerRow);
+            long aWest = word(current, above, k - 1, wordsPerRow);
+            long bWest = word(current, top, k - 1, wordsPerRow);
+            long cWest = word(current, bottom, k - 1, wordsPerRow);
+            long dWest = word(current, below, k - 1, wordsPerRow);
+            long aEast = word(current, above, k + 1, wordsPerRow);
+            long bEast = word(current, top, k + 1, wordsPerRow);
+            long cEast = word(current, bottom, k + 1, wordsPerRow);
+            long dEast = word(current, below, k + 1, wordsPerRow);
+
+            if (!bornFromEmpty && (a | b | c | d | ((aWest | bWest | cWest | dWest) >>> 63)
+                    | ((aEast | bEast | cEast | dEast) & 1)) == 0) {
+                next[top + k] = 0;
+                if (hasBottom) {
+                    next[bottom + k] = 0;
+                }
+                continue;
+            }
+
+            // Shifting in bit 63 of the west word puts column 64k - 1 + i at bit i, so the 4 columns of
+            // block j start at bit 2j. The last block also needs bit 63 and bit 0 of the east word.
+            long wa = (a << 1) | (aWest >>> 63);
+            long wb = (b << 1) | (bWest >>> 63);
+            long wc = (c << 1) | (cWest >>> 63);
+            long wd = (d << 1) | (dWest >>> 63);
+
+            long topResult = 0;
+            long bottomResult = 0;
+            for (int j = 0; j < 31; j++) {
+                int shift = j << 1;
+                int index = (int) ((wa >>> shift) & 15)
+                        | (int) ((wb >>> shift) & 15) << 4
+                        | (int) ((wc >>> shift) & 15) << 8
+                        | (int) ((wd >>> shift) & 15) << 12;
+                int result = table[index];
+                topResult |= (long) (result & 3) << shift;
+                bottomResult |= (long) ((result >>> 2) & 3) << shift;
+            }
+
+            int index = lastNibble(wa, a, aEast) | lastNibble(wb, b, bEast) << 4
+                    | lastNibble(wc, c, cEast) << 8 | lastNibble(wd, d, dEast) << 12;
+            int result = table[index];
+            topResult |= (long) (result & 3) << 62;
+            bottomResult |= (long) ((result >>> 2) & 3) << 62;
+
+            if (k == wordsPerRow - 1) {
+                topResult &= lastWordMask;
+                bottomResult &= lastWordMask;
+            }
+            next[top + k] = topResult;
+            cells += 64;
+            if (hasBottom) {
+                next[bottom + k] = bottomResult;
+                cells += 64;
+            }
+        }
+        return cells;
+    }
+
+    // Columns 64k + 61 to 64k + 64 of a row.
+    private static int lastNibble(long shifted, long word, long east) {
+        return (int) ((shifted >>> 62) | ((word >>> 63) << 2) | ((east & 1) << 3));
+    }
+
+    private static long word(long[] words, int base, int k, int wordsPerRow) {
+        return base < 0 || k < 0 || k >= wordsPerRow ? 0 : words[base + k];
+    }
+}
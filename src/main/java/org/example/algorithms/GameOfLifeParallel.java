@@ -1,71 +1,214 @@
 package org.example.algorithms;
 
+import org.example.engine.GenerationStats;
+import org.example.engine.LifeEngine;
+import org.example.metrics.AllocationCheck;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.ChunkedGrid;
 import org.example.model.Grid;
 
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
-
-public class GameOfLifeParallel {
-    private static ExecutorService threadPool;
-    private static int lastThreadCount = -1;
-    private static final Object threadPoolLock = new Object();
-    private static boolean isShuttingDown = false;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+// Splits the cells around live cells among the workers of a WorkerGang. Everything a Grid step needs
+// (the candidate set, the index array, one next-generation set and stats partial per worker and the
+// task objects) is allocated for the first step on a grid of a given size and reused afterwards, so a
+// steady-state step allocates nothing.
+//
+// The stealing scheduler hands a Grid step to a ForkJoinPool instead: the active 64x64 tiles are split
+// recursively into halves of equal weight, a tile weighing the cells it evaluated the generation before,
+// and idle workers steal halves that have not been started yet. Equal slices of the candidate cells
+// leave some workers idle on patterns with dense machinery in a few places; weighted tiles that can be
+// stolen keep them busy. Its subtasks are allocated per step, so --assert-no-alloc only covers the
+// static scheduler.
+public class GameOfLifeParallel implements LifeEngine {
+    public static final String SCHEDULER_STATIC = "static";
+    public static final String SCHEDULER_STEALING = "stealing";
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    // Leaves aim at an eighth of a worker's share, so there is something left to steal.
+    private static final int LEAVES_PER_WORKER = 8;
+
+    private final int threads;
+    private final boolean stealing;
+    private long cellsEvaluated;
+    private final GenerationStats stats = new GenerationStats();
+    private boolean trackStats;
+    private boolean stepped;
+
+    private WorkerGang gang;
+    private final GridTask gridTask = new GridTask();
+    private final ChunkTask chunkTask = new ChunkTask();
+
+    private long scratchCells = -1;
+    private BitSet cellsToCheck;
+    private int[] cellIndices = new int[0];
+    private BitSet[] localNextSets = new BitSet[0];
+    private GenerationStats[] localStats = new GenerationStats[0];
+
+    private ForkJoinPool pool;
+    private final Object localLock = new Object();
+    private int[] localStamps = new int[0];
+    private int stamp;
+    private int tilesAcross;
+    private int activeCount;
+    private int[] tileStamps = new int[0];
+    private int[] tileWork = new int[0];
+    private int[] activeTiles = new int[0];
+    private long[] tileWeights = new long[0];
+
+    public GameOfLifeParallel() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameOfLifeParallel(int threads) {
+        this(threads, SCHEDULER_STATIC);
+    }
+
+    public GameOfLifeParallel(int threads, String scheduler) {
+        if (!SCHEDULER_STATIC.equals(scheduler) && !SCHEDULER_STEALING.equals(scheduler)) {
+            throw new IllegalArgumentException("Unknown scheduler: " + scheduler);
+        }
+        this.threads = threads;
+        this.stealing = SCHEDULER_STEALING.equals(scheduler);
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps) {
+        simulate(grid, steps, threads);
+    }
+
+    @Override
+    public boolean isMultithreaded() {
+        return true;
+    }
+
+    @Override
+    public boolean enableGenerationStats() {
+        trackStats = true;
+        return true;
+    }
+
+    @Override
+    public GenerationStats getGenerationStats() {
+        return stepped ? stats : null;
+    }
 
     public void simulate(Grid grid, int steps, int threads) {
+        initializeWorkers(threads);
+
+        StepRecorder recorder = Metrics.recorder();
+        AllocationCheck allocations = stealing ? null : AllocationCheck.current();
+        for (int i = 0; i < steps; i++) {
+            if (recorder != null) {
+                recorder.beginStep();
+            }
+            if (allocations != null) {
+                allocations.beginStep();
+            }
+            step(grid, gang.getWorkers(), trackStats || recorder != null);
+            if (allocations != null) {
+                allocations.endStep();
+            }
+            if (recorder != null) {
+                recorder.endStep(1, cellsEvaluated, stats.getPopulation());
+            }
+        }
+    }
+
+    public void simulate(ChunkedGrid grid, int steps, int threads) {
+        initializeWorkers(threads);
+
+        StepRecorder recorder = Metrics.recorder();
+        for (int i = 0; i < steps; i++) {
+            if (recorder != null) {
+                recorder.beginStep();
+            }
+            step(grid, gang.getWorkers());
+            if (recorder != null) {
+                recorder.endStep(1, cellsEvaluated, grid.getLiveCellCount());
+            }
+        }
+    }
+
+    private void initializeWorkers(int threads) {
         int maxThreads = Runtime.getRuntime().availableProcessors();
-        int actualThreads = Math.min(threads, maxThreads);
+        int actualThreads = Math.max(1, Math.min(threads, maxThreads));
 
         if (actualThreads != threads) {
             System.out.println("Warning: Requested " + threads + " threads, but only using "
                     + actualThreads + " (system maximum)");
         }
 
-        initializeThreadPool(actualThreads);
-
-        for (int i = 0; i < steps; i++) {
-            step(grid, actualThreads);
+        if (gang == null || gang.getWorkers() != actualThreads) {
+            if (gang != null) {
+                gang.close();
+            }
+            gang = new WorkerGang(actualThreads);
+            System.out.println("Created new thread pool with " + actualThreads + " threads");
+        }
+        if (stealing && (pool == null || pool.getParallelism() != actualThreads)) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(actualThreads, StealingWorker::new, null, false);
+            System.out.println("Created work-stealing pool with " + actualThreads + " threads");
         }
     }
 
-    private void initializeThreadPool(int threads) {
-        synchronized (threadPoolLock) {
-            if (threadPool == null || lastThreadCount != threads || threadPool.isShutdown() || threadPool.isTerminated()) {
-                if (threadPool != null && !threadPool.isShutdown()) {
-                    // Don't shutdown
-                }
-
-                ThreadFactory threadFactory = new ThreadFactory() {
-                    private final AtomicInteger threadNumber = new AtomicInteger(1);
+    // Cells whose next state was computed by the last step.
+    public long getCellsEvaluated() {
+        return cellsEvaluated;
+    }
 
-                    @Override
-                    public Thread newThread(Runnable r) {
-                        Thread t = new Thread(r, "GameOfLife-Worker-" + threadNumber.getAndIncrement());
-                        t.setPriority(Thread.MAX_PRIORITY);
-                        t.setDaemon(true);
-                        return t;
-                    }
-                };
+    public void step(Grid grid, int threads) {
+        if (gang == null || gang.getWorkers() < threads) {
+            initializeWorkers(threads);
+        }
+        step(grid, threads, trackStats);
+    }
 
-                threadPool = Executors.newFixedThreadPool(threads, threadFactory);
-                lastThreadCount = threads;
-                System.out.println("Created new thread pool with " + threads + " threads");
+    private void ensureScratch(Grid grid, int workers) {
+        long cells = (long) grid.getWidth() * grid.getHeight();
+        if (scratchCells != cells) {
+            cellsToCheck = new BitSet((int) cells);
+            localNextSets = new BitSet[0];
+            localStamps = new int[0];
+            scratchCells = cells;
+        } else {
+            cellsToCheck.clear();
+        }
+        if (localNextSets.length < workers) {
+            localNextSets = new BitSet[workers];
+            localStats = new GenerationStats[workers];
+            for (int i = 0; i < workers; i++) {
+                localNextSets[i] = new BitSet((int) cells);
+                localStats[i] = new GenerationStats();
             }
         }
     }
 
-    public void step(Grid grid, int threads) {
+    // When counted, each worker counts the cells it evaluates into its own GenerationStats, which are
+    // added up once the gang is done (see GameOfLifeSequential).
+    private void step(Grid grid, int threads, boolean counted) {
+        threads = Math.min(threads, gang.getWorkers());
+        stats.clear();
+        stepped = counted;
         BitSet current = grid.getCurrent();
         BitSet next = grid.getNext();
         int width = grid.getWidth();
         int height = grid.getHeight();
 
         next.clear();
-
-        BitSet cellsToCheck = new BitSet(width * height);
+        ensureScratch(grid, stealing ? 0 : threads);
+        if (stealing) {
+            prepareTiles(width, height);
+        }
 
         for (int i = current.nextSetBit(0); i >= 0; i = current.nextSetBit(i + 1)) {
             int row = i / width;
@@ -76,77 +219,359 @@ public class GameOfLifeParallel {
                     cellsToCheck.set(grid.getIndex(r, c));
                 }
             }
+            if (stealing) {
+                markTiles(row, col, width, height);
+            }
         }
 
         int cellCount = cellsToCheck.cardinality();
+        cellsEvaluated = cellCount;
         int effectiveThreads = Math.min(threads, Math.max(1, cellCount / 1000));
 
         if (cellCount == 0) {
             grid.swapGrids();
             return;
         }
+        if (stealing) {
+            stepStealing(grid, counted);
+            grid.swapGrids();
+            return;
+        }
 
-        final int[] cellIndices = new int[cellCount];
+        if (cellIndices.length < cellCount) {
+            cellIndices = new int[Math.max(cellCount, cellIndices.length + (cellIndices.length >> 1))];
+        }
         int idx = 0;
         for (int i = cellsToCheck.nextSetBit(0); i >= 0; i = cellsToCheck.nextSetBit(i + 1)) {
             cellIndices[idx++] = i;
         }
 
-        final int cellsPerThread = Math.max(1, cellCount / effectiveThreads);
-        final CountDownLatch latch = new CountDownLatch(effectiveThreads);
+        GridTask task = gridTask;
+        task.grid = grid;
+        task.cellCount = cellCount;
+        task.effectiveThreads = effectiveThreads;
+        task.cellsPerThread = Math.max(1, cellCount / effectiveThreads);
+        task.counted = counted;
+        task.recorder = Metrics.recorder();
+        task.allocations = AllocationCheck.current();
+        gang.run(task);
+        task.grid = null;
 
-        final BitSet[] localNextSets = new BitSet[effectiveThreads];
         for (int i = 0; i < effectiveThreads; i++) {
-            localNextSets[i] = new BitSet(width * height);
+            next.or(localNextSets[i]);
+            if (counted) {
+                stats.merge(localStats[i]);
+            }
         }
+        grid.swapGrids();
+    }
 
-        for (int i = 0; i < effectiveThreads; i++) {
-            final int threadIdx = i;
-            final int startIdx = i * cellsPerThread;
-            final int endIdx = (i == effectiveThreads - 1) ? cellCount : (i + 1) * cellsPerThread;
-
-            if (startIdx >= cellCount) {
-                latch.countDown();
-                continue;
-            }
-
-            synchronized (threadPoolLock) {
-                if (!isShuttingDown && threadPool != null && !threadPool.isShutdown()) {
-                    threadPool.execute(() -> {
-                        try {
-                            BitSet localNext = localNextSets[threadIdx];
-
-                            for (int j = startIdx; j < endIdx; j++) {
-                                int cellIdx = cellIndices[j];
-                                int row = cellIdx / width;
-                                int col = cellIdx % width;
-                                applyRules(grid, row, col, localNext);
-                            }
-
-                            synchronized (next) {
-                                next.or(localNext);
-                            }
-                        } finally {
-                            latch.countDown();
+    private final class GridTask implements WorkerGang.Task {
+        Grid grid;
+        int cellCount;
+        int effectiveThreads;
+        int cellsPerThread;
+        boolean counted;
+        StepRecorder recorder;
+        AllocationCheck allocations;
+
+        @Override
+        public void run(int worker) {
+            if (worker >= effectiveThreads) {
+                return;
+            }
+            if (recorder != null) {
+                recorder.registerCurrentThread();
+            }
+            if (allocations != null) {
+                allocations.registerCurrentThread();
+            }
+            long start = recorder != null ? System.nanoTime() : 0;
+            int startIdx = worker * cellsPerThread;
+            int endIdx = worker == effectiveThreads - 1 ? cellCount : Math.min(cellCount, (worker + 1) * cellsPerThread);
+            int width = grid.getWidth();
+            BitSet current = grid.getCurrent();
+            BitSet localNext = localNextSets[worker];
+            GenerationStats partial = counted ? localStats[worker] : null;
+            localNext.clear();
+            if (partial != null) {
+                partial.clear();
+            }
+
+            for (int j = startIdx; j < endIdx; j++) {
+                int cellIdx = cellIndices[j];
+                int row = cellIdx / width;
+                int col = cellIdx % width;
+                boolean alive = applyRules(grid, row, col, localNext);
+                if (partial != null) {
+                    partial.addCell(row, col, current.get(cellIdx), alive);
+                }
+            }
+            if (recorder != null) {
+                recorder.addBusyTime(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void prepareTiles(int width, int height) {
+        int across = (width + TILE_SIZE - 1) >> TILE_SHIFT;
+        int tiles = across * ((height + TILE_SIZE - 1) >> TILE_SHIFT);
+        if (tilesAcross != across || tileWork.length != tiles) {
+            tilesAcross = across;
+            tileStamps = new int[tiles];
+            tileWork = new int[tiles];
+            activeTiles = new int[tiles];
+            tileWeights = new long[tiles + 1];
+        }
+        stamp++;
+        activeCount = 0;
+    }
+
+    // Every candidate lies within one cell of a live cell, so the tiles of the corners of each live cell's
+    // neighbourhood cover all of them. A tile that was not active last generation loses its weight.
+    private void markTiles(int row, int col, int width, int height) {
+        int top = Math.max(0, row - 1) >> TILE_SHIFT;
+        int bottom = Math.min(height - 1, row + 1) >> TILE_SHIFT;
+        int left = Math.max(0, col - 1) >> TILE_SHIFT;
+        int right = Math.min(width - 1, col + 1) >> TILE_SHIFT;
+        for (int tr = top; tr <= bottom; tr++) {
+            for (int tc = left; tc <= right; tc++) {
+                int tile = tr * tilesAcross + tc;
+                if (tileStamps[tile] != stamp) {
+                    if (tileStamps[tile] != stamp - 1) {
+                        tileWork[tile] = 0;
+                    }
+                    tileStamps[tile] = stamp;
+                    activeTiles[activeCount++] = tile;
+                }
+            }
+        }
+    }
+
+    // Weighs the tiles marked while collecting candidates and runs them on the pool.
+    private void stepStealing(Grid grid, boolean counted) {
+        Arrays.sort(activeTiles, 0, activeCount);
+
+        // A tile without a weight from last generation is charged a quarter of its cells.
+        long total = 0;
+        for (int i = 0; i < activeCount; i++) {
+            int work = tileWork[activeTiles[i]];
+            total += work > 0 ? work : TILE_SIZE * TILE_SIZE / 4;
+            tileWeights[i + 1] = total;
+        }
+
+        int workers = pool.getParallelism();
+        int slots = 2 * workers + 1;
+        if (localStamps.length < slots) {
+            localNextSets = new BitSet[slots];
+            localStats = new GenerationStats[slots];
+            localStamps = new int[slots];
+        }
+        StepRecorder recorder = Metrics.recorder();
+        // With one worker there is nothing to steal, so the caller evaluates all tiles as a single leaf.
+        if (workers == 1) {
+            new TileTask(grid, 0, activeCount, total, counted, recorder).compute();
+        } else {
+            pool.invoke(new TileTask(grid, 0, activeCount, Math.max(1, total / (workers * LEAVES_PER_WORKER)),
+                    counted, recorder));
+        }
+
+        BitSet next = grid.getNext();
+        for (int i = 0; i < localNextSets.length; i++) {
+            if (localStamps[i] == stamp) {
+                next.or(localNextSets[i]);
+                if (counted) {
+                    stats.merge(localStats[i]);
+                }
+            }
+        }
+    }
+
+    // The slot of the next-generation set and stats partial of the calling thread for this step, created and
+    // cleared by that thread on first use; callers hold localLock. Pool workers use the slot after their
+    // pool index and a thread outside the pool that helps while it waits in invoke uses slot 0. The index
+    // usually stays below twice the parallelism, but compensation threads started while tasks wait in join
+    // can go past it, so the slots grow to fit.
+    private int localSlot(Grid grid) {
+        Thread thread = Thread.currentThread();
+        int slot = thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool
+                ? ((ForkJoinWorkerThread) thread).getPoolIndex() + 1 : 0;
+        if (slot >= localStamps.length) {
+            int slots = Math.max(slot + 1, 2 * localStamps.length);
+            localNextSets = Arrays.copyOf(localNextSets, slots);
+            localStats = Arrays.copyOf(localStats, slots);
+            localStamps = Arrays.copyOf(localStamps, slots);
+        }
+        if (localNextSets[slot] == null) {
+            localNextSets[slot] = new BitSet(grid.getWidth() * grid.getHeight());
+            localStats[slot] = new GenerationStats();
+        }
+        if (localStamps[slot] != stamp) {
+            localNextSets[slot].clear();
+            localStats[slot].clear();
+            localStamps[slot] = stamp;
+        }
+        return slot;
+    }
+
+    // Named after its pool index, which is only assigned once the thread has started.
+    private static final class StealingWorker extends ForkJoinWorkerThread {
+        StealingWorker(ForkJoinPool pool) {
+            super(pool);
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            setName("GameOfLife-Steal-" + getPoolIndex());
+        }
+    }
+
+    // Evaluates the active tiles [from, to); splits in two at the half-way weight while the range holds
+    // more than one tile and weighs more than a leaf.
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Grid grid;
+        private final int from;
+        private final int to;
+        private final long leafWeight;
+        private final boolean counted;
+        private final StepRecorder recorder;
+
+        TileTask(Grid grid, int from, int to, long leafWeight, boolean counted, StepRecorder recorder) {
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+            this.leafWeight = leafWeight;
+            this.counted = counted;
+            this.recorder = recorder;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && tileWeights[to] - tileWeights[from] > leafWeight) {
+                long half = (tileWeights[from] + tileWeights[to]) / 2;
+                int mid = Arrays.binarySearch(tileWeights, from + 1, to, half);
+                mid = Math.min(to - 1, Math.max(from + 1, mid >= 0 ? mid : -mid - 1));
+                TileTask left = new TileTask(grid, from, mid, leafWeight, counted, recorder);
+                left.fork();
+                new TileTask(grid, mid, to, leafWeight, counted, recorder).compute();
+                left.join();
+                return;
+            }
+
+            long start = recorder != null ? System.nanoTime() : 0;
+            BitSet localNext;
+            GenerationStats partial;
+            // Another worker may grow the scratch arrays, so they are only read under the lock.
+            synchronized (localLock) {
+                int slot = localSlot(grid);
+                localNext = localNextSets[slot];
+                partial = counted ? localStats[slot] : null;
+            }
+            BitSet current = grid.getCurrent();
+            int width = grid.getWidth();
+            int height = grid.getHeight();
+            for (int t = from; t < to; t++) {
+                int tile = activeTiles[t];
+                int row0 = (tile / tilesAcross) << TILE_SHIFT;
+                int col0 = (tile % tilesAcross) << TILE_SHIFT;
+                int row1 = Math.min(height, row0 + TILE_SIZE);
+                int col1 = Math.min(width, col0 + TILE_SIZE);
+                int work = 0;
+                for (int row = row0; row < row1; row++) {
+                    int end = row * width + col1;
+                    for (int i = cellsToCheck.nextSetBit(row * width + col0); i >= 0 && i < end;
+                         i = cellsToCheck.nextSetBit(i + 1)) {
+                        int col = i - row * width;
+                        boolean alive = applyRules(grid, row, col, localNext);
+                        if (partial != null) {
+                            partial.addCell(row, col, current.get(i), alive);
                         }
-                    });
-                } else {
-                    latch.countDown();
+                        work++;
+                    }
                 }
+                tileWork[tile] = work;
             }
+            if (recorder != null) {
+                recorder.addBusyTime(System.nanoTime() - start);
+            }
+        }
+    }
+
+    public void step(ChunkedGrid grid, int threads) {
+        if (gang == null || gang.getWorkers() < threads) {
+            initializeWorkers(threads);
+        }
+        threads = Math.min(threads, gang.getWorkers());
+        final List<Long> candidates = grid.collectCandidates();
+        final int chunkCount = candidates.size();
+        cellsEvaluated = (long) chunkCount * ChunkedGrid.CHUNK_SIZE * ChunkedGrid.CHUNK_SIZE;
+
+        if (chunkCount == 0) {
+            grid.swapGrids();
+            return;
         }
 
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("Thread interrupted during parallel step: " + e.getMessage());
+        ChunkTask task = chunkTask;
+        if (task.results.length < chunkCount) {
+            task.results = new long[Math.max(chunkCount, task.results.length * 2)][];
+            task.alive = new boolean[task.results.length];
         }
+        for (int i = 0; i < chunkCount; i++) {
+            task.results[i] = grid.allocateChunk();
+        }
+
+        task.grid = grid;
+        task.candidates = candidates;
+        task.effectiveThreads = Math.min(threads, Math.max(1, chunkCount / 16));
+        task.chunksPerThread = Math.max(1, chunkCount / task.effectiveThreads);
+        task.chunkCount = chunkCount;
+        task.recorder = Metrics.recorder();
+        gang.run(task);
+
+        for (int i = 0; i < chunkCount; i++) {
+            if (task.alive[i]) {
+                grid.putNext(candidates.get(i), task.results[i]);
+            } else {
+                grid.releaseChunk(task.results[i]);
+            }
+        }
+        Arrays.fill(task.results, 0, chunkCount, null);
+        task.grid = null;
+        task.candidates = null;
 
         grid.swapGrids();
     }
 
-    private void applyRules(Grid grid, int row, int col, BitSet threadLocalNext) {
+    private static final class ChunkTask implements WorkerGang.Task {
+        ChunkedGrid grid;
+        List<Long> candidates;
+        long[][] results = new long[0][];
+        boolean[] alive = new boolean[0];
+        int chunkCount;
+        int effectiveThreads;
+        int chunksPerThread;
+        StepRecorder recorder;
+
+        @Override
+        public void run(int worker) {
+            if (worker >= effectiveThreads) {
+                return;
+            }
+            if (recorder != null) {
+                recorder.registerCurrentThread();
+            }
+            int startIdx = worker * chunksPerThread;
+            int endIdx = worker == effectiveThreads - 1 ? chunkCount : Math.min(chunkCount, (worker + 1) * chunksPerThread);
+            for (int j = startIdx; j < endIdx; j++) {
+                alive[j] = WordRules.stepChunk(grid, candidates.get(j), results[j]) != 0;
+            }
+        }
+    }
+
+    private boolean applyRules(Grid grid, int row, int col, BitSet threadLocalNext) {
         int liveNeighbors = countLiveNeighbors(grid, row, col);
         boolean isAlive = grid.getCell(row, col);
 
@@ -160,6 +585,7 @@ public class GameOfLifeParallel {
             int index = grid.getIndex(row, col);
             threadLocalNext.set(index);
         }
+        return newState;
     }
 
     private int countLiveNeighbors(Grid grid, int row, int col) {
@@ -188,13 +614,19 @@ public class GameOfLifeParallel {
         return count;
     }
 
-    public void cleanup() {
-        synchronized (threadPoolLock) {
-            isShuttingDown = true;
-            if (threadPool != null && !threadPool.isShutdown()) {
-                System.out.println("Shutting down thread pool");
-                threadPool.shutdown();
-            }
+    @Override
+    public void close() {
+        if (gang != null) {
+            gang.close();
+            gang = null;
         }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    public void cleanup() {
+        close();
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,101 @@
 package org.example.algorithms;
 
+import org.example.engine.GenerationStats;
+import org.example.engine.LifeEngine;
+import org.example.metrics.AllocationCheck;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.ChunkedGrid;
 import org.example.model.Grid;
 
 import java.util.BitSet;
+import java.util.List;
 
-public class GameOfLifeSequential {
+public class GameOfLifeSequential implements LifeEngine {
+    private long cellsEvaluated;
+    private final GenerationStats stats = new GenerationStats();
+    private boolean trackStats;
+    private boolean stepped;
 
+    // Scratch set of the cells to evaluate, kept for the next step on a grid of the same size, so a
+    // steady-state step allocates nothing.
+    private BitSet cellsToCheck;
+    private long scratchCells = -1;
+
+    @Override
     public void simulate(Grid grid, int steps) {
+        StepRecorder recorder = Metrics.recorder();
+        AllocationCheck allocations = AllocationCheck.current();
         for (int i = 0; i < steps; i++) {
+            if (recorder != null) {
+                recorder.beginStep();
+            }
+            if (allocations != null) {
+                allocations.beginStep();
+            }
+            step(grid, trackStats || recorder != null);
+            if (allocations != null) {
+                allocations.endStep();
+            }
+            if (recorder != null) {
+                recorder.endStep(1, cellsEvaluated, stats.getPopulation());
+            }
+        }
+    }
+
+    @Override
+    public boolean enableGenerationStats() {
+        trackStats = true;
+        return true;
+    }
+
+    @Override
+    public GenerationStats getGenerationStats() {
+        return stepped ? stats : null;
+    }
+
+    public void simulate(ChunkedGrid grid, int steps) {
+        StepRecorder recorder = Metrics.recorder();
+        for (int i = 0; i < steps; i++) {
+            if (recorder != null) {
+                recorder.beginStep();
+            }
             step(grid);
+            if (recorder != null) {
+                recorder.endStep(1, cellsEvaluated, grid.getLiveCellCount());
+            }
         }
     }
 
+    // Cells whose next state was computed by the last step.
+    public long getCellsEvaluated() {
+        return cellsEvaluated;
+    }
+
+    public void step(ChunkedGrid grid) {
+        List<Long> candidates = grid.collectCandidates();
+        cellsEvaluated = (long) candidates.size() * ChunkedGrid.CHUNK_SIZE * ChunkedGrid.CHUNK_SIZE;
+
+        for (long key : candidates) {
+            long[] target = grid.allocateChunk();
+            if (WordRules.stepChunk(grid, key, target) != 0) {
+                grid.putNext(key, target);
+            } else {
+                grid.releaseChunk(target);
+            }
+        }
+
+        grid.swapGrids();
+    }
+
     public void step(Grid grid) {
+        step(grid, trackStats);
+    }
+
+    // Every live cell of the next generation and every cell that dies is a neighbour of a live cell, so
+    // counting the evaluated cells covers the whole generation.
+    private void step(Grid grid, boolean counted) {
+        stats.clear();
         BitSet current = grid.getCurrent();
         BitSet next = grid.getNext();
         int width = grid.getWidth();
@@ -20,7 +103,13 @@ public class GameOfLifeSequential {
 
         next.clear();
 
-        BitSet cellsToCheck = new BitSet(width * height);
+        long cells = (long) width * height;
+        if (scratchCells != cells) {
+            cellsToCheck = new BitSet(width * height);
+            scratchCells = cells;
+        } else {
+            cellsToCheck.clear();
+        }
 
         for (int i = current.nextSetBit(0); i >= 0; i = current.nextSetBit(i + 1)) {
             int row = i / width;
@@ -33,16 +122,23 @@ public class GameOfLifeSequential {
             }
         }
 
+        long evaluated = 0;
         for (int i = cellsToCheck.nextSetBit(0); i >= 0; i = cellsToCheck.nextSetBit(i + 1)) {
             int row = i / width;
             int col = i % width;
-            applyRules(grid, row, col);
+            boolean alive = applyRules(grid, row, col);
+            if (counted) {
+                stats.addCell(row, col, grid.getCell(row, col), alive);
+            }
+            evaluated++;
         }
+        cellsEvaluated = evaluated;
+        stepped = counted;
 
         grid.swapGrids();
     }
 
-    private void applyRules(Grid grid, int row, int col) {
+    private boolean applyRules(Grid grid, int row, int col) {
         int liveNeighbors = countLiveNeighbors(grid, row, col);
         boolean isAlive = grid.getCell(row, col);
         BitSet next = grid.getNext();
@@ -56,6 +152,7 @@ public class GameOfLifeSequential {
         } else {
             grid.setBit(next, row, col, isAlive);
         }
+        return grid.getBit(next, row, col);
     }
 
     private int countLiveNeighbors(Grid grid, int row, int col) {
@@ -0,0 +1,232 @@
+package org.example.algorithms;
+
+import org.example.engine.LifeEngine;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Temporal blocking: the board is cut into tiles, and each tile is copied together with a halo of
+// depth rows and ceil(depth / 64) words into a small scratch buffer, advanced depth generations there,
+// and only its inner part is written back. Errors from the unknown cells beyond the halo move inwards
+// by one cell per generation, so after depth generations the inner tile is exact (at the grid border
+// the halo is simply cut off, as cells outside the grid are dead). Main memory is read and written
+// once per depth generations instead of once per generation.
+public class GameOfLifeTemporal implements LifeEngine {
+    public static final int DEFAULT_DEPTH = 8;
+    public static final int DEFAULT_TILE_ROWS = 128;
+    public static final int DEFAULT_TILE_COLUMNS = 4096;
+
+    private final int depth;
+    private final int tileRows;
+    private final int tileWords;
+    private final int threads;
+    private ExecutorService pool;
+
+    public GameOfLifeTemporal() {
+        this(DEFAULT_DEPTH, DEFAULT_TILE_ROWS, DEFAULT_TILE_COLUMNS, 1);
+    }
+
+    // Tile columns are rounded up to whole words.
+    public GameOfLifeTemporal(int depth, int tileRows, int tileColumns, int threads) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Block depth must be positive: " + depth);
+        }
+        if (tileRows <= 0 || tileColumns <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + tileRows + "x" + tileColumns);
+        }
+        this.depth = depth;
+        this.tileRows = tileRows;
+        this.tileWords = (tileColumns + 63) >>> 6;
+        this.threads = Math.max(1, Math.min(threads, Runtime.getRuntime().availableProcessors()));
+
+        if (this.threads != threads) {
+            System.out.println("Warning: Requested " + threads + " threads, but only using "
+                    + this.threads + " (system maximum)");
+        }
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps) {
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        simulate(board, steps);
+        board.copyTo(grid);
+    }
+
+    public void simulate(PackedGrid board, int steps) {
+        int tileRowCount = (board.getHeight() + tileRows - 1) / tileRows;
+        int tileColCount = (board.getWordsPerRow() + tileWords - 1) / tileWords;
+        int workers = Math.min(threads, tileRowCount * tileColCount);
+
+        Scratch[] scratch = new Scratch[workers];
+        for (int i = 0; i < workers; i++) {
+            scratch[i] = new Scratch(tileRows + 2 * depth, tileWords + 2 * haloWords());
+        }
+
+        StepRecorder recorder = Metrics.recorder();
+        LongAdder words = new LongAdder();
+
+        for (int done = 0; done < steps; ) {
+            int generations = Math.min(depth, steps - done);
+            if (recorder != null) {
+                recorder.beginStep();
+            }
+
+            pass(board, generations, tileRowCount, tileColCount, scratch, words);
+            board.swapGrids();
+            done += generations;
+
+            if (recorder != null) {
+                recorder.endStep(generations, words.sumThenReset() * 64, board.getLiveCellCount());
+            }
+        }
+    }
+
+    private int haloWords() {
+        return (depth + 63) >>> 6;
+    }
+
+    private static class Scratch {
+        long[] a;
+        long[] b;
+
+        Scratch(int rows, int words) {
+            a = new long[rows * words];
+            b = new long[rows * words];
+        }
+    }
+
+    // Advances every tile by the given number of generations into the next buffer. Tiles are handed out
+    // from a shared counter, so faster workers take more of them.
+    private void pass(PackedGrid board, int generations, int tileRowCount, int tileColCount, Scratch[] scratch,
+                      LongAdder words) {
+        int tiles = tileRowCount * tileColCount;
+        AtomicInteger nextTile = new AtomicInteger();
+
+        if (scratch.length == 1) {
+            for (int t = 0; t < tiles; t++) {
+                words.add(stepTile(board, t / tileColCount, t % tileColCount, generations, scratch[0]));
+            }
+            return;
+        }
+
+        if (pool == null) {
+            AtomicInteger threadNumber = new AtomicInteger(1);
+            pool = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "GameOfLife-Temporal-" + threadNumber.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        CountDownLatch latch = new CountDownLatch(scratch.length);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        StepRecorder recorder = Metrics.recorder();
+
+        for (Scratch own : scratch) {
+            pool.execute(() -> {
+                try {
+                    if (recorder != null) {
+                        recorder.registerCurrentThread();
+                    }
+                    int t;
+                    while ((t = nextTile.getAndIncrement()) < tiles) {
+                        words.add(stepTile(board, t / tileColCount, t % tileColCount, generations, own));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for temporal workers", e);
+        }
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("Temporal worker failed: " + failure.get().getMessage(), failure.get());
+        }
+    }
+
+    // Returns the number of words computed, halo included.
+    private long stepTile(PackedGrid board, int tileRow, int tileCol, int generations, Scratch scratch) {
+        long[] current = board.getCurrent();
+        long[] next = board.getNext();
+        int wordsPerRow = board.getWordsPerRow();
+        int height = board.getHeight();
+
+        int rowStart = tileRow * tileRows;
+        int rowEnd = Math.min(rowStart + tileRows, height);
+        int wordStart = tileCol * tileWords;
+        int wordEnd = Math.min(wordStart + tileWords, wordsPerRow);
+
+        int haloRows = generations;
+        int haloWords = (generations + 63) >>> 6;
+        int top = Math.max(0, rowStart - haloRows);
+        int bottom = Math.min(height, rowEnd + haloRows);
+        int left = Math.max(0, wordStart - haloWords);
+        int right = Math.min(wordsPerRow, wordEnd + haloWords);
+
+        int rows = bottom - top;
+        int width = right - left;
+        long mask = right == wordsPerRow ? board.getLastWordMask() : -1L;
+        boolean topIsBorder = top == 0;
+        boolean bottomIsBorder = bottom == height;
+
+        long[] src = scratch.a;
+        long[] dst = scratch.b;
+        for (int r = 0; r < rows; r++) {
+            System.arraycopy(current, (top + r) * wordsPerRow + left, src, r * width, width);
+        }
+
+        long computed = 0;
+        for (int g = 1; g <= generations; g++) {
+            // Rows that are still exact after g generations; beyond them the values no longer matter.
+            int first = topIsBorder ? 0 : g;
+            int last = bottomIsBorder ? rows : rows - g;
+
+            for (int r = first; r < last; r++) {
+                computed += GameOfLifeBitboard.stepRow(r > 0 ? src : null, (r - 1) * width,
+                        src, r * width,
+                        r < rows - 1 ? src : null, (r + 1) * width,
+                        dst, r * width, width, mask);
+            }
+
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+
+        int innerOffset = wordStart - left;
+        int innerWidth = wordEnd - wordStart;
+        for (int row = rowStart; row < rowEnd; row++) {
+            System.arraycopy(src, (row - top) * width + innerOffset, next, row * wordsPerRow + wordStart, innerWidth);
+        }
+        return computed;
+    }
+
+    @Override
+    public boolean isMultithreaded() {
+        return threads > 1;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
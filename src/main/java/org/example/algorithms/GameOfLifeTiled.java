@@ -0,0 +1,321 @@
+package org.example.algorithms;
+
+import org.example.engine.GenerationObserver;
+import org.example.engine.GenerationStats;
+import org.example.engine.LifeEngine;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+
+import java.util.Arrays;
+
+public class GameOfLifeTiled implements LifeEngine {
+    public static final int DEFAULT_TILE_ROWS = 64;
+
+    private final int tileRows;
+    private final int cycleWindow;
+    private CycleDetector detector;
+
+    private int tileCols;
+    private int tileRowCount;
+    private boolean[] active;
+    private boolean[] nextActive;
+    // Over all calls: tiles stepped, and tiles in the generations actually computed (cycle skipping and
+    // sleeping tiles both leave the first below the second).
+    private long tilesStepped;
+    private long tilesTotal;
+    private long cellsEvaluated;
+    private boolean trackHash;
+    private long hashDelta;
+
+    private final GenerationStats stats = new GenerationStats();
+    private boolean trackStats;
+    private boolean counted;
+    private boolean stepped;
+    // Per-tile population, first and last live row and OR of the live words, kept for sleeping tiles so
+    // the totals only need one pass over the tiles.
+    private int[] tilePopulation;
+    private int[] tileMinRow;
+    private int[] tileMaxRow;
+    private long[] tileColumns;
+
+    public GameOfLifeTiled() {
+        this(DEFAULT_TILE_ROWS);
+    }
+
+    public GameOfLifeTiled(int tileRows) {
+        this(tileRows, 0);
+    }
+
+    // A positive cycleWindow enables cycle detection over that many generations (see CycleDetector). The
+    // state hash is then updated from the words of the stepped tiles only.
+    public GameOfLifeTiled(int tileRows, int cycleWindow) {
+        if (tileRows <= 0) {
+            throw new IllegalArgumentException("Tile height must be positive: " + tileRows);
+        }
+        this.tileRows = tileRows;
+        this.cycleWindow = cycleWindow;
+    }
+
+    @Override
+    public boolean enableGenerationStats() {
+        trackStats = true;
+        return true;
+    }
+
+    @Override
+    public GenerationStats getGenerationStats() {
+        return stepped ? stats : null;
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps) {
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        reset(board);
+        advance(board, steps);
+        board.copyTo(grid);
+    }
+
+    // The board and the tile activity are set up once, so tiles that went to sleep stay asleep across the
+    // observer's stops.
+    @Override
+    public void simulate(Grid grid, int steps, GenerationObserver observer) {
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        reset(board);
+        while (steps > 0) {
+            int segment = Math.min(steps, observer.stepsToNext());
+            advance(board, segment);
+            steps -= segment;
+            board.copyTo(grid);
+            observer.observe(grid, segment);
+        }
+    }
+
+    private void advance(PackedGrid board, int steps) {
+        StepRecorder recorder = Metrics.recorder();
+        counted = trackStats || recorder != null;
+        if (cycleWindow > 0) {
+            // Kept across calls, so a run simulated in segments is checked as one run.
+            if (detector == null) {
+                detector = new CycleDetector(cycleWindow);
+            }
+            trackHash = true;
+            detector.run(board, steps, (b, hash) -> {
+                recordedStep(b, recorder);
+                return hash + hashDelta;
+            });
+            trackHash = false;
+        } else {
+            for (int i = 0; i < steps; i++) {
+                recordedStep(board, recorder);
+            }
+        }
+    }
+
+    private void recordedStep(PackedGrid board, StepRecorder recorder) {
+        if (recorder != null) {
+            recorder.beginStep();
+        }
+        step(board);
+        if (recorder != null) {
+            recorder.endStep(1, cellsEvaluated, stats.getPopulation());
+        }
+    }
+
+    // Tiles are one word (64 columns) wide and tileRows rows high. A tile is stepped only if it or one of
+    // its neighbours changed in the previous generation; sleeping tiles are never touched, which works
+    // because both generation buffers hold the same words for a tile that has been stable for a step.
+    public void reset(PackedGrid board) {
+        tileCols = board.getWordsPerRow();
+        tileRowCount = (board.getHeight() + tileRows - 1) / tileRows;
+        active = new boolean[tileCols * tileRowCount];
+        nextActive = new boolean[active.length];
+        tilePopulation = new int[active.length];
+        tileMinRow = new int[active.length];
+        tileMaxRow = new int[active.length];
+        tileColumns = new long[active.length];
+        stepped = false;
+
+        Arrays.fill(active, true);
+        System.arraycopy(board.getCurrent(), 0, board.getNext(), 0, board.getCurrent().length);
+    }
+
+    public void step(PackedGrid board) {
+        long[] current = board.getCurrent();
+        long[] next = board.getNext();
+        int wordsPerRow = board.getWordsPerRow();
+        int height = board.getHeight();
+        int last = wordsPerRow - 1;
+        long lastWordMask = board.getLastWordMask();
+
+        Arrays.fill(nextActive, false);
+        tilesTotal += active.length;
+        long words = 0;
+        long delta = 0;
+        long born = 0;
+        long died = 0;
+
+        for (int tr = 0; tr < tileRowCount; tr++) {
+            int rowStart = tr * tileRows;
+            int rowEnd = Math.min(rowStart + tileRows, height);
+
+            for (int k = 0; k < tileCols; k++) {
+                if (!active[tr * tileCols + k]) {
+                    continue;
+                }
+                tilesStepped++;
+                words += rowEnd - rowStart;
+
+                long topDiff = 0;
+                long bottomDiff = 0;
+                long anyDiff = 0;
+                int population = 0;
+                int minRow = -1;
+                int maxRow = -1;
+                long columns = 0;
+
+                for (int row = rowStart; row < rowEnd; row++) {
+                    int index = row * wordsPerRow + k;
+                    boolean hasUp = row > 0;
+                    boolean hasDown = row < height - 1;
+                    boolean hasWest = k > 0;
+                    boolean hasEast = k < last;
+
+                    long n = hasUp ? current[index - wordsPerRow] : 0;
+                    long c = current[index];
+                    long s = hasDown ? current[index + wordsPerRow] : 0;
+                    long nw = hasUp && hasWest ? current[index - wordsPerRow - 1] : 0;
+                    long w = hasWest ? current[index - 1] : 0;
+                    long sw = hasDown && hasWest ? current[index + wordsPerRow - 1] : 0;
+                    long ne = hasUp && hasEast ? current[index - wordsPerRow + 1] : 0;
+                    long e = hasEast ? current[index + 1] : 0;
+                    long se = hasDown && hasEast ? current[index + wordsPerRow + 1] : 0;
+
+                    long result = WordRules.nextWord(nw, n, ne, w, c, e, sw, s, se);
+                    if (k == last) {
+                        result &= lastWordMask;
+                    }
+                    next[index] = result;
+
+                    long diff = result ^ c;
+                    anyDiff |= diff;
+                    if (trackHash && diff != 0) {
+                        delta += StateHash.delta(index, c, result);
+                    }
+                    if (counted && result != 0) {
+                        population += Long.bitCount(result);
+                        if (minRow < 0) {
+                            minRow = row;
+                        }
+                        maxRow = row;
+                        columns |= result;
+                    }
+                    if (counted && diff != 0) {
+                        born += Long.bitCount(diff & result);
+                        died += Long.bitCount(diff & c);
+                    }
+                    if (row == rowStart) {
+                        topDiff = diff;
+                    }
+                    if (row == rowEnd - 1) {
+                        bottomDiff = diff;
+                    }
+                }
+
+                if (anyDiff != 0) {
+                    wake(tr, k, topDiff, bottomDiff, anyDiff);
+                }
+                if (counted) {
+                    int tile = tr * tileCols + k;
+                    tilePopulation[tile] = population;
+                    tileMinRow[tile] = minRow;
+                    tileMaxRow[tile] = maxRow;
+                    tileColumns[tile] = columns;
+                }
+            }
+        }
+
+        cellsEvaluated = words * 64;
+        hashDelta = delta;
+        if (counted) {
+            sumTiles(born, died);
+        }
+
+        boolean[] temp = active;
+        active = nextActive;
+        nextActive = temp;
+
+        board.swapGrids();
+    }
+
+    private void sumTiles(long born, long died) {
+        stats.clear();
+        stats.addChanges(born, died);
+        for (int tile = 0; tile < tilePopulation.length; tile++) {
+            if (tilePopulation[tile] > 0) {
+                int k = tile % tileCols;
+                stats.addLive(tilePopulation[tile], tileMinRow[tile], tileMaxRow[tile],
+                        (k << 6) + Long.numberOfTrailingZeros(tileColumns[tile]),
+                        (k << 6) + 63 - Long.numberOfLeadingZeros(tileColumns[tile]));
+            }
+        }
+        stepped = true;
+    }
+
+    private void wake(int tr, int k, long topDiff, long bottomDiff, long anyDiff) {
+        long west = 1L;
+        long east = 1L << 63;
+
+        mark(tr, k);
+        if (topDiff != 0) {
+            mark(tr - 1, k);
+        }
+        if (bottomDiff != 0) {
+            mark(tr + 1, k);
+        }
+        if ((anyDiff & west) != 0) {
+            mark(tr, k - 1);
+            if ((topDiff & west) != 0) {
+                mark(tr - 1, k - 1);
+            }
+            if ((bottomDiff & west) != 0) {
+                mark(tr + 1, k - 1);
+            }
+        }
+        if ((anyDiff & east) != 0) {
+            mark(tr, k + 1);
+            if ((topDiff & east) != 0) {
+                mark(tr - 1, k + 1);
+            }
+            if ((bottomDiff & east) != 0) {
+                mark(tr + 1, k + 1);
+            }
+        }
+    }
+
+    private void mark(int tr, int k) {
+        if (tr >= 0 && tr < tileRowCount && k >= 0 && k < tileCols) {
+            nextActive[tr * tileCols + k] = true;
+        }
+    }
+
+    // Cells whose next state was computed by the last step; sleeping tiles are not counted.
+    public long getCellsEvaluated() {
+        return cellsEvaluated;
+    }
+
+    public long getTilesStepped() {
+        return tilesStepped;
+    }
+
+    public long getTilesTotal() {
+        return tilesTotal;
+    }
+
+    @Override
+    public String getSummary() {
+        return "Tiles stepped: " + tilesStepped + " of " + tilesTotal
+                + (detector != null ? "\n" + detector.summary() : "");
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.algorithms;
+
+import org.jocl.CL;
+import org.jocl.CLException;
+import org.jocl.Pointer;
+import org.jocl.Sizeof;
+import org.jocl.cl_command_queue;
+import org.jocl.cl_context;
+import org.jocl.cl_device_id;
+import org.jocl.cl_platform_id;
+import org.jocl.cl_queue_properties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jocl.CL.*;
+
+// Selects the OpenCL device for the gpu engines. The platform and device index and the device type are
+// configurable; when a GPU is requested but no platform has one, the first CPU device is used instead,
+// so the kernels also run on hosts that only have a CPU OpenCL runtime.
+public class OpenClDevice {
+    public static final String TYPE_GPU = "gpu";
+    public static final String TYPE_CPU = "cpu";
+    public static final String TYPE_ALL = "all";
+
+    private final cl_platform_id platform;
+    private final cl_device_id device;
+    private final String name;
+
+    private OpenClDevice(cl_platform_id platform, cl_device_id device) {
+        this.platform = platform;
+        this.device = device;
+        this.name = getString(device, CL_DEVICE_NAME);
+    }
+
+    // platformIndex -1 searches all platforms; deviceIndex counts the devices of the requested type.
+    public static OpenClDevice select(int platformIndex, String deviceType, int deviceIndex) {
+        CL.setExceptionsEnabled(true);
+        long type = parseType(deviceType);
+
+        OpenClDevice selected = find(platformIndex, type, deviceIndex);
+        if (selected == null && type == CL_DEVICE_TYPE_GPU) {
+            selected = find(platformIndex, CL_DEVICE_TYPE_CPU, 0);
+            if (selected != null) {
+                System.out.println("No OpenCL GPU found, falling back to CPU device: " + selected.getName());
+            }
+        }
+        if (selected == null) {
+            throw new IllegalStateException("No OpenCL " + deviceType + " device " + deviceIndex
+                    + (platformIndex >= 0 ? " on platform " + platformIndex : ""));
+        }
+        return selected;
+    }
+
+    private static long parseType(String deviceType) {
+        switch (deviceType.toLowerCase()) {
+            case TYPE_GPU:
+                return CL_DEVICE_TYPE_GPU;
+            case TYPE_CPU:
+                return CL_DEVICE_TYPE_CPU;
+            case TYPE_ALL:
+                return CL_DEVICE_TYPE_ALL;
+            default:
+                throw new IllegalArgumentException("Unknown OpenCL device type: " + deviceType);
+        }
+    }
+
+    private static OpenClDevice find(int platformIndex, long type, int deviceIndex) {
+        cl_platform_id[] platforms = getPlatforms();
+        if (platformIndex >= platforms.length) {
+            throw new IllegalStateException("OpenCL platform " + platformIndex + " not found ("
+                    + platforms.length + " available)");
+        }
+
+        List<OpenClDevice> candidates = new ArrayList<>();
+        for (int p = 0; p < platforms.length; p++) {
+            if (platformIndex >= 0 && p != platformIndex) {
+                continue;
+            }
+            for (cl_device_id device : getDevices(platforms[p], type)) {
+                candidates.add(new OpenClDevice(platforms[p], device));
+            }
+        }
+        return deviceIndex < candidates.size() ? candidates.get(deviceIndex) : null;
+    }
+
+    private static cl_platform_id[] getPlatforms() {
+        int[] count = new int[1];
+        try {
+            clGetPlatformIDs(0, null, count);
+        } catch (CLException e) {
+            // CL_PLATFORM_NOT_FOUND_KHR when no ICD is installed
+            return new cl_platform_id[0];
+        }
+        cl_platform_id[] platforms = new cl_platform_id[count[0]];
+        clGetPlatformIDs(platforms.length, platforms, null);
+        return platforms;
+    }
+
+    private static cl_device_id[] getDevices(cl_platform_id platform, long type) {
+        int[] count = new int[1];
+        try {
+            clGetDeviceIDs(platform, type, 0, null, count);
+        } catch (CLException e) {
+            // CL_DEVICE_NOT_FOUND when the platform has no device of this type
+            return new cl_device_id[0];
+        }
+        cl_device_id[] devices = new cl_device_id[count[0]];
+        clGetDeviceIDs(platform, type, devices.length, devices, null);
+        return devices;
+    }
+
+    private static String getString(cl_device_id device, int param) {
+        long[] size = new long[1];
+        clGetDeviceInfo(device, param, 0, null, size);
+        byte[] bytes = new byte[(int) size[0]];
+        clGetDeviceInfo(device, param, bytes.length, Pointer.to(bytes), null);
+        return new String(bytes).trim();
+    }
+
+    // clCreateCommandQueue is deprecated since OpenCL 2.0, and clCreateCommandQueueWithProperties does not
+    // exist before it, so the platform version picks the call.
+    @SuppressWarnings("deprecation")
+    public cl_command_queue createCommandQueue(cl_context context, long properties) {
+        if (getOpenClMajorVersion() >= 2) {
+            cl_queue_properties queueProperties = new cl_queue_properties();
+            if (properties != 0) {
+                queueProperties.addProperty(CL_QUEUE_PROPERTIES, properties);
+            }
+            return clCreateCommandQueueWithProperties(context, device, queueProperties, null);
+        }
+        return clCreateCommandQueue(context, device, properties, null);
+    }
+
+    // CL_PLATFORM_VERSION reads "OpenCL <major>.<minor> <vendor info>".
+    private int getOpenClMajorVersion() {
+        long[] size = new long[1];
+        clGetPlatformInfo(platform, CL_PLATFORM_VERSION, 0, null, size);
+        byte[] bytes = new byte[(int) size[0]];
+        clGetPlatformInfo(platform, CL_PLATFORM_VERSION, bytes.length, Pointer.to(bytes), null);
+        String version = new String(bytes).trim();
+        try {
+            return Integer.parseInt(version.substring("OpenCL ".length(), version.indexOf('.')));
+        } catch (RuntimeException e) {
+            return 1;
+        }
+    }
+
+    // For cl_ulong and size_t properties (both 64 bits on the platforms JOCL supports).
+    public long getLong(int param) {
+        long[] value = new long[1];
+        clGetDeviceInfo(device, param, Sizeof.cl_ulong, Pointer.to(value), null);
+        return value[0];
+    }
+
+    public cl_platform_id getPlatform() {
+        return platform;
+    }
+
+    public cl_device_id getDevice() {
+        return device;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
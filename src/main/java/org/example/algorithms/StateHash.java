@@ -0,0 +1,36 @@
+package org.example.algorithms;
+
+// 64-bit hash of a packed generation, defined as the sum of a mixed value per word. Because it is a
+// sum, a step only has to add the difference for the words that changed.
+public final class StateHash {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private StateHash() {
+    }
+
+    public static long of(long[] words) {
+        long hash = 0;
+        for (int i = 0; i < words.length; i++) {
+            hash += mix(i, words[i]);
+        }
+        return hash;
+    }
+
+    // Contribution of a single word; of(words) is the sum of these over all indices.
+    public static long ofWord(int index, long word) {
+        return mix(index, word);
+    }
+
+    // Change in the hash when the word at index goes from before to after.
+    public static long delta(int index, long before, long after) {
+        return before == after ? 0 : mix(index, after) - mix(index, before);
+    }
+
+    // The MurmurHash3 finalizer of the word offset by its position.
+    private static long mix(int index, long word) {
+        long h = word + (index + 1L) * GOLDEN;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
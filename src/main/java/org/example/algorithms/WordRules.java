@@ -0,0 +1,97 @@
+package org.example.algorithms;
+
+import org.example.model.ChunkedGrid;
+
+public class WordRules {
+
+    // Computes the next state of the 64 cells in c. Bit i of a word is column 64k + i, so the west
+    // neighbours come from shifting left (carrying bit 63 of w) and the east ones from shifting right.
+    public static long nextWord(long nw, long n, long ne,
+                                long w, long c, long e,
+                                long sw, long s, long se) {
+        long aboveWest = (n << 1) | (nw >>> 63);
+        long aboveEast = (n >>> 1) | (ne << 63);
+        long west = (c << 1) | (w >>> 63);
+        long east = (c >>> 1) | (e << 63);
+        long belowWest = (s << 1) | (sw >>> 63);
+        long belowEast = (s >>> 1) | (se << 63);
+
+        long above0 = aboveWest ^ n ^ aboveEast;
+        long above1 = (aboveWest & n) | (aboveEast & (aboveWest ^ n));
+        long below0 = belowWest ^ s ^ belowEast;
+        long below1 = (belowWest & s) | (belowEast & (belowWest ^ s));
+        long middle0 = west ^ east;
+        long middle1 = west & east;
+
+        long sum0 = above0 ^ below0;
+        long carry0 = above0 & below0;
+        long sum1 = above1 ^ below1 ^ carry0;
+        long sum2 = (above1 & below1) | (carry0 & (above1 ^ below1));
+
+        long count0 = sum0 ^ middle0;
+        long carry1 = sum0 & middle0;
+        long count1 = sum1 ^ middle1 ^ carry1;
+        long carry2 = (sum1 & middle1) | (carry1 & (sum1 ^ middle1));
+        long count2 = sum2 ^ carry2;
+
+        // Count is kept modulo 8, which is fine: 8 neighbours must produce a dead cell anyway.
+        return ~count2 & count1 & (count0 | c);
+    }
+
+    // Steps one 64x64 chunk given its eight neighbouring chunks; any of them may be null when empty.
+    // Returns a non-zero value if the resulting chunk has live cells.
+    public static long nextChunk(long[] nw, long[] n, long[] ne,
+                                 long[] w, long[] c, long[] e,
+                                 long[] sw, long[] s, long[] se,
+                                 long[] target) {
+        int size = target.length;
+        int last = size - 1;
+        long any = 0;
+
+        for (int r = 0; r < size; r++) {
+            long upWest, up, upEast;
+            if (r > 0) {
+                upWest = word(w, r - 1);
+                up = word(c, r - 1);
+                upEast = word(e, r - 1);
+            } else {
+                upWest = word(nw, last);
+                up = word(n, last);
+                upEast = word(ne, last);
+            }
+
+            long downWest, down, downEast;
+            if (r < last) {
+                downWest = word(w, r + 1);
+                down = word(c, r + 1);
+                downEast = word(e, r + 1);
+            } else {
+                downWest = word(sw, 0);
+                down = word(s, 0);
+                downEast = word(se, 0);
+            }
+
+            long result = nextWord(upWest, up, upEast, word(w, r), word(c, r), word(e, r),
+                    downWest, down, downEast);
+            target[r] = result;
+            any |= result;
+        }
+
+        return any;
+    }
+
+    public static long stepChunk(ChunkedGrid grid, long key, long[] target) {
+        int cx = ChunkedGrid.chunkX(key);
+        int cy = ChunkedGrid.chunkY(key);
+
+        return nextChunk(
+                grid.getChunk(cx - 1, cy - 1), grid.getChunk(cx, cy - 1), grid.getChunk(cx + 1, cy - 1),
+                grid.getChunk(cx - 1, cy), grid.getChunk(key), grid.getChunk(cx + 1, cy),
+                grid.getChunk(cx - 1, cy + 1), grid.getChunk(cx, cy + 1), grid.getChunk(cx + 1, cy + 1),
+                target);
+    }
+
+    private static long word(long[] chunk, int row) {
+        return chunk == null ? 0 : chunk[row];
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.algorithms;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// A fixed set of worker threads that run one task at a time, all of them together, with the calling
+// thread as worker 0. Unlike an executor, handing out a task allocates nothing: the task object is
+// reused by the caller, the workers are woken with unpark, and the end of the task is a counter that the
+// last worker to finish reports with another unpark. The caller must not run two tasks at once.
+final class WorkerGang implements AutoCloseable {
+
+    interface Task {
+        void run(int worker);
+    }
+
+    private final Thread[] helpers;
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile Task task;
+    private volatile int phase;
+    private volatile Thread caller;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    WorkerGang(int workers) {
+        helpers = new Thread[Math.max(0, workers - 1)];
+        for (int i = 0; i < helpers.length; i++) {
+            int worker = i + 1;
+            Thread t = new Thread(() -> work(worker), "GameOfLife-Worker-" + worker);
+            t.setDaemon(true);
+            helpers[i] = t;
+            t.start();
+        }
+    }
+
+    int getWorkers() {
+        return helpers.length + 1;
+    }
+
+    // Runs task on every worker and returns when all of them have finished it.
+    void run(Task task) {
+        if (closed) {
+            throw new IllegalStateException("Worker gang is closed");
+        }
+        this.task = task;
+        caller = Thread.currentThread();
+        failure = null;
+        remaining.set(helpers.length);
+        phase++;
+        for (Thread helper : helpers) {
+            LockSupport.unpark(helper);
+        }
+
+        Throwable own = null;
+        try {
+            task.run(0);
+        } catch (Throwable t) {
+            own = t;
+        }
+        while (remaining.get() > 0) {
+            LockSupport.park(this);
+        }
+        this.task = null;
+
+        Throwable first = own != null ? own : failure;
+        if (first != null) {
+            throw new IllegalStateException("Worker failed: " + first.getMessage(), first);
+        }
+    }
+
+    private void work(int worker) {
+        int seen = 0;
+        while (true) {
+            while (phase == seen && !closed) {
+                LockSupport.park(this);
+            }
+            if (closed) {
+                return;
+            }
+            seen = phase;
+            try {
+                task.run(worker);
+            } catch (Throwable t) {
+                failure = t;
+            }
+            if (remaining.decrementAndGet() == 0) {
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread helper : helpers) {
+            LockSupport.unpark(helper);
+        }
+    }
+}
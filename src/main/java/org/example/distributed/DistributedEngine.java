@@ -0,0 +1,217 @@
+package org.example.distributed;
+
+import org.example.engine.LifeEngine;
+import org.example.metrics.Metrics;
+import org.example.metrics.StepRecorder;
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coordinator of the distributed mode. It starts worker JVMs on this machine, splits the board into
+// horizontal strips, one per worker, and collects the strips after the steps. During the run the workers
+// only talk to their neighbours (see Worker), so the coordinator is idle until the results come back.
+// The workers stay up between simulate calls and are stopped by close.
+public class DistributedEngine implements LifeEngine {
+    public static final int DEFAULT_WORKERS = 2;
+
+    private static final int CONNECT_TIMEOUT_MS = 60_000;
+
+    private final int workerCount;
+    private final String classPath;
+    private final int connectTimeoutMs;
+    private final List<Process> processes = new ArrayList<>();
+    private final List<Socket> sockets = new ArrayList<>();
+    private DataInputStream[] ins;
+    private DataOutputStream[] outs;
+
+    public DistributedEngine() {
+        this(DEFAULT_WORKERS);
+    }
+
+    public DistributedEngine(int workerCount) {
+        this(workerCount, System.getProperty("java.class.path"), CONNECT_TIMEOUT_MS);
+    }
+
+    // Workers are started with classPath and must connect within connectTimeoutMs.
+    DistributedEngine(int workerCount, String classPath, int connectTimeoutMs) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workerCount);
+        }
+        this.workerCount = workerCount;
+        this.classPath = classPath;
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    // Like the gpu engines, the whole call (including transfers) is reported as a single step.
+    @Override
+    public void simulate(Grid grid, int steps) {
+        StepRecorder recorder = Metrics.recorder();
+        if (recorder != null) {
+            recorder.beginStep();
+        }
+
+        PackedGrid board = PackedGrid.fromGrid(grid);
+        int height = board.getHeight();
+        int wordsPerRow = board.getWordsPerRow();
+
+        try {
+            if (ins == null) {
+                start(Math.min(workerCount, height));
+            }
+            int workers = ins.length;
+            if (height < workers) {
+                throw new IllegalArgumentException("Grid height " + height + " is smaller than the "
+                        + workers + " running workers");
+            }
+
+            long[] words = board.getCurrent();
+            for (int i = 0; i < workers; i++) {
+                int rowStart = stripStart(i, workers, height);
+                int rows = stripStart(i + 1, workers, height) - rowStart;
+                DataOutputStream out = outs[i];
+                out.writeInt(Protocol.RUN);
+                out.writeInt(wordsPerRow);
+                out.writeInt(rows);
+                out.writeInt(steps);
+                out.writeLong(board.getLastWordMask());
+                Protocol.writeWords(out, words, rowStart * wordsPerRow, rows * wordsPerRow);
+                out.flush();
+            }
+
+            for (int i = 0; i < workers; i++) {
+                int rowStart = stripStart(i, workers, height);
+                int rows = stripStart(i + 1, workers, height) - rowStart;
+                Protocol.readWords(ins[i], words, rowStart * wordsPerRow, rows * wordsPerRow);
+            }
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException("Distributed run failed: " + e.getMessage(), e);
+        }
+
+        board.copyTo(grid);
+
+        if (recorder != null) {
+            recorder.endStep(steps, (long) board.getWidth() * height * steps, grid.getLiveCellCount());
+        }
+    }
+
+    private static int stripStart(int index, int workers, int height) {
+        return (int) ((long) height * index / workers);
+    }
+
+    // The streams are only published once every worker has connected and got its neighbour, so a failed
+    // start leaves the engine as if it had never started; its processes are killed rather than waited for.
+    private void start(int workers) throws IOException {
+        try {
+            connectWorkers(workers);
+        } catch (IOException | RuntimeException e) {
+            closeSockets();
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+            processes.clear();
+            throw e;
+        }
+        System.out.println("Started " + workers + " distributed workers");
+    }
+
+    private void connectWorkers(int workers) throws IOException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        try (ServerSocket server = new ServerSocket(0, workers, loopback)) {
+            server.setSoTimeout(connectTimeoutMs);
+            for (int i = 0; i < workers; i++) {
+                ProcessBuilder builder = new ProcessBuilder(java, "-cp", classPath, Worker.class.getName(),
+                        loopback.getHostAddress(), String.valueOf(server.getLocalPort()), String.valueOf(i));
+                builder.inheritIO();
+                processes.add(builder.start());
+            }
+
+            DataInputStream[] workerIns = new DataInputStream[workers];
+            DataOutputStream[] workerOuts = new DataOutputStream[workers];
+            int[] peerPorts = new int[workers];
+            String[] peerHosts = new String[workers];
+            for (int i = 0; i < workers; i++) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    throw new IOException("Timed out waiting for " + (workers - i) + " workers to connect", e);
+                }
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                int index = in.readInt();
+                if (index < 0 || index >= workers || workerIns[index] != null) {
+                    throw new IOException("Unexpected worker index " + index);
+                }
+                workerIns[index] = in;
+                workerOuts[index] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                peerPorts[index] = in.readInt();
+                peerHosts[index] = socket.getInetAddress().getHostAddress();
+            }
+
+            for (int i = 0; i < workers; i++) {
+                boolean last = i == workers - 1;
+                workerOuts[i].writeUTF(last ? "" : peerHosts[i + 1]);
+                workerOuts[i].writeInt(last ? -1 : peerPorts[i + 1]);
+                workerOuts[i].flush();
+            }
+            ins = workerIns;
+            outs = workerOuts;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (outs != null) {
+            for (DataOutputStream out : outs) {
+                try {
+                    out.writeInt(Protocol.SHUTDOWN);
+                    out.flush();
+                } catch (IOException e) {
+                    // the worker is already gone
+                }
+            }
+        }
+        closeSockets();
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+        ins = null;
+        outs = null;
+    }
+
+    private void closeSockets() {
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+        sockets.clear();
+    }
+}
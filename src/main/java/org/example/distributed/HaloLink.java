@@ -0,0 +1,93 @@
+package org.example.distributed;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Connection to a neighbouring worker. Rows are sent from a dedicated thread, so the worker computes its
+// interior while its edge rows are in flight, and two neighbours sending to each other cannot deadlock
+// on full socket buffers. Received rows are read on the caller's thread.
+class HaloLink implements Closeable {
+    private final SocketChannel channel;
+    private final ExecutorService sender;
+    private ByteBuffer sendBuffer = ByteBuffer.allocateDirect(0);
+    private ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(0);
+    private Future<?> pending;
+
+    HaloLink(SocketChannel channel, String name) throws IOException {
+        this.channel = channel;
+        channel.configureBlocking(true);
+        channel.socket().setTcpNoDelay(true);
+        this.sender = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    static HaloLink connect(String host, int port, String name) throws IOException {
+        return new HaloLink(SocketChannel.open(new InetSocketAddress(host, port)), name);
+    }
+
+    // The words must not change until awaitSend returns.
+    void sendRow(long[] words, int offset, int length) {
+        int bytes = length * Long.BYTES;
+        if (sendBuffer.capacity() < bytes) {
+            sendBuffer = ByteBuffer.allocateDirect(bytes);
+        }
+        pending = sender.submit(() -> {
+            sendBuffer.clear();
+            sendBuffer.asLongBuffer().put(words, offset, length);
+            sendBuffer.limit(bytes);
+            while (sendBuffer.hasRemaining()) {
+                channel.write(sendBuffer);
+            }
+            return null;
+        });
+    }
+
+    void receiveRow(long[] words, int offset, int length) throws IOException {
+        int bytes = length * Long.BYTES;
+        if (receiveBuffer.capacity() < bytes) {
+            receiveBuffer = ByteBuffer.allocateDirect(bytes);
+        }
+        receiveBuffer.clear();
+        receiveBuffer.limit(bytes);
+        while (receiveBuffer.hasRemaining()) {
+            if (channel.read(receiveBuffer) < 0) {
+                throw new EOFException("Neighbour closed the connection");
+            }
+        }
+        receiveBuffer.flip();
+        receiveBuffer.asLongBuffer().get(words, offset, length);
+    }
+
+    void awaitSend() throws IOException {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sending halo", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error sending halo: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pending = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        sender.shutdownNow();
+        channel.close();
+    }
+}
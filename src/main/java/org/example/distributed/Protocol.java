@@ -0,0 +1,39 @@
+package org.example.distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Messages between the coordinator and its workers. After the handshake (worker: index and peer port;
+// coordinator: host and port of the worker below, or port -1) the coordinator sends commands:
+//   RUN wordsPerRow rows steps lastWordMask <rows * wordsPerRow words>
+// and the worker answers with the words of its strip after the steps. SHUTDOWN ends the worker.
+final class Protocol {
+    static final int RUN = 1;
+    static final int SHUTDOWN = 2;
+
+    private static final int CHUNK_WORDS = 8192;
+
+    private Protocol() {
+    }
+
+    static void writeWords(DataOutputStream out, long[] words, int offset, int length) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(Math.min(CHUNK_WORDS, Math.max(length, 1)) * Long.BYTES);
+        for (int i = 0; i < length; i += CHUNK_WORDS) {
+            int count = Math.min(CHUNK_WORDS, length - i);
+            chunk.clear();
+            chunk.asLongBuffer().put(words, offset + i, count);
+            out.write(chunk.array(), 0, count * Long.BYTES);
+        }
+    }
+
+    static void readWords(DataInputStream in, long[] words, int offset, int length) throws IOException {
+        byte[] bytes = new byte[Math.min(CHUNK_WORDS, Math.max(length, 1)) * Long.BYTES];
+        for (int i = 0; i < length; i += CHUNK_WORDS) {
+            int count = Math.min(CHUNK_WORDS, length - i);
+            in.readFully(bytes, 0, count * Long.BYTES);
+            ByteBuffer.wrap(bytes, 0, count * Long.BYTES).asLongBuffer().get(words, offset + i, count);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.distributed;
+
+import org.example.algorithms.GameOfLifeBitboard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+
+// Worker process of the distributed engine. It owns a strip of rows, stored in the PackedGrid layout with
+// one halo row above and below, and exchanges its edge rows with the workers above and below before
+// each generation. Started by DistributedEngine as: Worker <coordinator host> <coordinator port> <index>.
+public class Worker {
+    private final int index;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private HaloLink up;
+    private HaloLink down;
+
+    private Worker(int index, Socket coordinator) throws IOException {
+        this.index = index;
+        this.in = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: Worker <coordinator host> <coordinator port> <index>");
+            System.exit(1);
+        }
+        int index = Integer.parseInt(args[2]);
+
+        try (Socket coordinator = new Socket(args[0], Integer.parseInt(args[1]))) {
+            coordinator.setTcpNoDelay(true);
+            new Worker(index, coordinator).run();
+        } catch (IOException e) {
+            System.err.println("Worker " + index + " failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void run() throws IOException {
+        try {
+            connectNeighbours();
+            while (in.readInt() == Protocol.RUN) {
+                runStrip();
+            }
+        } finally {
+            if (up != null) {
+                up.close();
+            }
+            if (down != null) {
+                down.close();
+            }
+        }
+    }
+
+    // Connects to the worker below first: the connection completes in its backlog even before it accepts,
+    // so every worker can then accept the one above without waiting on a chain. The halo port accepts
+    // rows from anyone who connects, so like the coordinator it only listens on the loopback interface.
+    private void connectNeighbours() throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            out.writeInt(index);
+            out.writeInt(server.socket().getLocalPort());
+            out.flush();
+
+            String downHost = in.readUTF();
+            int downPort = in.readInt();
+            if (downPort >= 0) {
+                down = HaloLink.connect(downHost, downPort, "GameOfLife-Halo-" + index + "-down");
+            }
+            if (index > 0) {
+                up = new HaloLink(server.accept(), "GameOfLife-Halo-" + index + "-up");
+            }
+        }
+    }
+
+    private void runStrip() throws IOException {
+        int wordsPerRow = in.readInt();
+        int rows = in.readInt();
+        int steps = in.readInt();
+        long lastWordMask = in.readLong();
+
+        // Row 0 and row rows + 1 are the halo; they stay empty at the edges of the board.
+        int height = rows + 2;
+        long[] current = new long[height * wordsPerRow];
+        long[] next = new long[height * wordsPerRow];
+        Protocol.readWords(in, current, wordsPerRow, rows * wordsPerRow);
+
+        for (int i = 0; i < steps; i++) {
+            if (up != null) {
+                up.sendRow(current, wordsPerRow, wordsPerRow);
+            }
+            if (down != null) {
+                down.sendRow(current, rows * wordsPerRow, wordsPerRow);
+            }
+
+            // The interior does not depend on the halo, so it is computed while the rows are in flight.
+            if (rows > 2) {
+                GameOfLifeBitboard.stepRows(current, next, wordsPerRow, height, lastWordMask, 2, rows);
+            }
+
+            if (up != null) {
+                up.receiveRow(current, 0, wordsPerRow);
+            }
+            if (down != null) {
+                down.receiveRow(current, (rows + 1) * wordsPerRow, wordsPerRow);
+            }
+            GameOfLifeBitboard.stepRows(current, next, wordsPerRow, height, lastWordMask, 1, 2);
+            if (rows > 1) {
+                GameOfLifeBitboard.stepRows(current, next, wordsPerRow, height, lastWordMask, rows, rows + 1);
+            }
+
+            if (up != null) {
+                up.awaitSend();
+            }
+            if (down != null) {
+                down.awaitSend();
+            }
+            long[] temp = current;
+            current = next;
+            next = temp;
+        }
+
+        Protocol.writeWords(out, current, wordsPerRow, rows * wordsPerRow);
+        out.flush();
+    }
+}
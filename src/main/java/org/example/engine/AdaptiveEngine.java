@@ -0,0 +1,154 @@
+package org.example.engine;
+
+import org.example.model.Grid;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+// The auto mode. Every getAutoInterval() generations it looks at the population and the live bounding
+// box and hands the grid to the engine that suits it: the tiled engine while the pattern is sparse or
+// confined to part of the board (idle tiles sleep), and a bit-parallel engine once a soup fills the
+// board, using bands when more than one thread is allowed. The grid is the hand-over format, so
+// switching costs one conversion per segment. The engines count population and bounding box while
+// stepping (GenerationStats), so only the first choice has to scan the grid.
+public class AdaptiveEngine implements LifeEngine {
+    static final String SPARSE_ENGINE = "tiled";
+    static final String DENSE_ENGINE = "bitboard";
+    static final String DENSE_PARALLEL_ENGINE = "bands";
+
+    // A board counts as dense when the live bounding box covers at least this share of the grid and at
+    // least this share of the cells inside the box is alive.
+    private static final double DENSE_AREA = 0.25;
+    private static final double DENSE_POPULATION = 0.05;
+
+    private final EngineRegistry registry;
+    private final EngineOptions options;
+    private final Map<String, LifeEngine> engines = new HashMap<>();
+
+    private String current;
+    private long generation;
+    private int switches;
+    private GenerationStats stats;
+
+    public AdaptiveEngine(EngineRegistry registry, EngineOptions options) {
+        this.registry = registry;
+        this.options = options;
+    }
+
+    @Override
+    public void simulate(Grid grid, int steps) {
+        int remaining = steps;
+
+        while (remaining > 0) {
+            int segment = Math.min(remaining, options.getAutoInterval());
+            String name = choose(grid);
+            LifeEngine engine = engines.computeIfAbsent(name, n -> {
+                LifeEngine created = registry.create(n, options);
+                created.enableGenerationStats();
+                return created;
+            });
+            engine.simulate(grid, segment);
+            stats = engine.getGenerationStats();
+            generation += segment;
+            remaining -= segment;
+        }
+    }
+
+    private String choose(Grid grid) {
+        long population;
+        long boxArea;
+        if (stats != null) {
+            population = stats.getPopulation();
+            boxArea = stats.getBoundingBoxArea();
+        } else {
+            int[] box = boundingBox(grid);
+            population = grid.getLiveCellCount();
+            boxArea = box == null ? 0 : (long) (box[2] - box[0] + 1) * (box[3] - box[1] + 1);
+        }
+        double areaShare = (double) boxArea / ((long) grid.getWidth() * grid.getHeight());
+        double density = boxArea == 0 ? 0 : (double) population / boxArea;
+
+        String name;
+        if (areaShare >= DENSE_AREA && density >= DENSE_POPULATION) {
+            name = options.getThreads() > 1 ? DENSE_PARALLEL_ENGINE : DENSE_ENGINE;
+        } else {
+            name = SPARSE_ENGINE;
+        }
+
+        if (!name.equals(current)) {
+            System.out.println(String.format("Auto: generation %d, population %d, box %.1f%% of grid, "
+                    + "density %.2f%% -> %s", generation, population, areaShare * 100, density * 100, name));
+            if (current != null) {
+                switches++;
+            }
+            current = name;
+        }
+        return name;
+    }
+
+    // Returns {minRow, minCol, maxRow, maxCol} of the live cells, or null if there are none.
+    static int[] boundingBox(Grid grid) {
+        BitSet cells = grid.getCurrent();
+        int first = cells.nextSetBit(0);
+        if (first < 0) {
+            return null;
+        }
+        int width = grid.getWidth();
+        int minRow = first / width;
+        int maxRow = cells.previousSetBit(cells.length() - 1) / width;
+        int minCol = width;
+        int maxCol = -1;
+
+        for (int row = minRow; row <= maxRow; row++) {
+            int start = row * width;
+            int col = cells.nextSetBit(start);
+            if (col < 0 || col >= start + width) {
+                continue;
+            }
+            minCol = Math.min(minCol, col - start);
+            maxCol = Math.max(maxCol, cells.previousSetBit(start + width - 1) - start);
+        }
+        return new int[]{minRow, minCol, maxRow, maxCol};
+    }
+
+    public int getSwitches() {
+        return switches;
+    }
+
+    @Override
+    public boolean enableGenerationStats() {
+        return true;
+    }
+
+    @Override
+    public GenerationStats getGenerationStats() {
+        return stats;
+    }
+
+    // The summaries of the engines it handed the grid to.
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, LifeEngine> entry : engines.entrySet()) {
+            String line = entry.getValue().getSummary();
+            if (line != null) {
+                summary.append(summary.length() > 0 ? "\n" : "").append(entry.getKey()).append(": ").append(line);
+            }
+        }
+        return summary.length() > 0 ? summary.toString() : null;
+    }
+
+    @Override
+    public boolean isMultithreaded() {
+        return options.getThreads() > 1;
+    }
+
+    @Override
+    public void close() {
+        for (LifeEngine engine : engines.values()) {
+            engine.close();
+        }
+        engines.clear();
+    }
+}
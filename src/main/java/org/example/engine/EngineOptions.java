@@ -0,0 +1,203 @@
+package org.example.engine;
+
+import org.example.algorithms.GameOfLifeGpuFused;
+import org.example.algorithms.GameOfLifeHashLife;
+import org.example.algorithms.GameOfLifeParallel;
+import org.example.algorithms.GameOfLifeTemporal;
+import org.example.algorithms.GameOfLifeTiled;
+import org.example.algorithms.OpenClDevice;
+import org.example.distributed.DistributedEngine;
+import org.example.model.Rule;
+
+// Settings handed to every engine the registry creates. Each engine reads only the ones it uses.
+public class EngineOptions {
+    public static final int DEFAULT_AUTO_INTERVAL = 64;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long maxNodes = GameOfLifeHashLife.DEFAULT_MAX_NODES;
+    private int tileRows = GameOfLifeTiled.DEFAULT_TILE_ROWS;
+    private int autoInterval = DEFAULT_AUTO_INTERVAL;
+    private int cycleWindow = 0;
+    private int blockDepth = GameOfLifeTemporal.DEFAULT_DEPTH;
+    private int blockRows = GameOfLifeTemporal.DEFAULT_TILE_ROWS;
+    private int blockColumns = GameOfLifeTemporal.DEFAULT_TILE_COLUMNS;
+    private Rule rule = Rule.CONWAY;
+    private int workers = DistributedEngine.DEFAULT_WORKERS;
+    private int clPlatform = -1;
+    private String clDeviceType = OpenClDevice.TYPE_GPU;
+    private int clDeviceIndex = 0;
+    private int gpuGenerations = GameOfLifeGpuFused.DEFAULT_GENERATIONS_PER_LAUNCH;
+    private boolean generationStats = false;
+    private String scheduler = GameOfLifeParallel.SCHEDULER_STATIC;
+
+    // Independent copy, so per-job settings (such as the rule) do not leak into shared options.
+    public EngineOptions copy() {
+        EngineOptions copy = new EngineOptions();
+        copy.threads = threads;
+        copy.maxNodes = maxNodes;
+        copy.tileRows = tileRows;
+        copy.autoInterval = autoInterval;
+        copy.cycleWindow = cycleWindow;
+        copy.blockDepth = blockDepth;
+        copy.blockRows = blockRows;
+        copy.blockColumns = blockColumns;
+        copy.rule = rule;
+        copy.workers = workers;
+        copy.clPlatform = clPlatform;
+        copy.clDeviceType = clDeviceType;
+        copy.clDeviceIndex = clDeviceIndex;
+        copy.gpuGenerations = gpuGenerations;
+        copy.generationStats = generationStats;
+        copy.scheduler = scheduler;
+        return copy;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public void setMaxNodes(long maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    public int getTileRows() {
+        return tileRows;
+    }
+
+    public void setTileRows(int tileRows) {
+        this.tileRows = tileRows;
+    }
+
+    // Generations between two engine choices in auto mode.
+    public int getAutoInterval() {
+        return autoInterval;
+    }
+
+    public void setAutoInterval(int autoInterval) {
+        if (autoInterval <= 0) {
+            throw new IllegalArgumentException("Auto interval must be positive: " + autoInterval);
+        }
+        this.autoInterval = autoInterval;
+    }
+
+    // Generations of state hashes kept for cycle detection; 0 disables it.
+    public int getCycleWindow() {
+        return cycleWindow;
+    }
+
+    public void setCycleWindow(int cycleWindow) {
+        if (cycleWindow < 0) {
+            throw new IllegalArgumentException("Cycle window must not be negative: " + cycleWindow);
+        }
+        this.cycleWindow = cycleWindow;
+    }
+
+    // Generations the temporal engine advances a tile before writing it back.
+    public int getBlockDepth() {
+        return blockDepth;
+    }
+
+    public void setBlockDepth(int blockDepth) {
+        this.blockDepth = blockDepth;
+    }
+
+    // Size of a temporal tile in cells, without the halo.
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    public int getBlockColumns() {
+        return blockColumns;
+    }
+
+    public void setBlockSize(int rows, int columns) {
+        this.blockRows = rows;
+        this.blockColumns = columns;
+    }
+
+    // Rule for engines that support more than B3/S23 (see LifeEngine.supportsRule).
+    public Rule getRule() {
+        return rule;
+    }
+
+    public void setRule(Rule rule) {
+        this.rule = rule;
+    }
+
+    // Worker processes started by the distributed engine.
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        this.workers = workers;
+    }
+
+    // OpenCL platform index for the gpu engines; -1 searches all platforms.
+    public int getClPlatform() {
+        return clPlatform;
+    }
+
+    public void setClPlatform(int clPlatform) {
+        this.clPlatform = clPlatform;
+    }
+
+    // gpu, cpu or all. A gpu request falls back to a CPU device when there is no GPU.
+    public String getClDeviceType() {
+        return clDeviceType;
+    }
+
+    public void setClDeviceType(String clDeviceType) {
+        this.clDeviceType = clDeviceType;
+    }
+
+    public int getClDeviceIndex() {
+        return clDeviceIndex;
+    }
+
+    public void setClDeviceIndex(int clDeviceIndex) {
+        this.clDeviceIndex = clDeviceIndex;
+    }
+
+    // Generations the gpu-fused kernel advances per launch.
+    public int getGpuGenerations() {
+        return gpuGenerations;
+    }
+
+    public void setGpuGenerations(int gpuGenerations) {
+        this.gpuGenerations = gpuGenerations;
+    }
+
+    // Whether created engines are asked to count GenerationStats while stepping.
+    public boolean isGenerationStats() {
+        return generationStats;
+    }
+
+    public void setGenerationStats(boolean generationStats) {
+        this.generationStats = generationStats;
+    }
+
+    // How parallel mode shares a step among its threads: static slices or work-stealing tiles.
+    public String getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(String scheduler) {
+        if (!GameOfLifeParallel.SCHEDULER_STATIC.equals(scheduler)
+                && !GameOfLifeParallel.SCHEDULER_STEALING.equals(scheduler)) {
+            throw new IllegalArgumentException("Unknown scheduler: " + scheduler);
+        }
+        this.scheduler = scheduler;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.engine;
+
+import org.example.model.Rule;
+
+// Creates engines for the registry. Implementations on the classpath are picked up through
+// META-INF/services/org.example.engine.EngineProvider, so new engines need no changes to Main.
+public interface EngineProvider {
+
+    // The mode name used on the command line.
+    String getName();
+
+    LifeEngine create(EngineOptions options);
+
+    // Whether the engines created by this provider can run the given rule, so a request can be refused
+    // without creating one. Must agree with LifeEngine.supportsRule; like it, the default is Conway-only.
+    default boolean supportsRule(Rule rule) {
+        return rule.isConway();
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.engine;
+
+import org.example.algorithms.GameOfLifeBandParallel;
+import org.example.algorithms.GameOfLifeBitboard;
+import org.example.algorithms.GameOfLifeGpu;
+import org.example.algorithms.GameOfLifeGpuFused;
+import org.example.algorithms.GameOfLifeHashLife;
+import org.example.algorithms.GameOfLifeLookup;
+import org.example.algorithms.GameOfLifeParallel;
+import org.example.algorithms.GameOfLifeSequential;
+import org.example.algorithms.GameOfLifeTemporal;
+import org.example.algorithms.GameOfLifeTiled;
+import org.example.distributed.DistributedEngine;
+import org.example.model.Rule;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Maps mode names to engine providers: the built-in engines, auto, and any EngineProvider found by
+// ServiceLoader. A provider registered later under an existing name replaces the earlier one.
+public class EngineRegistry {
+    private final Map<String, EngineProvider> providers = new LinkedHashMap<>();
+
+    private static class BuiltinProvider implements EngineProvider {
+        private final String name;
+        private final Function<EngineOptions, LifeEngine> factory;
+        private final Predicate<Rule> rules;
+
+        BuiltinProvider(String name, Function<EngineOptions, LifeEngine> factory, Predicate<Rule> rules) {
+            this.name = name;
+            this.factory = factory;
+            this.rules = rules;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public LifeEngine create(EngineOptions options) {
+            return factory.apply(options);
+        }
+
+        @Override
+        public boolean supportsRule(Rule rule) {
+            return rules.test(rule);
+        }
+    }
+
+    public static EngineRegistry createDefault() {
+        EngineRegistry registry = new EngineRegistry();
+        registry.register("sequential", options -> new GameOfLifeSequential());
+        registry.register("parallel", options -> new GameOfLifeParallel(options.getThreads(),
+                options.getScheduler()));
+        registry.register("gpu", options -> new GameOfLifeGpu(options.getClPlatform(), options.getClDeviceType(),
+                options.getClDeviceIndex()));
+        registry.register("gpu-fused", options -> new GameOfLifeGpuFused(options.getClPlatform(),
+                options.getClDeviceType(), options.getClDeviceIndex(), options.getGpuGenerations()));
+        registry.register("bitboard", options -> new GameOfLifeBitboard(options.getCycleWindow()));
+        registry.register("hashlife", options -> new GameOfLifeHashLife(options.getMaxNodes()));
+        registry.register("tiled", options -> new GameOfLifeTiled(options.getTileRows(), options.getCycleWindow()));
+        registry.register("bands", options -> new GameOfLifeBandParallel(options.getThreads()));
+        registry.register("temporal", options -> new GameOfLifeTemporal(options.getBlockDepth(),
+                options.getBlockRows(), options.getBlockColumns(), options.getThreads()));
+        // Lookup builds its table for whichever rule the options carry.
+        registry.register("lookup", options -> new GameOfLifeLookup(options.getRule()), rule -> true);
+        registry.register("distributed", options -> new DistributedEngine(options.getWorkers()));
+        registry.register("auto", options -> new AdaptiveEngine(registry, options));
+
+        for (EngineProvider provider : ServiceLoader.load(EngineProvider.class)) {
+            registry.register(provider);
+        }
+        return registry;
+    }
+
+    public void register(EngineProvider provider) {
+        providers.put(provider.getName().toLowerCase(), provider);
+    }
+
+    public void register(String name, Function<EngineOptions, LifeEngine> factory) {
+        register(name, factory, Rule::isConway);
+    }
+
+    public void register(String name, Function<EngineOptions, LifeEngine> factory, Predicate<Rule> rules) {
+        register(new BuiltinProvider(name, factory, rules));
+    }
+
+    public boolean contains(String name) {
+        return providers.containsKey(name.toLowerCase());
+    }
+
+    // Whether the mode can run the rule, without creating an engine (which for gpu modes sets up OpenCL).
+    public boolean supportsRule(String name, Rule rule) {
+        EngineProvider provider = providers.get(name.toLowerCase());
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown mode: " + name);
+        }
+        return provider.supportsRule(rule);
+    }
+
+    public List<String> getNames() {
+        return new ArrayList<>(providers.keySet());
+    }
+
+    public LifeEngine create(String name, EngineOptions options) {
+        EngineProvider provider = providers.get(name.toLowerCase());
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown mode: " + name);
+        }
+        LifeEngine engine = provider.create(options);
+        if (options.isGenerationStats() && !engine.enableGenerationStats()) {
+            System.out.println("Mode " + name + " does not count generation stats while stepping");
+        }
+        return engine;
+    }
+}
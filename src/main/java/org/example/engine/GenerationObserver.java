@@ -0,0 +1,15 @@
+package org.example.engine;
+
+import org.example.model.Grid;
+
+// Watches a run from inside LifeEngine.simulate(Grid, int, GenerationObserver): the engine asks how far it
+// may go, advances that many generations and shows the observer the grid before going on.
+public interface GenerationObserver {
+
+    // Generations to advance before the next call to observe; at least 1.
+    int stepsToNext();
+
+    // Called with the grid up to date after steps more generations (fewer than asked only at the end of
+    // the run).
+    void observe(Grid grid, int steps);
+}
@@ -0,0 +1,159 @@
+package org.example.engine;
+
+// Population, births, deaths and live bounding box of one generation, accumulated by an engine while it
+// writes that generation, so none of them needs another pass over the board. Multithreaded engines keep
+// one instance per worker and merge them at the barrier. An instance is reused from step to step; copy
+// it to keep the values.
+public class GenerationStats {
+    private long population;
+    private long births;
+    private long deaths;
+    private int minRow;
+    private int maxRow;
+    private int minCol;
+    private int maxCol;
+
+    public GenerationStats() {
+        clear();
+    }
+
+    public void clear() {
+        population = 0;
+        births = 0;
+        deaths = 0;
+        minRow = Integer.MAX_VALUE;
+        maxRow = -1;
+        minCol = Integer.MAX_VALUE;
+        maxCol = -1;
+    }
+
+    // Adds one row in the PackedGrid layout: words [offset, offset + words) of before and after.
+    public void addRow(int row, long[] before, int beforeOffset, long[] after, int afterOffset, int words) {
+        long live = 0;
+        long born = 0;
+        long died = 0;
+        int first = -1;
+        int last = -1;
+        for (int k = 0; k < words; k++) {
+            long b = before[beforeOffset + k];
+            long a = after[afterOffset + k];
+            if ((a | b) == 0) {
+                continue;
+            }
+            live += Long.bitCount(a);
+            born += Long.bitCount(a & ~b);
+            died += Long.bitCount(b & ~a);
+            if (a != 0) {
+                if (first < 0) {
+                    first = k;
+                }
+                last = k;
+            }
+        }
+
+        population += live;
+        births += born;
+        deaths += died;
+        if (first >= 0) {
+            addLive(row, row, (first << 6) + Long.numberOfTrailingZeros(after[afterOffset + first]),
+                    (last << 6) + 63 - Long.numberOfLeadingZeros(after[afterOffset + last]));
+        }
+    }
+
+    // Adds one cell; engines that write cell by cell must call this for every live cell of the new
+    // generation and for every cell that died.
+    public void addCell(int row, int col, boolean before, boolean after) {
+        if (after) {
+            population++;
+            if (!before) {
+                births++;
+            }
+            addLive(row, row, col, col);
+        } else if (before) {
+            deaths++;
+        }
+    }
+
+    // Adds live cells counted elsewhere, with their bounding box.
+    public void addLive(long cells, int minRow, int maxRow, int minCol, int maxCol) {
+        population += cells;
+        addLive(minRow, maxRow, minCol, maxCol);
+    }
+
+    public void addChanges(long born, long died) {
+        births += born;
+        deaths += died;
+    }
+
+    private void addLive(int minRow, int maxRow, int minCol, int maxCol) {
+        this.minRow = Math.min(this.minRow, minRow);
+        this.maxRow = Math.max(this.maxRow, maxRow);
+        this.minCol = Math.min(this.minCol, minCol);
+        this.maxCol = Math.max(this.maxCol, maxCol);
+    }
+
+    public void merge(GenerationStats other) {
+        population += other.population;
+        births += other.births;
+        deaths += other.deaths;
+        if (!other.isEmpty()) {
+            addLive(other.minRow, other.maxRow, other.minCol, other.maxCol);
+        }
+    }
+
+    public void set(GenerationStats other) {
+        clear();
+        merge(other);
+    }
+
+    public GenerationStats copy() {
+        GenerationStats copy = new GenerationStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getPopulation() {
+        return population;
+    }
+
+    public long getBirths() {
+        return births;
+    }
+
+    public long getDeaths() {
+        return deaths;
+    }
+
+    public boolean isEmpty() {
+        return maxRow < 0;
+    }
+
+    // The bounding box getters are -1 for an empty generation.
+    public int getMinRow() {
+        return isEmpty() ? -1 : minRow;
+    }
+
+    public int getMaxRow() {
+        return maxRow;
+    }
+
+    public int getMinCol() {
+        return isEmpty() ? -1 : minCol;
+    }
+
+    public int getMaxCol() {
+        return maxCol;
+    }
+
+    // Cells in the live bounding box.
+    public long getBoundingBoxArea() {
+        return isEmpty() ? 0 : (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "population " + population + ", births " + births + ", deaths " + deaths
+                + (isEmpty() ? ", empty" : ", bounding box rows " + minRow + "-" + maxRow + ", columns " + minCol
+                + "-" + maxCol);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.engine;
+
+import org.example.model.Grid;
+import org.example.model.Rule;
+
+// Common entry point of the engines that step a bounded Grid. Engines may keep state between calls
+// (thread pools, OpenCL buffers), but the grid is always up to date when simulate returns, so a run can
+// be continued by any other engine.
+public interface LifeEngine extends AutoCloseable {
+
+    void simulate(Grid grid, int steps);
+
+    // Like simulate, stopping wherever the observer asks to bring the grid up to date and show it. By
+    // default each stop is a separate simulate call; engines that convert the grid into a board of their
+    // own override it to keep that board (and whatever they track per tile) for the whole run, so
+    // recording every generation does not rebuild it each time.
+    default void simulate(Grid grid, int steps, GenerationObserver observer) {
+        while (steps > 0) {
+            int segment = Math.min(steps, observer.stepsToNext());
+            simulate(grid, segment);
+            steps -= segment;
+            observer.observe(grid, segment);
+        }
+    }
+
+    // Whether the engine uses EngineOptions.getThreads().
+    default boolean isMultithreaded() {
+        return false;
+    }
+
+    // Asks the engine to count population, births, deaths and the bounding box of each generation while
+    // writing it. Counting costs a few operations per word, so it is off unless asked for (or metrics are
+    // on); returns false if the engine cannot do it.
+    default boolean enableGenerationStats() {
+        return false;
+    }
+
+    // The counts of the last generation computed by simulate; null if they are not tracked or the engine
+    // has not stepped yet.
+    default GenerationStats getGenerationStats() {
+        return null;
+    }
+
+    // One line about the engine's own work over all calls so far (cache sizes, skipped work), or null if
+    // there is nothing to report. Main prints it once after the run, so segmented runs and benchmarks do
+    // not repeat it on every call.
+    default String getSummary() {
+        return null;
+    }
+
+    // Whether the engine can run the given rule. The built-in engines other than lookup are Conway-only.
+    default boolean supportsRule(Rule rule) {
+        return rule.isConway();
+    }
+
+    @Override
+    default void close() {
+    }
+}
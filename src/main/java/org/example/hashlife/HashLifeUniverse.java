@@ -0,0 +1,350 @@
+package org.example.hashlife;
+
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+
+import java.util.BitSet;
+
+// Unbounded universe stored as a canonical quadtree. The root always covers
+// [-2^(level-1), 2^(level-1)) on both axes, with cell (row, col) of a Grid at x = col, y = row.
+public class HashLifeUniverse {
+    private static final int MIN_LEVEL = 3;
+
+    private final NodeTable table;
+    private Node root;
+    private long generation = 0;
+
+    public HashLifeUniverse(long maxNodes) {
+        this.table = new NodeTable(maxNodes);
+        this.root = table.empty(MIN_LEVEL);
+    }
+
+    public static HashLifeUniverse fromGrid(Grid grid, long maxNodes) {
+        HashLifeUniverse universe = new HashLifeUniverse(maxNodes);
+        PackedGrid packed = PackedGrid.fromGrid(grid);
+
+        int level = MIN_LEVEL;
+        while ((1L << (level - 1)) < Math.max(grid.getWidth(), grid.getHeight())) {
+            level++;
+        }
+
+        long half = 1L << (level - 1);
+        universe.root = universe.build(packed, level, -half, -half);
+        return universe;
+    }
+
+    public void copyTo(Grid grid) {
+        BitSet target = grid.getNext();
+        target.clear();
+        long half = 1L << (root.level - 1);
+        write(root, -half, -half, target, grid.getWidth(), grid.getHeight());
+        grid.swapGrids();
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    public NodeTable getTable() {
+        return table;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getPopulation() {
+        return root.population;
+    }
+
+    // Advances the universe by exactly 2^log2Steps generations.
+    public void step(int log2Steps) {
+        if (log2Steps < 0 || log2Steps > 62) {
+            throw new IllegalArgumentException("Step exponent out of range: " + log2Steps);
+        }
+
+        while (root.level < log2Steps + 3 || !fitsInCentre(root)) {
+            root = expand(root);
+        }
+        root = successor(root, log2Steps);
+        generation += 1L << log2Steps;
+
+        if (table.isOverBudget()) {
+            table.collect(root);
+        }
+    }
+
+    // Kills every cell outside [0, width) x [0, height).
+    public void clip(int width, int height) {
+        long half = 1L << (root.level - 1);
+        root = clip(root, -half, -half, width, height);
+    }
+
+    // Distance from the live bounding box to the outside of [0, width) x [0, height): 1 means a live
+    // cell touches the border. Returns Long.MAX_VALUE for an empty universe.
+    public long margin(int width, int height) {
+        if (root.population == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        long half = 1L << (root.level - 1);
+        long minX = minX(root, -half, -half, Long.MAX_VALUE);
+        long maxX = maxX(root, -half, -half, Long.MIN_VALUE);
+        long minY = minY(root, -half, -half, Long.MAX_VALUE);
+        long maxY = maxY(root, -half, -half, Long.MIN_VALUE);
+
+        return Math.min(Math.min(minX + 1, width - maxX), Math.min(minY + 1, height - maxY));
+    }
+
+    private Node successor(Node m, int j) {
+        if (m.population == 0) {
+            return m.nw;
+        }
+
+        int step = Math.min(j, m.level - 2);
+        if (m.result != null && m.resultStep == step) {
+            return m.result;
+        }
+
+        Node s;
+        if (m.level == 2) {
+            s = baseCase(m);
+        } else {
+            Node n00 = m.nw;
+            Node n01 = table.join(m.nw.ne, m.ne.nw, m.nw.se, m.ne.sw);
+            Node n02 = m.ne;
+            Node n10 = table.join(m.nw.sw, m.nw.se, m.sw.nw, m.sw.ne);
+            Node n11 = table.join(m.nw.se, m.ne.sw, m.sw.ne, m.se.nw);
+            Node n12 = table.join(m.ne.sw, m.ne.se, m.se.nw, m.se.ne);
+            Node n20 = m.sw;
+            Node n21 = table.join(m.sw.ne, m.se.nw, m.sw.se, m.se.sw);
+            Node n22 = m.se;
+
+            Node c00 = successor(n00, step);
+            Node c01 = successor(n01, step);
+            Node c02 = successor(n02, step);
+            Node c10 = successor(n10, step);
+            Node c11 = successor(n11, step);
+            Node c12 = successor(n12, step);
+            Node c20 = successor(n20, step);
+            Node c21 = successor(n21, step);
+            Node c22 = successor(n22, step);
+
+            if (step < m.level - 2) {
+                s = table.join(
+                        centre(c00, c01, c10, c11),
+                        centre(c01, c02, c11, c12),
+                        centre(c10, c11, c20, c21),
+                        centre(c11, c12, c21, c22));
+            } else {
+                s = table.join(
+                        successor(table.join(c00, c01, c10, c11), step),
+                        successor(table.join(c01, c02, c11, c12), step),
+                        successor(table.join(c10, c11, c20, c21), step),
+                        successor(table.join(c11, c12, c21, c22), step));
+            }
+        }
+
+        m.result = s;
+        m.resultStep = step;
+        return s;
+    }
+
+    private Node centre(Node nw, Node ne, Node sw, Node se) {
+        return table.join(nw.se, ne.sw, sw.ne, se.nw);
+    }
+
+    private Node baseCase(Node m) {
+        int bits = 0;
+        Node[][] rows = {
+                {m.nw.nw, m.nw.ne, m.ne.nw, m.ne.ne},
+                {m.nw.sw, m.nw.se, m.ne.sw, m.ne.se},
+                {m.sw.nw, m.sw.ne, m.se.nw, m.se.ne},
+                {m.sw.sw, m.sw.se, m.se.sw, m.se.se}
+        };
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                if (rows[r][c].population != 0) {
+                    bits |= 1 << (r * 4 + c);
+                }
+            }
+        }
+
+        return table.join(
+                table.leaf(nextCell(bits, 1, 1)),
+                table.leaf(nextCell(bits, 1, 2)),
+                table.leaf(nextCell(bits, 2, 1)),
+                table.leaf(nextCell(bits, 2, 2)));
+    }
+
+    private static boolean nextCell(int bits, int row, int col) {
+        int count = 0;
+        for (int r = row - 1; r <= row + 1; r++) {
+            for (int c = col - 1; c <= col + 1; c++) {
+                if ((r != row || c != col) && (bits & (1 << (r * 4 + c))) != 0) {
+                    count++;
+                }
+            }
+        }
+        boolean alive = (bits & (1 << (row * 4 + col))) != 0;
+        return count == 3 || (alive && count == 2);
+    }
+
+    private boolean fitsInCentre(Node n) {
+        long inner = n.nw.se.se.population + n.ne.sw.sw.population
+                + n.sw.ne.ne.population + n.se.nw.nw.population;
+        return inner == n.population;
+    }
+
+    private Node expand(Node n) {
+        Node e = table.empty(n.level - 1);
+        return table.join(
+                table.join(e, e, e, n.nw),
+                table.join(e, e, n.ne, e),
+                table.join(e, n.sw, e, e),
+                table.join(n.se, e, e, e));
+    }
+
+    private Node build(PackedGrid packed, int level, long x, long y) {
+        long size = 1L << level;
+        if (isRegionEmpty(packed, x, y, size)) {
+            return table.empty(level);
+        }
+        if (level == 0) {
+            return table.leaf(true);
+        }
+
+        long half = size >> 1;
+        return table.join(
+                build(packed, level - 1, x, y),
+                build(packed, level - 1, x + half, y),
+                build(packed, level - 1, x, y + half),
+                build(packed, level - 1, x + half, y + half));
+    }
+
+    private static boolean isRegionEmpty(PackedGrid packed, long x, long y, long size) {
+        long c0 = Math.max(x, 0);
+        long c1 = Math.min(x + size, packed.getWidth());
+        long r0 = Math.max(y, 0);
+        long r1 = Math.min(y + size, packed.getHeight());
+        if (c0 >= c1 || r0 >= r1) {
+            return true;
+        }
+
+        long[] words = packed.getCurrent();
+        int wordsPerRow = packed.getWordsPerRow();
+        int firstWord = (int) (c0 >>> 6);
+        int lastWord = (int) ((c1 - 1) >>> 6);
+        long firstMask = -1L << (c0 & 63);
+        long lastMask = -1L >>> (63 - ((c1 - 1) & 63));
+
+        for (int row = (int) r0; row < r1; row++) {
+            int base = row * wordsPerRow;
+            for (int k = firstWord; k <= lastWord; k++) {
+                long mask = -1L;
+                if (k == firstWord) {
+                    mask &= firstMask;
+                }
+                if (k == lastWord) {
+                    mask &= lastMask;
+                }
+                if ((words[base + k] & mask) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void write(Node n, long x, long y, BitSet target, int width, int height) {
+        long size = 1L << n.level;
+        if (n.population == 0 || x >= width || y >= height || x + size <= 0 || y + size <= 0) {
+            return;
+        }
+        if (n.level == 0) {
+            target.set((int) (y * width + x));
+            return;
+        }
+
+        long half = size >> 1;
+        write(n.nw, x, y, target, width, height);
+        write(n.ne, x + half, y, target, width, height);
+        write(n.sw, x, y + half, target, width, height);
+        write(n.se, x + half, y + half, target, width, height);
+    }
+
+    private Node clip(Node n, long x, long y, int width, int height) {
+        long size = 1L << n.level;
+        if (n.population == 0 || (x >= 0 && y >= 0 && x + size <= width && y + size <= height)) {
+            return n;
+        }
+        if (x >= width || y >= height || x + size <= 0 || y + size <= 0) {
+            return table.empty(n.level);
+        }
+
+        long half = size >> 1;
+        return table.join(
+                clip(n.nw, x, y, width, height),
+                clip(n.ne, x + half, y, width, height),
+                clip(n.sw, x, y + half, width, height),
+                clip(n.se, x + half, y + half, width, height));
+    }
+
+    private long minX(Node n, long x, long y, long best) {
+        if (n.population == 0 || x >= best) {
+            return best;
+        }
+        if (n.level == 0) {
+            return x;
+        }
+        long half = 1L << (n.level - 1);
+        best = minX(n.nw, x, y, best);
+        best = minX(n.sw, x, y + half, best);
+        best = minX(n.ne, x + half, y, best);
+        return minX(n.se, x + half, y + half, best);
+    }
+
+    private long maxX(Node n, long x, long y, long best) {
+        long size = 1L << n.level;
+        if (n.population == 0 || x + size - 1 <= best) {
+            return best;
+        }
+        if (n.level == 0) {
+            return x;
+        }
+        long half = size >> 1;
+        best = maxX(n.ne, x + half, y, best);
+        best = maxX(n.se, x + half, y + half, best);
+        best = maxX(n.nw, x, y, best);
+        return maxX(n.sw, x, y + half, best);
+    }
+
+    private long minY(Node n, long x, long y, long best) {
+        if (n.population == 0 || y >= best) {
+            return best;
+        }
+        if (n.level == 0) {
+            return y;
+        }
+        long half = 1L << (n.level - 1);
+        best = minY(n.nw, x, y, best);
+        best = minY(n.ne, x + half, y, best);
+        best = minY(n.sw, x, y + half, best);
+        return minY(n.se, x + half, y + half, best);
+    }
+
+    private long maxY(Node n, long x, long y, long best) {
+        long size = 1L << n.level;
+        if (n.population == 0 || y + size - 1 <= best) {
+            return best;
+        }
+        if (n.level == 0) {
+            return y;
+        }
+        long half = size >> 1;
+        best = maxY(n.sw, x, y + half, best);
+        best = maxY(n.se, x + half, y + half, best);
+        best = maxY(n.nw, x, y, best);
+        return maxY(n.ne, x + half, y, best);
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.hashlife;
+
+public class Node {
+    final Node nw;
+    final Node ne;
+    final Node sw;
+    final Node se;
+    final int level;
+    final long population;
+    final int hash;
+
+    Node chain;
+    Node result;
+    int resultStep = -1;
+    int mark;
+
+    Node(boolean alive) {
+        this.nw = null;
+        this.ne = null;
+        this.sw = null;
+        this.se = null;
+        this.level = 0;
+        this.population = alive ? 1 : 0;
+        this.hash = alive ? 1 : 0;
+    }
+
+    Node(Node nw, Node ne, Node sw, Node se, int hash) {
+        this.nw = nw;
+        this.ne = ne;
+        this.sw = sw;
+        this.se = se;
+        this.level = nw.level + 1;
+        this.population = nw.population + ne.population + sw.population + se.population;
+        this.hash = hash;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public long getPopulation() {
+        return population;
+    }
+
+    public boolean isEmpty() {
+        return population == 0;
+    }
+}
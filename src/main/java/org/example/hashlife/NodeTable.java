@@ -0,0 +1,139 @@
+package org.example.hashlife;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NodeTable {
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private final Node dead = new Node(false);
+    private final Node alive = new Node(true);
+    private final List<Node> emptyNodes = new ArrayList<>();
+    private final long maxNodes;
+
+    private Node[] buckets = new Node[INITIAL_CAPACITY];
+    private long size = 0;
+    private int epoch = 0;
+    private long collections = 0;
+
+    public NodeTable(long maxNodes) {
+        this.maxNodes = maxNodes;
+        emptyNodes.add(dead);
+    }
+
+    public Node leaf(boolean value) {
+        return value ? alive : dead;
+    }
+
+    public Node empty(int level) {
+        while (emptyNodes.size() <= level) {
+            Node e = emptyNodes.get(emptyNodes.size() - 1);
+            emptyNodes.add(join(e, e, e, e));
+        }
+        return emptyNodes.get(level);
+    }
+
+    public Node join(Node nw, Node ne, Node sw, Node se) {
+        int hash = hash(nw, ne, sw, se);
+        int bucket = hash & (buckets.length - 1);
+
+        for (Node n = buckets[bucket]; n != null; n = n.chain) {
+            if (n.hash == hash && n.nw == nw && n.ne == ne && n.sw == sw && n.se == se) {
+                return n;
+            }
+        }
+
+        Node node = new Node(nw, ne, sw, se, hash);
+        node.chain = buckets[bucket];
+        buckets[bucket] = node;
+        size++;
+
+        if (size > (long) buckets.length * 3 / 4 && buckets.length < (1 << 30)) {
+            rehash(buckets.length << 1);
+        }
+        return node;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getCollections() {
+        return collections;
+    }
+
+    public boolean isOverBudget() {
+        return size > maxNodes;
+    }
+
+    // Keeps only the nodes reachable from the given roots. Memoized results are dropped because they
+    // may point at nodes that are no longer canonical after the collection.
+    public void collect(Node... roots) {
+        epoch++;
+        Node[] fresh = new Node[buckets.length];
+        long kept = 0;
+
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        for (Node root : roots) {
+            stack.push(root);
+        }
+        for (Node e : emptyNodes) {
+            stack.push(e);
+        }
+
+        while (!stack.isEmpty()) {
+            Node n = stack.pop();
+            if (n.level == 0 || n.mark == epoch) {
+                continue;
+            }
+            n.mark = epoch;
+            n.result = null;
+            n.resultStep = -1;
+
+            int bucket = n.hash & (fresh.length - 1);
+            n.chain = fresh[bucket];
+            fresh[bucket] = n;
+            kept++;
+
+            stack.push(n.nw);
+            stack.push(n.ne);
+            stack.push(n.sw);
+            stack.push(n.se);
+        }
+
+        buckets = fresh;
+        size = kept;
+        collections++;
+    }
+
+    private void rehash(int capacity) {
+        Node[] fresh = new Node[capacity];
+        for (Node head : buckets) {
+            Node n = head;
+            while (n != null) {
+                Node following = n.chain;
+                int bucket = n.hash & (capacity - 1);
+                n.chain = fresh[bucket];
+                fresh[bucket] = n;
+                n = following;
+            }
+        }
+        buckets = fresh;
+    }
+
+    private static int hash(Node nw, Node ne, Node sw, Node se) {
+        int h = nw.hash;
+        h = h * 0x9E3779B1 + ne.hash;
+        h = h * 0x9E3779B1 + sw.hash;
+        h = h * 0x9E3779B1 + se.hash;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.metrics;
+
+import java.lang.management.ManagementFactory;
+
+// Test mode for the allocation-free engines (sequential, parallel, bitboard): once the warm-up steps are
+// over, every step must allocate zero bytes on the threads taking part, as reported by ThreadMXBean. Engines
+// read current() once per run, like Metrics.recorder(), and the first step that allocates fails the run with
+// an IllegalStateException naming the step and the byte count. The warm-up has to outlast JIT compilation:
+// while C2 is still installing code the JVM itself charges a few hundred bytes to a thread now and then.
+public final class AllocationCheck {
+    public static final int DEFAULT_WARMUP_STEPS = 10000;
+    private static final int MAX_THREADS = 1024;
+    private static volatile AllocationCheck current;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final int warmupSteps;
+    private final long[] threadIds = new long[MAX_THREADS];
+    private final long[] before = new long[MAX_THREADS];
+    private int threadCount;
+    private long step;
+    private long checkedSteps;
+
+    private AllocationCheck(com.sun.management.ThreadMXBean threads, int warmupSteps) {
+        this.threads = threads;
+        this.warmupSteps = warmupSteps;
+    }
+
+    public static AllocationCheck current() {
+        return current;
+    }
+
+    public static AllocationCheck enable(int warmupSteps) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM cannot report allocated bytes per thread");
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        AllocationCheck check = new AllocationCheck(threads, warmupSteps);
+        current = check;
+        return check;
+    }
+
+    public static AllocationCheck disable() {
+        AllocationCheck check = current;
+        current = null;
+        return check;
+    }
+
+    // Called by each thread taking part in a step before its first step; later calls do nothing.
+    public synchronized void registerCurrentThread() {
+        long id = Thread.currentThread().getId();
+        for (int i = 0; i < threadCount; i++) {
+            if (threadIds[i] == id) {
+                return;
+            }
+        }
+        if (threadCount == MAX_THREADS) {
+            throw new IllegalStateException("Too many threads for the allocation check");
+        }
+        threadIds[threadCount++] = id;
+    }
+
+    public synchronized void beginStep() {
+        registerCurrentThread();
+        for (int i = 0; i < threadCount; i++) {
+            before[i] = threads.getThreadAllocatedBytes(threadIds[i]);
+        }
+    }
+
+    // Threads registered during the step are only measured from the next step on.
+    public synchronized void endStep() {
+        long allocated = 0;
+        for (int i = 0; i < threadCount; i++) {
+            long bytes = threads.getThreadAllocatedBytes(threadIds[i]);
+            if (bytes >= 0 && before[i] > 0) {
+                allocated += bytes - before[i];
+            }
+        }
+        step++;
+        if (step <= warmupSteps) {
+            return;
+        }
+        checkedSteps++;
+        if (allocated != 0) {
+            throw new IllegalStateException("Step " + step + " allocated " + allocated + " bytes after "
+                    + warmupSteps + " warm-up steps");
+        }
+    }
+
+    public synchronized long getCheckedSteps() {
+        return checkedSteps;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One recorded step. Its duration spans the step, so it lines up with GC and safepoint events in a
+// JFR recording (java -XX:StartFlightRecording=filename=run.jfr ... --metrics).
+@Name("org.example.Generation")
+@Label("Game of Life Step")
+@Category("Game of Life")
+@Description("A step of one or more generations recorded by an engine")
+@StackTrace(false)
+class GenerationEvent extends Event {
+    @Label("Engine")
+    String engine;
+
+    @Label("Generation")
+    @Description("Generation reached at the end of the step")
+    long generation;
+
+    @Label("Generations")
+    long generations;
+
+    @Label("Cells Evaluated")
+    long cellsEvaluated;
+
+    @Label("Population")
+    long population;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
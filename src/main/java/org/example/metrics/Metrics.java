@@ -0,0 +1,26 @@
+package org.example.metrics;
+
+// Switch for step instrumentation. Engines read recorder() once per run and only report when it is not
+// null, so a disabled run costs one null check per generation.
+public final class Metrics {
+    private static volatile StepRecorder recorder;
+
+    private Metrics() {
+    }
+
+    public static StepRecorder recorder() {
+        return recorder;
+    }
+
+    public static StepRecorder enable(String engine) {
+        StepRecorder r = new StepRecorder(engine);
+        recorder = r;
+        return r;
+    }
+
+    public static StepRecorder disable() {
+        StepRecorder r = recorder;
+        recorder = null;
+        return r;
+    }
+}
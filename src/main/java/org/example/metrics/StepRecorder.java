@@ -0,0 +1,214 @@
+package org.example.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Collects what engines report about each step: wall time, cells evaluated, population and the bytes
+// allocated by the threads taking part. beginStep and endStep are called by whichever thread drives the
+// generations; they may come from different threads as long as the calls are ordered (the band engine
+// calls them from its barrier). Worker threads only call registerCurrentThread, and addBusyTime when the
+// engine measures how long each worker spent on its share of a step.
+public class StepRecorder {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final String engine;
+    private final LatencyHistogram stepNanos = new LatencyHistogram();
+    private final LatencyHistogram nanosPerGeneration = new LatencyHistogram();
+    private final LatencyHistogram allocatedPerStep = new LatencyHistogram();
+    private final Map<Long, ThreadAllocation> threads = new ConcurrentHashMap<>();
+
+    private long generation;
+    private long cellsEvaluated;
+    private long firstPopulation = -1;
+    private long lastPopulation;
+    private long maxPopulation;
+
+    private long stepStart;
+    private GenerationEvent event;
+
+    private static class ThreadAllocation {
+        final String name;
+        long last;
+        long total;
+        long busyNanos;
+
+        ThreadAllocation(String name, long last) {
+            this.name = name;
+            this.last = last;
+        }
+    }
+
+    public StepRecorder(String engine) {
+        this.engine = engine;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    public void registerCurrentThread() {
+        Thread thread = Thread.currentThread();
+        long id = thread.getId();
+        if (!threads.containsKey(id)) {
+            threads.putIfAbsent(id, new ThreadAllocation(thread.getName(),
+                    THREADS != null ? THREADS.getThreadAllocatedBytes(id) : 0));
+        }
+    }
+
+    // Adds time the calling thread spent working on the current step; only that thread updates its entry.
+    public void addBusyTime(long nanos) {
+        ThreadAllocation allocation = threads.get(Thread.currentThread().getId());
+        if (allocation == null) {
+            registerCurrentThread();
+            allocation = threads.get(Thread.currentThread().getId());
+        }
+        allocation.busyNanos += nanos;
+    }
+
+    public void beginStep() {
+        registerCurrentThread();
+        sampleAllocations();
+
+        GenerationEvent e = new GenerationEvent();
+        if (e.isEnabled()) {
+            e.begin();
+            event = e;
+        } else {
+            event = null;
+        }
+        stepStart = System.nanoTime();
+    }
+
+    // cellsEvaluated counts the cells an engine actually computed; engines that skip empty regions report
+    // fewer than the grid size.
+    public void endStep(long generations, long cellsEvaluated, long population) {
+        long nanos = System.nanoTime() - stepStart;
+        long allocated = sampleAllocations();
+
+        generation += generations;
+        this.cellsEvaluated += cellsEvaluated;
+        if (firstPopulation < 0) {
+            firstPopulation = population;
+        }
+        lastPopulation = population;
+        maxPopulation = Math.max(maxPopulation, population);
+
+        stepNanos.record(nanos);
+        nanosPerGeneration.record(nanos / Math.max(1L, generations));
+        allocatedPerStep.record(allocated);
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.engine = engine;
+                event.generation = generation;
+                event.generations = generations;
+                event.cellsEvaluated = cellsEvaluated;
+                event.population = population;
+                event.allocatedBytes = allocated;
+                event.commit();
+            }
+            event = null;
+        }
+    }
+
+    // Returns the bytes allocated by the registered threads since the previous sample.
+    private long sampleAllocations() {
+        if (THREADS == null) {
+            return 0;
+        }
+        long sum = 0;
+        for (Map.Entry<Long, ThreadAllocation> entry : threads.entrySet()) {
+            long bytes = THREADS.getThreadAllocatedBytes(entry.getKey());
+            ThreadAllocation allocation = entry.getValue();
+            if (bytes >= 0) {
+                long delta = bytes - allocation.last;
+                allocation.last = bytes;
+                allocation.total += delta;
+                sum += delta;
+            }
+        }
+        return sum;
+    }
+
+    public LatencyHistogram getStepNanos() {
+        return stepNanos;
+    }
+
+    public LatencyHistogram getNanosPerGeneration() {
+        return nanosPerGeneration;
+    }
+
+    public LatencyHistogram getAllocatedPerStep() {
+        return allocatedPerStep;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getCellsEvaluated() {
+        return cellsEvaluated;
+    }
+
+    public void report() {
+        System.out.println("\nStep metrics (" + engine + "):");
+        System.out.println("------------------");
+        System.out.println("Steps recorded: " + stepNanos.getCount() + " (" + generation + " generations)");
+        if (stepNanos.getCount() == 0) {
+            System.out.println("------------------");
+            return;
+        }
+
+        System.out.println("Step time: " + formatNanos(stepNanos));
+        if (generation != stepNanos.getCount()) {
+            System.out.println("Time per generation: " + formatNanos(nanosPerGeneration));
+        }
+
+        double seconds = stepNanos.getTotal() / 1e9;
+        System.out.println("Cells evaluated: " + cellsEvaluated
+                + (seconds > 0 ? String.format(" (%.1f M/s)", cellsEvaluated / seconds / 1e6) : ""));
+        System.out.println("Population: " + firstPopulation + " -> " + lastPopulation + " (max " + maxPopulation + ")");
+
+        if (THREADS == null) {
+            System.out.println("Allocation tracking is not supported by this JVM");
+        } else {
+            System.out.println("Allocated per step: p50 " + allocatedPerStep.getValueAtPercentile(50)
+                    + " B, p99 " + allocatedPerStep.getValueAtPercentile(99)
+                    + " B, max " + allocatedPerStep.getMax() + " B");
+            for (ThreadAllocation allocation : threads.values()) {
+                System.out.println("  " + allocation.name + ": " + allocation.total + " B");
+            }
+        }
+
+        // Idle is the step time a worker did not spend on its share: waiting at the end of the step for
+        // slower workers, or for the driving thread to merge their results.
+        boolean busyReported = false;
+        for (ThreadAllocation allocation : threads.values()) {
+            if (allocation.busyNanos > 0) {
+                if (!busyReported) {
+                    System.out.println("Worker time:");
+                    busyReported = true;
+                }
+                long idle = Math.max(0, stepNanos.getTotal() - allocation.busyNanos);
+                System.out.println(String.format("  %s: busy %.3f ms, idle %.3f ms (%.1f%% busy)", allocation.name,
+                        allocation.busyNanos / 1e6, idle / 1e6, 100.0 * allocation.busyNanos / stepNanos.getTotal()));
+            }
+        }
+        System.out.println("------------------");
+    }
+
+    private static String formatNanos(LatencyHistogram histogram) {
+        return String.format("p50 %.3f ms, p99 %.3f ms, max %.3f ms, mean %.3f ms",
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getMax() / 1e6, histogram.getMean() / 1e6);
+    }
+}
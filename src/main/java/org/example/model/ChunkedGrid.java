@@ -0,0 +1,196 @@
+package org.example.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Unbounded universe made of 64x64 chunks stored in a hash map keyed by chunk coordinates.
+// Only chunks that contain live cells are kept, so memory follows the live area.
+public class ChunkedGrid {
+    public static final int CHUNK_SIZE = 64;
+    private static final int CHUNK_SHIFT = 6;
+
+    private Map<Long, long[]> current = new HashMap<>();
+    private Map<Long, long[]> next = new HashMap<>();
+    private final ArrayDeque<long[]> freeChunks = new ArrayDeque<>();
+
+    public static long key(int chunkX, int chunkY) {
+        return ((long) chunkY << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+
+    public static int chunkX(long key) {
+        return (int) key;
+    }
+
+    public static int chunkY(long key) {
+        return (int) (key >> 32);
+    }
+
+    public boolean getCell(long row, long col) {
+        long[] chunk = current.get(key((int) (col >> CHUNK_SHIFT), (int) (row >> CHUNK_SHIFT)));
+        if (chunk == null) {
+            return false;
+        }
+        return (chunk[(int) (row & (CHUNK_SIZE - 1))] & (1L << col)) != 0;
+    }
+
+    public void setCell(long row, long col, boolean value) {
+        long key = key((int) (col >> CHUNK_SHIFT), (int) (row >> CHUNK_SHIFT));
+        long[] chunk = current.get(key);
+        int r = (int) (row & (CHUNK_SIZE - 1));
+
+        if (value) {
+            if (chunk == null) {
+                chunk = allocateChunk();
+                current.put(key, chunk);
+            }
+            chunk[r] |= 1L << col;
+        } else if (chunk != null) {
+            chunk[r] &= ~(1L << col);
+            if (isEmpty(chunk)) {
+                releaseChunk(current.remove(key));
+            }
+        }
+    }
+
+    public long[] getChunk(long key) {
+        return current.get(key);
+    }
+
+    public long[] getChunk(int chunkX, int chunkY) {
+        return current.get(key(chunkX, chunkY));
+    }
+
+    public int getChunkCount() {
+        return current.size();
+    }
+
+    // Chunks that can hold live cells in the next generation: every live chunk plus the neighbours
+    // that a live cell on its border could give birth into.
+    public List<Long> collectCandidates() {
+        Set<Long> candidates = new LinkedHashSet<>();
+
+        for (Map.Entry<Long, long[]> entry : current.entrySet()) {
+            long[] rows = entry.getValue();
+            int cx = chunkX(entry.getKey());
+            int cy = chunkY(entry.getKey());
+
+            long any = 0;
+            for (long row : rows) {
+                any |= row;
+            }
+            long top = rows[0];
+            long bottom = rows[CHUNK_SIZE - 1];
+            long west = 1L;
+            long east = 1L << 63;
+
+            candidates.add(entry.getKey());
+            if (top != 0) {
+                candidates.add(key(cx, cy - 1));
+            }
+            if (bottom != 0) {
+                candidates.add(key(cx, cy + 1));
+            }
+            if ((any & west) != 0) {
+                candidates.add(key(cx - 1, cy));
+                if ((top & west) != 0) {
+                    candidates.add(key(cx - 1, cy - 1));
+                }
+                if ((bottom & west) != 0) {
+                    candidates.add(key(cx - 1, cy + 1));
+                }
+            }
+            if ((any & east) != 0) {
+                candidates.add(key(cx + 1, cy));
+                if ((top & east) != 0) {
+                    candidates.add(key(cx + 1, cy - 1));
+                }
+                if ((bottom & east) != 0) {
+                    candidates.add(key(cx + 1, cy + 1));
+                }
+            }
+        }
+
+        return new ArrayList<>(candidates);
+    }
+
+    public long[] allocateChunk() {
+        long[] chunk = freeChunks.poll();
+        return chunk != null ? chunk : new long[CHUNK_SIZE];
+    }
+
+    public void releaseChunk(long[] chunk) {
+        if (chunk != null) {
+            Arrays.fill(chunk, 0L);
+            freeChunks.push(chunk);
+        }
+    }
+
+    public void putNext(long key, long[] chunk) {
+        next.put(key, chunk);
+    }
+
+    // Makes the chunks passed to putNext the current generation. Chunks of the old generation are
+    // recycled for the next step.
+    public void swapGrids() {
+        for (long[] chunk : current.values()) {
+            releaseChunk(chunk);
+        }
+        current.clear();
+
+        Map<Long, long[]> temp = current;
+        current = next;
+        next = temp;
+    }
+
+    public long getLiveCellCount() {
+        long count = 0;
+        for (long[] chunk : current.values()) {
+            for (long row : chunk) {
+                count += Long.bitCount(row);
+            }
+        }
+        return count;
+    }
+
+    // Returns {minRow, minCol, maxRow, maxCol} of the live cells, or null when nothing is alive.
+    public long[] getBoundingBox() {
+        long minRow = Long.MAX_VALUE, minCol = Long.MAX_VALUE;
+        long maxRow = Long.MIN_VALUE, maxCol = Long.MIN_VALUE;
+
+        for (Map.Entry<Long, long[]> entry : current.entrySet()) {
+            long baseRow = (long) chunkY(entry.getKey()) << CHUNK_SHIFT;
+            long baseCol = (long) chunkX(entry.getKey()) << CHUNK_SHIFT;
+            long[] rows = entry.getValue();
+
+            for (int r = 0; r < CHUNK_SIZE; r++) {
+                if (rows[r] == 0) {
+                    continue;
+                }
+                minRow = Math.min(minRow, baseRow + r);
+                maxRow = Math.max(maxRow, baseRow + r);
+                minCol = Math.min(minCol, baseCol + Long.numberOfTrailingZeros(rows[r]));
+                maxCol = Math.max(maxCol, baseCol + 63 - Long.numberOfLeadingZeros(rows[r]));
+            }
+        }
+
+        if (minRow == Long.MAX_VALUE) {
+            return null;
+        }
+        return new long[]{minRow, minCol, maxRow, maxCol};
+    }
+
+    public static boolean isEmpty(long[] chunk) {
+        for (long row : chunk) {
+            if (row != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.model;
 
-import org.example.algorithms.GameOfLifeGpu;
-import org.example.algorithms.GameOfLifeParallel;
-
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
 import java.util.BitSet;
 
 public class Grid {
@@ -12,9 +14,6 @@ public class Grid {
     private BitSet current;
     private BitSet next;
 
-    private final GameOfLifeParallel parallelAlgorithm;
-    private final GameOfLifeGpu gpuAlgorithm;
-
     private static long peakMemoryUsage = 0;
     private static final int MAX_SAFE_SIZE = Integer.MAX_VALUE - 10;
 
@@ -27,9 +26,6 @@ public class Grid {
         this.current = new BitSet(width * height);
         this.next = new BitSet(width * height);
 
-        this.parallelAlgorithm = new GameOfLifeParallel();
-        this.gpuAlgorithm = new GameOfLifeGpu();
-
         updateMemoryUsage();
     }
 
@@ -117,16 +113,97 @@ public class Grid {
         next = temp;
     }
 
-    public void cleanup() {
-        gpuAlgorithm.cleanup();
-        parallelAlgorithm.cleanup();
-        updateMemoryUsage();
+    // Bulk transfer of the current generation in the BitSet's own layout: bit i of word k is the cell at
+    // row-major index 64k + i, and the bits after the last cell are zero. Int-sized transfers (the OpenCL
+    // kernels' layout) split each word into its low and high half, and byte buffers hold the words in
+    // little-endian order. BitSet does not hand out its backing array, so each direction costs one array
+    // copy instead of a visit per live cell; a PackedGrid whose width is a multiple of 64 has the same
+    // layout and copies its words as they are.
+    public int getWordCount() {
+        return (int) (((long) width * height + 63) >>> 6);
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        cleanup();
-        super.finalize();
+    public int getIntCount() {
+        return (int) (((long) width * height + 31) >>> 5);
+    }
+
+    public long[] toWords() {
+        long[] words = current.toLongArray();
+        return words.length == getWordCount() ? words : Arrays.copyOf(words, getWordCount());
+    }
+
+    public void exportWords(long[] target, int offset) {
+        long[] words = current.toLongArray();
+        System.arraycopy(words, 0, target, offset, words.length);
+        Arrays.fill(target, offset + words.length, offset + getWordCount(), 0L);
+    }
+
+    // Writes getIntCount() ints at the buffer's position and advances it.
+    public void exportWords(IntBuffer target) {
+        long[] words = current.toLongArray();
+        int ints = getIntCount();
+        for (int i = 0; i < ints; i += 2) {
+            long word = i >>> 1 < words.length ? words[i >>> 1] : 0L;
+            target.put((int) word);
+            if (i + 1 < ints) {
+                target.put((int) (word >>> 32));
+            }
+        }
+    }
+
+    // Writes getWordCount() little-endian words at the buffer's position and advances it.
+    public void exportWords(ByteBuffer target) {
+        long[] words = current.toLongArray();
+        int count = getWordCount();
+        int start = target.position();
+        LongBuffer longs = target.duplicate().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        longs.put(words);
+        for (int i = words.length; i < count; i++) {
+            longs.put(0L);
+        }
+        target.position(start + count * Long.BYTES);
+    }
+
+    // Replaces the current generation. Missing trailing words are zero, and bits after the last cell are
+    // ignored.
+    public void importWords(long[] words) {
+        importWords(LongBuffer.wrap(words));
+    }
+
+    // Reads up to getIntCount() ints from the buffer's position and advances it.
+    public void importWords(IntBuffer source) {
+        int ints = Math.min(getIntCount(), source.remaining());
+        long[] words = new long[(ints + 1) >>> 1];
+        for (int i = 0; i < ints; i++) {
+            words[i >>> 1] |= (source.get() & 0xFFFFFFFFL) << ((i & 1) << 5);
+        }
+        importWords(LongBuffer.wrap(words));
+    }
+
+    // Reads getWordCount() little-endian words from the buffer's position and advances it.
+    public void importWords(ByteBuffer source) {
+        int count = getWordCount();
+        LongBuffer longs = source.duplicate().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        longs.limit(count);
+        importWords(longs);
+        source.position(source.position() + count * Long.BYTES);
+    }
+
+    private void importWords(LongBuffer words) {
+        if (words.remaining() > getWordCount()) {
+            throw new IllegalArgumentException("Expected at most " + getWordCount() + " words for a " + width + "x"
+                    + height + " grid, got " + words.remaining());
+        }
+        BitSet cells = BitSet.valueOf(words);
+        long size = (long) width * height;
+        if (cells.length() > size) {
+            cells.clear((int) size, cells.length());
+        }
+        current = cells;
+    }
+
+    public void cleanup() {
+        updateMemoryUsage();
     }
 
     @Override
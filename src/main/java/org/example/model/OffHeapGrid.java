@@ -0,0 +1,182 @@
+package org.example.model;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+// Two generations of row-packed words kept outside the Java heap, either in direct buffers or in a
+// memory-mapped file. Cells are addressed with 64-bit offsets, so boards are not limited to 2^31 cells.
+// Rows never straddle two buffer segments, which lets engines stream whole rows in and out.
+public class OffHeapGrid implements Closeable {
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long lastWordMask;
+    private final int rowsPerSegment;
+
+    private LongBuffer[] current;
+    private LongBuffer[] next;
+    private final RandomAccessFile file;
+
+    private OffHeapGrid(int width, int height, File backingFile, long maxSegmentBytes) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive: " + width + "x" + height);
+        }
+
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+
+        int tailBits = width & 63;
+        this.lastWordMask = tailBits == 0 ? -1L : (1L << tailBits) - 1;
+
+        long rowBytes = (long) wordsPerRow * Long.BYTES;
+        this.rowsPerSegment = (int) Math.max(1, Math.min(height, maxSegmentBytes / rowBytes));
+        int segments = (height + rowsPerSegment - 1) / rowsPerSegment;
+        long generationBytes = rowBytes * height;
+
+        this.current = new LongBuffer[segments];
+        this.next = new LongBuffer[segments];
+
+        if (backingFile == null) {
+            this.file = null;
+            for (int s = 0; s < segments; s++) {
+                int bytes = (int) (segmentRows(s) * rowBytes);
+                current[s] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()).asLongBuffer();
+                next[s] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+        } else {
+            this.file = new RandomAccessFile(backingFile, "rw");
+            file.setLength(0);
+            file.setLength(generationBytes * 2);
+
+            FileChannel channel = file.getChannel();
+            for (int s = 0; s < segments; s++) {
+                long offset = (long) s * rowsPerSegment * rowBytes;
+                long bytes = segmentRows(s) * rowBytes;
+                current[s] = channel.map(FileChannel.MapMode.READ_WRITE, offset, bytes)
+                        .order(ByteOrder.nativeOrder()).asLongBuffer();
+                next[s] = channel.map(FileChannel.MapMode.READ_WRITE, generationBytes + offset, bytes)
+                        .order(ByteOrder.nativeOrder()).asLongBuffer();
+            }
+        }
+    }
+
+    public static OffHeapGrid allocate(int width, int height) {
+        return allocate(width, height, MAX_SEGMENT_BYTES);
+    }
+
+    // Segments of at most maxSegmentBytes (but always at least one row), so tests can split small boards.
+    static OffHeapGrid allocate(int width, int height, long maxSegmentBytes) {
+        try {
+            return new OffHeapGrid(width, height, null, maxSegmentBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected I/O error allocating direct buffers", e);
+        }
+    }
+
+    public static OffHeapGrid mapped(int width, int height, File backingFile) {
+        return mapped(width, height, backingFile, MAX_SEGMENT_BYTES);
+    }
+
+    static OffHeapGrid mapped(int width, int height, File backingFile, long maxSegmentBytes) {
+        try {
+            return new OffHeapGrid(width, height, backingFile, maxSegmentBytes);
+        } catch (IOException e) {
+            throw new RuntimeException("Error mapping grid file " + backingFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    private long segmentRows(int segment) {
+        return Math.min(rowsPerSegment, height - (long) segment * rowsPerSegment);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public long getLastWordMask() {
+        return lastWordMask;
+    }
+
+    public long getCellCount() {
+        return (long) width * height;
+    }
+
+    public boolean isFileBacked() {
+        return file != null;
+    }
+
+    public void readRow(int row, long[] target) {
+        LongBuffer segment = current[row / rowsPerSegment];
+        int base = (row % rowsPerSegment) * wordsPerRow;
+        for (int k = 0; k < wordsPerRow; k++) {
+            target[k] = segment.get(base + k);
+        }
+    }
+
+    public void writeNextRow(int row, long[] source) {
+        LongBuffer segment = next[row / rowsPerSegment];
+        int base = (row % rowsPerSegment) * wordsPerRow;
+        for (int k = 0; k < wordsPerRow; k++) {
+            segment.put(base + k, source[k]);
+        }
+    }
+
+    public boolean getCell(int row, int col) {
+        if (row < 0 || row >= height || col < 0 || col >= width) {
+            return false;
+        }
+        LongBuffer segment = current[row / rowsPerSegment];
+        long word = segment.get((row % rowsPerSegment) * wordsPerRow + (col >>> 6));
+        return (word & (1L << col)) != 0;
+    }
+
+    public void setCell(int row, int col, boolean value) {
+        if (row < 0 || row >= height || col < 0 || col >= width) {
+            return;
+        }
+        LongBuffer segment = current[row / rowsPerSegment];
+        int index = (row % rowsPerSegment) * wordsPerRow + (col >>> 6);
+        long word = segment.get(index);
+        segment.put(index, value ? word | (1L << col) : word & ~(1L << col));
+    }
+
+    public void swapGrids() {
+        LongBuffer[] temp = current;
+        current = next;
+        next = temp;
+    }
+
+    public long getLiveCellCount() {
+        long count = 0;
+        for (LongBuffer segment : current) {
+            for (int i = 0; i < segment.limit(); i++) {
+                count += Long.bitCount(segment.get(i));
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            file.close();
+        }
+    }
+}
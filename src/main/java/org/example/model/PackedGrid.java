@@ -0,0 +1,154 @@
+package org.example.model;
+
+public class PackedGrid {
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long lastWordMask;
+
+    private long[] current;
+    private long[] next;
+
+    public PackedGrid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive: " + width + "x" + height);
+        }
+
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+
+        long words = (long) wordsPerRow * (long) height;
+        if (words > Integer.MAX_VALUE - 10) {
+            throw new IllegalArgumentException(
+                    "Grid size (" + width + "x" + height + ") is too large for a packed grid");
+        }
+
+        int tailBits = width & 63;
+        this.lastWordMask = tailBits == 0 ? -1L : (1L << tailBits) - 1;
+
+        this.current = new long[(int) words];
+        this.next = new long[(int) words];
+    }
+
+    public static PackedGrid fromGrid(Grid grid) {
+        PackedGrid packed = new PackedGrid(grid.getWidth(), grid.getHeight());
+        packed.load(grid);
+        return packed;
+    }
+
+    // Grid keeps its cells as one run of bits, rows back to back, while here every row starts on a word.
+    // With a width that is a multiple of 64 the two layouts are the same and the words are copied as they
+    // are; otherwise each row is shifted into place a word at a time.
+    public void load(Grid grid) {
+        if (grid.getWidth() != width || grid.getHeight() != height) {
+            throw new IllegalArgumentException("Grid dimensions do not match packed grid");
+        }
+
+        if ((width & 63) == 0) {
+            grid.exportWords(current, 0);
+            return;
+        }
+        long[] flat = grid.toWords();
+        for (int row = 0; row < height; row++) {
+            int base = row * wordsPerRow;
+            long bit = (long) row * width;
+            for (int k = 0; k < wordsPerRow; k++, bit += 64) {
+                int index = (int) (bit >>> 6);
+                int shift = (int) (bit & 63);
+                long word = flat[index] >>> shift;
+                if (shift != 0 && index + 1 < flat.length) {
+                    word |= flat[index + 1] << (64 - shift);
+                }
+                current[base + k] = k == wordsPerRow - 1 ? word & lastWordMask : word;
+            }
+        }
+    }
+
+    public void copyTo(Grid grid) {
+        if (grid.getWidth() != width || grid.getHeight() != height) {
+            throw new IllegalArgumentException("Grid dimensions do not match packed grid");
+        }
+
+        if ((width & 63) == 0) {
+            grid.importWords(current);
+            return;
+        }
+        long[] flat = new long[grid.getWordCount()];
+        for (int row = 0; row < height; row++) {
+            int base = row * wordsPerRow;
+            long bit = (long) row * width;
+            for (int k = 0; k < wordsPerRow; k++, bit += 64) {
+                long word = k == wordsPerRow - 1 ? current[base + k] & lastWordMask : current[base + k];
+                if (word == 0) {
+                    continue;
+                }
+                int index = (int) (bit >>> 6);
+                int shift = (int) (bit & 63);
+                flat[index] |= word << shift;
+                if (shift != 0 && index + 1 < flat.length) {
+                    flat[index + 1] |= word >>> (64 - shift);
+                }
+            }
+        }
+        grid.importWords(flat);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public long getLastWordMask() {
+        return lastWordMask;
+    }
+
+    public long[] getCurrent() {
+        return current;
+    }
+
+    public long[] getNext() {
+        return next;
+    }
+
+    public void swapGrids() {
+        long[] temp = current;
+        current = next;
+        next = temp;
+    }
+
+    public boolean getCell(int row, int col) {
+        if (row < 0 || row >= height || col < 0 || col >= width) {
+            return false;
+        }
+        return (current[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    public void setCell(int row, int col, boolean value) {
+        if (row < 0 || row >= height || col < 0 || col >= width) {
+            return;
+        }
+
+        int index = row * wordsPerRow + (col >>> 6);
+        if (value) {
+            current[index] |= 1L << col;
+        } else {
+            current[index] &= ~(1L << col);
+        }
+    }
+
+    public long getLiveCellCount() {
+        long count = 0;
+        for (long word : current) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
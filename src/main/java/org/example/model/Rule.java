@@ -0,0 +1,103 @@
+package org.example.model;
+
+// Outer-totalistic Life-like rule: a cell is born with a neighbour count in the birth set and survives
+// with one in the survival set. Both sets are kept as 9-bit masks indexed by the count.
+public final class Rule {
+    public static final Rule CONWAY = new Rule(1 << 3, (1 << 2) | (1 << 3));
+
+    private final int birth;
+    private final int survival;
+
+    private Rule(int birth, int survival) {
+        this.birth = birth;
+        this.survival = survival;
+    }
+
+    // Accepts "B3/S23" (case-insensitive, either order) and the older "S/B" form "23/3". A Golly topology
+    // suffix such as ":T100,100" is ignored; grids are always bounded.
+    public static Rule parse(String text) {
+        String rule = text.trim().toUpperCase();
+        int colon = rule.indexOf(':');
+        if (colon >= 0) {
+            rule = rule.substring(0, colon);
+        }
+        String[] parts = rule.split("/", -1);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid rule: " + text);
+        }
+
+        String birthDigits;
+        String survivalDigits;
+        if (parts[0].startsWith("B") && parts[1].startsWith("S")) {
+            birthDigits = parts[0].substring(1);
+            survivalDigits = parts[1].substring(1);
+        } else if (parts[0].startsWith("S") && parts[1].startsWith("B")) {
+            survivalDigits = parts[0].substring(1);
+            birthDigits = parts[1].substring(1);
+        } else {
+            survivalDigits = parts[0];
+            birthDigits = parts[1];
+        }
+        return new Rule(countMask(birthDigits, text), countMask(survivalDigits, text));
+    }
+
+    private static int countMask(String digits, String text) {
+        int mask = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '8') {
+                throw new IllegalArgumentException("Invalid rule: " + text);
+            }
+            mask |= 1 << (c - '0');
+        }
+        return mask;
+    }
+
+    public boolean isBorn(int neighbours) {
+        return (birth & (1 << neighbours)) != 0;
+    }
+
+    public boolean survives(int neighbours) {
+        return (survival & (1 << neighbours)) != 0;
+    }
+
+    public boolean nextState(boolean alive, int neighbours) {
+        return alive ? survives(neighbours) : isBorn(neighbours);
+    }
+
+    public boolean isConway() {
+        return equals(CONWAY);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Rule)) {
+            return false;
+        }
+        Rule other = (Rule) o;
+        return birth == other.birth && survival == other.survival;
+    }
+
+    @Override
+    public int hashCode() {
+        return birth * 31 + survival;
+    }
+
+    // Canonical B/S notation, as written to RLE headers.
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("B");
+        appendCounts(text, birth);
+        text.append("/S");
+        appendCounts(text, survival);
+        return text.toString();
+    }
+
+    private static void appendCounts(StringBuilder text, int mask) {
+        for (int count = 0; count <= 8; count++) {
+            if ((mask & (1 << count)) != 0) {
+                text.append(count);
+            }
+        }
+    }
+}
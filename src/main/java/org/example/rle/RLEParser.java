@@ -1,122 +1,145 @@
 package org.example.rle;
 
+import org.example.model.ChunkedGrid;
 import org.example.model.Grid;
+import org.example.model.OffHeapGrid;
+import org.example.model.Rule;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.BitSet;
 
 public class RLEParser {
 
-    private static final int MAX_DIMENSION = 10000;
+    public static final int MAX_DIMENSION = 10000;
 
     public static Grid parse(File rleFile) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(rleFile))) {
-            String line;
-            int width = 0, height = 0;
-
-            Pattern dimensionPattern = Pattern.compile("x\\s*=\\s*(\\d+)\\s*,\\s*y\\s*=\\s*(\\d+)");
+        try (RLEReader reader = RLEReader.open(rleFile)) {
+            return parse(reader);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading RLE file: " + e.getMessage(), e);
+        }
+    }
 
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("#")) {
-                    continue;
-                }
+    // Like parse(File), for patterns that do not come from a file (for example a request body).
+    public static Grid parse(RLEReader reader) throws IOException {
+        RLEReader.Header header = reader.readHeader();
+        int width = header.getWidth();
+        int height = header.getHeight();
+
+        if (width > MAX_DIMENSION || height > MAX_DIMENSION) {
+            System.out.println("WARNING: Pattern dimensions exceed recommended maximum (" +
+                    width + "x" + height + "). Limiting to " + MAX_DIMENSION + "x" + MAX_DIMENSION);
+            width = Math.min(width, MAX_DIMENSION);
+            height = Math.min(height, MAX_DIMENSION);
+        }
 
-                Matcher matcher = dimensionPattern.matcher(line);
-                if (matcher.find()) {
-                    width = Integer.parseInt(matcher.group(1));
-                    height = Integer.parseInt(matcher.group(2));
-                    break;
-                }
-            }
+        System.out.println("Loading pattern with dimensions: " + width + "x" + height);
+        logRule(header);
 
-            if (width == 0 || height == 0) {
-                throw new IllegalArgumentException("Could not find valid dimensions in RLE file");
-            }
+        int paddedWidth = Math.min(Math.max(width * 2, 100), MAX_DIMENSION);
+        int paddedHeight = Math.min(Math.max(height * 2, 100), MAX_DIMENSION);
 
-            if (width > MAX_DIMENSION || height > MAX_DIMENSION) {
-                System.out.println("WARNING: Pattern dimensions exceed recommended maximum (" +
-                        width + "x" + height + "). Limiting to " + MAX_DIMENSION + "x" + MAX_DIMENSION);
-                width = Math.min(width, MAX_DIMENSION);
-                height = Math.min(height, MAX_DIMENSION);
-            }
+        Grid grid = new Grid(paddedWidth, paddedHeight);
+        BitSet cells = grid.getCurrent();
 
-            System.out.println("Loading pattern with dimensions: " + width + "x" + height);
+        int offsetX = (paddedWidth - width) / 2;
+        int offsetY = (paddedHeight - height) / 2;
+        boolean[] truncated = new boolean[1];
 
-            StringBuilder rleData = new StringBuilder();
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("rule") || line.contains("=")) {
-                    continue;
+        reader.decode((row, words, wordCount) -> {
+            if (offsetY + row >= paddedHeight) {
+                if (!truncated[0]) {
+                    System.out.println("WARNING: Pattern exceeds grid height. Truncating.");
+                    truncated[0] = true;
+                }
+                return;
+            }
+            int base = grid.getIndex(offsetY + row, 0);
+            RLEReader.forEachRun(words, wordCount, (col, length) -> {
+                int end = (int) Math.min((long) offsetX + col + length, paddedWidth);
+                if (offsetX + col < end) {
+                    cells.set(base + offsetX + col, base + end);
                 }
+            });
+        });
 
-                rleData.append(line.trim());
+        System.out.println("Loaded pattern with " + grid.getLiveCellCount() + " live cells");
 
-                if (line.endsWith("!")) {
-                    break;
+        return grid;
+    }
+
+    // Loads the pattern into an unbounded universe with its top-left corner at (0, 0). Unlike parse, the
+    // pattern is neither clamped to MAX_DIMENSION nor padded.
+    public static ChunkedGrid parseUnbounded(File rleFile) {
+        try (RLEReader reader = RLEReader.open(rleFile)) {
+            RLEReader.Header header = reader.readHeader();
+            System.out.println("Loading pattern with dimensions: " + header.getWidth() + "x" + header.getHeight());
+            logRule(header);
+
+            ChunkedGrid grid = new ChunkedGrid();
+            reader.decode((row, words, wordCount) -> RLEReader.forEachRun(words, wordCount, (col, length) -> {
+                for (int j = 0; j < length; j++) {
+                    grid.setCell(row, col + j, true);
                 }
-            }
+            }));
 
-            int paddedWidth = Math.min(Math.max(width * 2, 100), MAX_DIMENSION);
-            int paddedHeight = Math.min(Math.max(height * 2, 100), MAX_DIMENSION);
+            System.out.println("Loaded pattern with " + grid.getLiveCellCount() + " live cells in "
+                    + grid.getChunkCount() + " chunks");
 
-            Grid grid = new Grid(paddedWidth, paddedHeight);
+            return grid;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading RLE file: " + e.getMessage(), e);
+        }
+    }
 
+    // Loads the pattern into off-heap storage, padded like parse but without the MAX_DIMENSION clamp.
+    // When mapFile is given the grid is backed by that file instead of direct buffers.
+    public static OffHeapGrid parseOffHeap(File rleFile, File mapFile) {
+        try (RLEReader reader = RLEReader.open(rleFile)) {
+            RLEReader.Header header = reader.readHeader();
+            int width = header.getWidth();
+            int height = header.getHeight();
+            System.out.println("Loading pattern with dimensions: " + width + "x" + height);
+            logRule(header);
+
+            int paddedWidth = (int) Math.min(Math.max(width * 2L, 100), Integer.MAX_VALUE - 64);
+            int paddedHeight = (int) Math.min(Math.max(height * 2L, 100), Integer.MAX_VALUE);
             int offsetX = (paddedWidth - width) / 2;
             int offsetY = (paddedHeight - height) / 2;
 
-            String pattern = rleData.toString();
-            int row = 0;
-            int col = 0;
-            int count = 0;
-            int i = 0;
-
-            while (i < pattern.length()) {
-                char c = pattern.charAt(i);
-
-                if (Character.isDigit(c)) {
-                    count = count * 10 + (c - '0');
-                } else if (c == 'b') {
-                    col += (count == 0) ? 1 : count;
-                    count = 0;
-                } else if (c == 'o') {
-                    int cellCount = (count == 0) ? 1 : count;
-                    for (int j = 0; j < cellCount && (offsetY + row < paddedHeight) && (offsetX + col + j < paddedWidth); j++) {
-                        if (offsetY + row >= 0 && offsetX + col + j >= 0) {
-                            try {
-                                grid.setCell(offsetY + row, offsetX + col + j, true);
-                            } catch (Exception e) {
-                                System.err.println("Error setting cell at " + (offsetY + row) + "," + (offsetX + col + j) +
-                                        ": " + e.getMessage());
-                            }
-                        }
-                    }
-                    col += cellCount;
-                    count = 0;
-                } else if (c == '$') {
-                    int rowCount = (count == 0) ? 1 : count;
-                    row += rowCount;
-                    col = 0;
-                    count = 0;
-
-                    if (offsetY + row >= paddedHeight) {
-                        System.out.println("WARNING: Pattern exceeds grid height. Truncating.");
-                        break;
-                    }
-                } else if (c == '!') {
-                    break;
-                }
+            OffHeapGrid grid = mapFile == null
+                    ? OffHeapGrid.allocate(paddedWidth, paddedHeight)
+                    : OffHeapGrid.mapped(paddedWidth, paddedHeight, mapFile);
 
-                i++;
-            }
+            reader.decode((row, words, wordCount) -> RLEReader.forEachRun(words, wordCount, (col, length) -> {
+                for (int j = 0; j < length; j++) {
+                    grid.setCell(offsetY + row, offsetX + col + j, true);
+                }
+            }));
 
-            System.out.println("Loaded pattern with " + grid.getLiveCellCount() + " live cells");
+            System.out.println("Loaded pattern with " + grid.getLiveCellCount() + " live cells into "
+                    + (grid.isFileBacked() ? "memory-mapped file " + mapFile : "direct buffers"));
 
             return grid;
         } catch (IOException e) {
             throw new RuntimeException("Error reading RLE file: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    // The rule from the pattern header, or null if the file does not specify one.
+    public static Rule readRule(File rleFile) {
+        try (RLEReader reader = RLEReader.open(rleFile)) {
+            String rule = reader.readHeader().getRule();
+            return rule == null ? null : Rule.parse(rule);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading RLE file: " + e.getMessage(), e);
+        }
+    }
+
+    private static void logRule(RLEReader.Header header) {
+        if (header.getRule() != null) {
+            System.out.println("Pattern rule: " + header.getRule());
+        }
+    }
+}
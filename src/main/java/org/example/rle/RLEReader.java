@@ -0,0 +1,294 @@
+package org.example.rle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Streaming RLE decoder. It works directly on bytes from a memory-mapped file or any channel and
+// decodes each pattern row into 64-bit words, so apart from the read buffer only one row is in memory.
+public class RLEReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+
+    public interface RowSink {
+        // Bit i of words[k] is column 64k + i of the pattern. Rows without live cells are not reported.
+        void acceptRow(int row, long[] words, int wordCount);
+    }
+
+    public interface RunVisitor {
+        void visit(int col, int length);
+    }
+
+    public static class Header {
+        private final int width;
+        private final int height;
+        private final String rule;
+
+        Header(int width, int height, String rule) {
+            this.width = width;
+            this.height = height;
+            this.rule = rule;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        // The rule from the header (for example "B3/S23"), or null if the file does not specify one.
+        public String getRule() {
+            return rule;
+        }
+    }
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean mapped;
+    private Header header;
+
+    public RLEReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.flip();
+        this.mapped = false;
+    }
+
+    private RLEReader(FileChannel channel, ByteBuffer mappedFile) {
+        this.channel = channel;
+        this.buffer = mappedFile;
+        this.mapped = true;
+    }
+
+    public static RLEReader open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > MAX_MAPPED_SIZE) {
+            return new RLEReader(channel);
+        }
+        return new RLEReader(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    public Header readHeader() throws IOException {
+        if (header != null) {
+            return header;
+        }
+
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            line.setLength(0);
+            int b = read();
+            if (b < 0) {
+                throw new IllegalArgumentException("Could not find valid dimensions in RLE file");
+            }
+            while (b >= 0 && b != '\n') {
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+                b = read();
+            }
+
+            String text = line.toString().trim();
+            if (text.isEmpty() || text.startsWith("#")) {
+                continue;
+            }
+
+            header = parseHeaderLine(text);
+            return header;
+        }
+    }
+
+    private static Header parseHeaderLine(String text) {
+        int width = 0, height = 0;
+        String rule = null;
+
+        for (String part : text.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            String key = part.substring(0, eq).trim().toLowerCase();
+            String value = part.substring(eq + 1).trim();
+
+            try {
+                if (key.equals("x")) {
+                    width = Integer.parseInt(value);
+                } else if (key.equals("y")) {
+                    height = Integer.parseInt(value);
+                } else if (key.equals("rule")) {
+                    rule = value;
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid RLE header: " + text, e);
+            }
+        }
+
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Could not find valid dimensions in RLE file");
+        }
+        return new Header(width, height, rule);
+    }
+
+    // Decodes the pattern body. Rows are reported as they complete, so only one row of words is kept. A live
+    // cell past the header width or a run count beyond Integer.MAX_VALUE is rejected, so a short malformed
+    // body cannot make the row buffer grow or the coordinates overflow. Rows below the header height are
+    // still reported; the sink decides whether to keep them.
+    public void decode(RowSink sink) throws IOException {
+        Header h = readHeader();
+        int width = h.getWidth();
+        long[] row = new long[(width + 63) >>> 6];
+
+        // Dead runs and empty rows only move the position, so it is kept as a long and only checked
+        // against the header when a live cell is set.
+        long y = 0;
+        long x = 0;
+        long count = 0;
+        int dirtyFrom = row.length;
+        int dirtyTo = -1;
+
+        int b;
+        while ((b = read()) >= 0) {
+            if (b >= '0' && b <= '9') {
+                count = count * 10 + (b - '0');
+                if (count > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Run count in RLE row " + y + " is too large");
+                }
+                continue;
+            }
+
+            boolean dead = b == 'b' || b == '.';
+            boolean alive = b == 'o' || (b >= 'A' && b <= 'X');
+            boolean endOfRow = b == '$' || b == '!';
+            if (b == '#') {
+                skipLine();
+            }
+            if (!dead && !alive && !endOfRow) {
+                continue;
+            }
+
+            long run = count == 0 ? 1 : count;
+            count = 0;
+
+            if (dead) {
+                x += run;
+            } else if (alive) {
+                if (x + run > width) {
+                    throw new IllegalArgumentException("RLE row " + y + " has live cells beyond the header width "
+                            + width);
+                }
+                if (y > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("RLE row " + y + " is too large");
+                }
+                int from = (int) x;
+                int to = (int) (x + run);
+                fill(row, from, to);
+                dirtyFrom = Math.min(dirtyFrom, from >>> 6);
+                dirtyTo = Math.max(dirtyTo, (to - 1) >>> 6);
+                x = to;
+            } else {
+                if (dirtyTo >= 0) {
+                    sink.acceptRow((int) y, row, dirtyTo + 1);
+                    Arrays.fill(row, dirtyFrom, dirtyTo + 1, 0L);
+                    dirtyFrom = row.length;
+                    dirtyTo = -1;
+                }
+                if (b == '!') {
+                    return;
+                }
+                y += run;
+                x = 0;
+            }
+        }
+
+        if (dirtyTo >= 0) {
+            sink.acceptRow((int) y, row, dirtyTo + 1);
+        }
+    }
+
+    // Sets bits [from, to) using whole-word stores for the inner part of the run.
+    public static void fill(long[] words, int from, int to) {
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        Arrays.fill(words, first + 1, last, -1L);
+        words[last] |= lastMask;
+    }
+
+    // Calls the visitor once for every run of consecutive live cells in a row.
+    public static void forEachRun(long[] words, int wordCount, RunVisitor visitor) {
+        int end = 0;
+        int start;
+        while ((start = nextSetBit(words, wordCount, end)) >= 0) {
+            end = nextClearBit(words, wordCount, start);
+            visitor.visit(start, end - start);
+        }
+    }
+
+    private static int nextSetBit(long[] words, int wordCount, int from) {
+        int k = from >>> 6;
+        if (k >= wordCount) {
+            return -1;
+        }
+        long word = words[k] & (-1L << from);
+        while (word == 0) {
+            if (++k == wordCount) {
+                return -1;
+            }
+            word = words[k];
+        }
+        return (k << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private static int nextClearBit(long[] words, int wordCount, int from) {
+        int k = from >>> 6;
+        long word = ~words[k] & (-1L << from);
+        while (word == 0) {
+            if (++k == wordCount) {
+                return wordCount << 6;
+            }
+            word = ~words[k];
+        }
+        return (k << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private void skipLine() throws IOException {
+        int b = read();
+        while (b >= 0 && b != '\n') {
+            b = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining()) {
+            if (mapped) {
+                return -1;
+            }
+            buffer.clear();
+            int n = channel.read(buffer);
+            buffer.flip();
+            if (n <= 0) {
+                return -1;
+            }
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
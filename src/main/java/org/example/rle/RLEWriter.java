@@ -0,0 +1,147 @@
+package org.example.rle;
+
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+// Writes the live cells of a packed grid as RLE, cropped to their bounding box. Runs are taken from
+// whole words and the output goes through a fixed-size byte buffer.
+public class RLEWriter {
+    private static final int MAX_LINE_LENGTH = 70;
+    private static final int BUFFER_SIZE = 1 << 16;
+    public static final String DEFAULT_RULE = "B3/S23";
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private int lineLength = 0;
+
+    private RLEWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    public static void write(Grid grid, File file, String rule) throws IOException {
+        write(PackedGrid.fromGrid(grid), file, rule);
+    }
+
+    public static void write(PackedGrid grid, File file, String rule) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(grid, channel, rule);
+        }
+    }
+
+    public static void write(PackedGrid grid, WritableByteChannel channel, String rule) throws IOException {
+        new RLEWriter(channel).writeGrid(grid, rule == null ? DEFAULT_RULE : rule);
+    }
+
+    private void writeGrid(PackedGrid grid, String rule) throws IOException {
+        long[] words = grid.getCurrent();
+        int wordsPerRow = grid.getWordsPerRow();
+
+        int minRow = -1, maxRow = -1;
+        int minCol = Integer.MAX_VALUE, maxCol = -1;
+        for (int row = 0; row < grid.getHeight(); row++) {
+            int base = row * wordsPerRow;
+            for (int k = 0; k < wordsPerRow; k++) {
+                long word = words[base + k];
+                if (word == 0) {
+                    continue;
+                }
+                if (minRow < 0) {
+                    minRow = row;
+                }
+                maxRow = row;
+                minCol = Math.min(minCol, (k << 6) + Long.numberOfTrailingZeros(word));
+                maxCol = Math.max(maxCol, (k << 6) + 63 - Long.numberOfLeadingZeros(word));
+            }
+        }
+
+        // An empty board is written as a single dead cell; RLEReader rejects a 0x0 header.
+        if (minRow < 0) {
+            writeRaw("x = 1, y = 1, rule = " + rule + "\n!\n");
+            flush();
+            return;
+        }
+
+        writeRaw("x = " + (maxCol - minCol + 1) + ", y = " + (maxRow - minRow + 1) + ", rule = " + rule + "\n");
+
+        long[] row = new long[wordsPerRow];
+        int[] column = new int[1];
+        int pendingRowEnds = 0;
+        int originCol = minCol;
+
+        for (int r = minRow; r <= maxRow; r++) {
+            System.arraycopy(words, r * wordsPerRow, row, 0, wordsPerRow);
+            boolean empty = true;
+            for (long word : row) {
+                if (word != 0) {
+                    empty = false;
+                    break;
+                }
+            }
+
+            if (!empty) {
+                if (pendingRowEnds > 0) {
+                    writeToken(pendingRowEnds, '$');
+                    pendingRowEnds = 0;
+                }
+                column[0] = originCol;
+                try {
+                    RLEReader.forEachRun(row, wordsPerRow, (col, length) -> {
+                        try {
+                            if (col > column[0]) {
+                                writeToken(col - column[0], 'b');
+                            }
+                            writeToken(length, 'o');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        column[0] = col + length;
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            pendingRowEnds++;
+        }
+
+        writeToken(1, '!');
+        writeRaw("\n");
+        flush();
+    }
+
+    private void writeToken(int count, char tag) throws IOException {
+        String token = count == 1 ? String.valueOf(tag) : count + String.valueOf(tag);
+        if (lineLength + token.length() > MAX_LINE_LENGTH) {
+            writeRaw("\n");
+        }
+        writeRaw(token);
+    }
+
+    private void writeRaw(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        for (byte b : bytes) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(b);
+            lineLength = b == '\n' ? 0 : lineLength + 1;
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
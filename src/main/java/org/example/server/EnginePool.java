@@ -0,0 +1,60 @@
+package org.example.server;
+
+import org.example.engine.EngineOptions;
+import org.example.engine.EngineRegistry;
+import org.example.engine.LifeEngine;
+import org.example.model.Rule;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Idle engines kept between jobs, keyed by mode and rule. An engine keeps its thread pools, OpenCL
+// context and compiled kernels, so a job that finds one here skips that setup. Each engine is used by one
+// job at a time; concurrent jobs with the same mode get separate instances.
+class EnginePool implements AutoCloseable {
+    private final EngineRegistry registry;
+    private final EngineOptions options;
+    private final Map<String, ConcurrentLinkedDeque<LifeEngine>> idle = new ConcurrentHashMap<>();
+
+    EnginePool(EngineRegistry registry, EngineOptions options) {
+        this.registry = registry;
+        this.options = options;
+    }
+
+    private static String key(String mode, Rule rule) {
+        return mode + " " + rule;
+    }
+
+    LifeEngine borrow(String mode, Rule rule) {
+        LifeEngine engine = idle.computeIfAbsent(key(mode, rule), k -> new ConcurrentLinkedDeque<>()).pollFirst();
+        if (engine != null) {
+            return engine;
+        }
+        EngineOptions jobOptions = options.copy();
+        jobOptions.setRule(rule);
+        return registry.create(mode, jobOptions);
+    }
+
+    void release(String mode, Rule rule, LifeEngine engine) {
+        idle.computeIfAbsent(key(mode, rule), k -> new ConcurrentLinkedDeque<>()).offerFirst(engine);
+    }
+
+    // Idle engines per "mode rule" key.
+    Map<String, Integer> getIdleCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        idle.forEach((key, engines) -> counts.put(key, engines.size()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        for (ConcurrentLinkedDeque<LifeEngine> engines : idle.values()) {
+            LifeEngine engine;
+            while ((engine = engines.pollFirst()) != null) {
+                engine.close();
+            }
+        }
+    }
+}
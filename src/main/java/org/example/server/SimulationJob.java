@@ -0,0 +1,181 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.example.engine.LifeEngine;
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+import org.example.model.Rule;
+import org.example.rle.RLEWriter;
+import org.example.snapshot.ResultCache;
+import org.example.snapshot.Snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+// One queued simulation. Its response is a stream of JSON lines: "queued" when accepted, "started",
+// a "progress" event every progressEvery generations and finally "done" with the result as RLE, or
+// "error". If the client goes away the job stops at the next progress boundary. With a result cache, a
+// job starts from the furthest cached generation of the same pattern, rule and mode ("cached" in "started")
+// and stores its result when it completes.
+class SimulationJob implements Runnable {
+    interface Listener {
+        void finished(SimulationJob job, boolean success);
+    }
+
+    private final long id;
+    private final String mode;
+    private final Rule rule;
+    private final int steps;
+    private final int progressEvery;
+    private final HttpExchange exchange;
+    private final EnginePool pool;
+    private final ResultCache cache;
+    private final Listener listener;
+    private Grid grid;
+    private OutputStream out;
+    private boolean disconnected;
+
+    SimulationJob(long id, String mode, Rule rule, int steps, int progressEvery, Grid grid,
+                  HttpExchange exchange, EnginePool pool, ResultCache cache, Listener listener) {
+        this.id = id;
+        this.mode = mode;
+        this.rule = rule;
+        this.steps = steps;
+        this.progressEvery = progressEvery;
+        this.grid = grid;
+        this.exchange = exchange;
+        this.pool = pool;
+        this.cache = cache;
+        this.listener = listener;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    // Called by the request thread after the job has been queued, before the job can write anything.
+    synchronized void accepted(int queuePosition) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        out = exchange.getResponseBody();
+        emit("{\"event\":\"queued\",\"job\":" + id + ",\"position\":" + queuePosition + "}");
+    }
+
+    @Override
+    public void run() {
+        boolean success = false;
+        LifeEngine engine = null;
+        try {
+            int generation = 0;
+            String cacheKey = null;
+            if (cache != null && steps > 0) {
+                cacheKey = ResultCache.key(grid, rule, mode);
+                Snapshot cached = cache.lookup(cacheKey, steps);
+                if (cached != null) {
+                    grid = cached.toGrid();
+                    generation = (int) cached.getGeneration();
+                }
+            }
+            emit("{\"event\":\"started\",\"job\":" + id + ",\"engine\":\"" + mode + "\",\"rule\":\"" + rule
+                    + "\",\"cached\":" + generation + "}");
+            engine = pool.borrow(mode, rule);
+            if (!engine.supportsRule(rule)) {
+                throw new IllegalArgumentException("Mode " + mode + " does not support rule " + rule
+                        + "; use lookup mode");
+            }
+
+            long start = System.currentTimeMillis();
+            int startGeneration = generation;
+            while (generation < steps && !isDisconnected()) {
+                int chunk = Math.min(progressEvery, steps - generation);
+                engine.simulate(grid, chunk);
+                generation += chunk;
+                if (generation < steps) {
+                    emit("{\"event\":\"progress\",\"job\":" + id + ",\"generation\":" + generation
+                            + ",\"population\":" + grid.getLiveCellCount()
+                            + ",\"elapsedMs\":" + (System.currentTimeMillis() - start) + "}");
+                }
+            }
+            long time = System.currentTimeMillis() - start;
+            if (cacheKey != null && generation == steps && generation > startGeneration) {
+                cache.store(cacheKey, grid, generation);
+            }
+
+            if (!isDisconnected()) {
+                emit("{\"event\":\"done\",\"job\":" + id + ",\"generation\":" + generation
+                        + ",\"population\":" + grid.getLiveCellCount() + ",\"timeMs\":" + time
+                        + ",\"rle\":\"" + escape(toRle()) + "\"}");
+                success = true;
+            }
+            pool.release(mode, rule, engine);
+            engine = null;
+        } catch (RuntimeException | IOException e) {
+            emit("{\"event\":\"error\",\"job\":" + id + ",\"message\":\"" + escape(String.valueOf(e.getMessage()))
+                    + "\"}");
+        } finally {
+            // An engine that failed mid-run may hold inconsistent state, so it is not returned to the pool.
+            if (engine != null) {
+                engine.close();
+            }
+            exchange.close();
+            listener.finished(this, success);
+        }
+    }
+
+    private String toRle() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RLEWriter.write(PackedGrid.fromGrid(grid), Channels.newChannel(bytes), rule.toString());
+        return bytes.toString(StandardCharsets.US_ASCII.name());
+    }
+
+    private synchronized boolean isDisconnected() {
+        return disconnected;
+    }
+
+    private synchronized void emit(String line) {
+        if (disconnected || out == null) {
+            disconnected = true;
+            return;
+        }
+        try {
+            out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            disconnected = true;
+        }
+    }
+
+    static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    escaped.append("\\\"");
+                    break;
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+}
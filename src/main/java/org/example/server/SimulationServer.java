@@ -0,0 +1,261 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.engine.EngineOptions;
+import org.example.engine.EngineRegistry;
+import org.example.model.Grid;
+import org.example.model.Rule;
+import org.example.rle.RLEParser;
+import org.example.rle.RLEReader;
+import org.example.snapshot.ResultCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Long-running HTTP front end on the loopback interface, so repeated jobs share one warm JVM, the engine
+// pool and its compiled kernels. Endpoints:
+//   POST /simulate?engine=<mode>&steps=<n>[&rule=<B/S>][&progress=<n>]  body: RLE pattern
+//       streams JSON lines (see SimulationJob); 503 when the queue is full
+//   GET /status  queue length, job counters, idle engines and result cache counters
+public class SimulationServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_QUEUE_SIZE = 16;
+    public static final int DEFAULT_CONCURRENT_JOBS = 1;
+
+    private static final int MAX_PATTERN_BYTES = 64 << 20;
+    private static final int DEFAULT_PROGRESS_EVENTS = 10;
+
+    private final EngineRegistry registry;
+    private final EnginePool pool;
+    private final ResultCache cache;
+    private final ThreadPoolExecutor jobs;
+    private final ExecutorService connections;
+    private final HttpServer server;
+
+    private final AtomicLong nextJobId = new AtomicLong(1);
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Jobs beyond concurrentJobs wait in a queue of queueSize; further requests are rejected, so a burst
+    // of clients cannot pile up unbounded work. A non-null cache is shared by all jobs.
+    public SimulationServer(EngineRegistry registry, EngineOptions options, int port, int concurrentJobs,
+                            int queueSize, ResultCache cache) throws IOException {
+        this.registry = registry;
+        this.pool = new EnginePool(registry, options);
+        this.cache = cache;
+        this.jobs = new ThreadPoolExecutor(concurrentJobs, concurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> new Thread(r, "GameOfLife-Job"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.connections = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "GameOfLife-Http");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/simulate", this::handleSimulate);
+        server.createContext("/status", this::handleStatus);
+        server.setExecutor(connections);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Simulation server listening on http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + " (" + jobs.getMaximumPoolSize() + " concurrent jobs, queue of "
+                + jobs.getQueue().remainingCapacity() + ")");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleSimulate(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Use POST with an RLE pattern as the body");
+            return;
+        }
+
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String mode = query.getOrDefault("engine", "bitboard").toLowerCase();
+        int steps;
+        int progressEvery;
+        Rule rule;
+        Grid grid;
+        try {
+            if (!registry.contains(mode)) {
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+            }
+            steps = Integer.parseInt(query.getOrDefault("steps", "0"));
+            if (steps < 0) {
+                throw new IllegalArgumentException("Steps must not be negative: " + steps);
+            }
+            progressEvery = query.containsKey("progress") ? Integer.parseInt(query.get("progress"))
+                    : Math.max(1, (steps + DEFAULT_PROGRESS_EVENTS - 1) / DEFAULT_PROGRESS_EVENTS);
+            if (progressEvery <= 0) {
+                throw new IllegalArgumentException("Progress interval must be positive: " + progressEvery);
+            }
+
+            byte[] body = readBody(exchange.getRequestBody());
+            try (RLEReader reader = new RLEReader(Channels.newChannel(new ByteArrayInputStream(body)))) {
+                // The reader sizes its row buffer from the header, so the dimensions are bounded before
+                // decoding instead of clamped afterwards as for a local file.
+                RLEReader.Header header = reader.readHeader();
+                if (header.getWidth() > RLEParser.MAX_DIMENSION || header.getHeight() > RLEParser.MAX_DIMENSION) {
+                    throw new PatternTooLargeException("Pattern of " + header.getWidth() + "x" + header.getHeight()
+                            + " exceeds " + RLEParser.MAX_DIMENSION + "x" + RLEParser.MAX_DIMENSION);
+                }
+                String headerRule = header.getRule();
+                rule = query.containsKey("rule") ? Rule.parse(query.get("rule"))
+                        : headerRule != null ? Rule.parse(headerRule) : Rule.CONWAY;
+                if (!registry.supportsRule(mode, rule)) {
+                    throw new IllegalArgumentException("Mode " + mode + " does not support rule " + rule
+                            + "; use lookup mode");
+                }
+                grid = RLEParser.parse(reader);
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        } catch (PatternTooLargeException e) {
+            sendError(exchange, 413, e.getMessage());
+            return;
+        } catch (IOException e) {
+            sendError(exchange, 400, "Invalid pattern: " + e.getMessage());
+            return;
+        }
+
+        SimulationJob job = new SimulationJob(nextJobId.getAndIncrement(), mode, rule, steps, progressEvery, grid,
+                exchange, pool, cache, this::jobFinished);
+        // Holding the job's lock until the response is started keeps the job from writing before "queued".
+        synchronized (job) {
+            try {
+                jobs.execute(job);
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                sendError(exchange, 503, "Queue full, try again later");
+                return;
+            }
+            job.accepted(jobs.getQueue().size());
+        }
+    }
+
+    private void jobFinished(SimulationJob job, boolean success) {
+        (success ? completed : failed).incrementAndGet();
+    }
+
+    private void handleStatus(HttpExchange exchange) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"queued\":").append(jobs.getQueue().size())
+                .append(",\"running\":").append(jobs.getActiveCount())
+                .append(",\"completed\":").append(completed.get())
+                .append(",\"failed\":").append(failed.get())
+                .append(",\"rejected\":").append(rejected.get())
+                .append(",\"idleEngines\":{");
+        boolean first = true;
+        for (Map.Entry<String, Integer> entry : pool.getIdleCounts().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(SimulationJob.escape(entry.getKey())).append("\":").append(entry.getValue());
+        }
+        json.append('}');
+        if (cache != null) {
+            json.append(",\"cache\":{\"hits\":").append(cache.getHits())
+                    .append(",\"resumes\":").append(cache.getResumes())
+                    .append(",\"misses\":").append(cache.getMisses())
+                    .append(",\"generationsSaved\":").append(cache.getGenerationsSaved())
+                    .append(",\"memoryEntries\":").append(cache.getMemoryEntries())
+                    .append(",\"memoryBytes\":").append(cache.getMemoryUsed())
+                    .append('}');
+        }
+        json.append("}\n");
+        send(exchange, 200, "application/json", json.toString());
+    }
+
+    private static class PatternTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        PatternTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1 << 16];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            if (body.size() + n > MAX_PATTERN_BYTES) {
+                throw new PatternTooLargeException("Pattern larger than " + MAX_PATTERN_BYTES + " bytes");
+            }
+            body.write(buffer, 0, n);
+        }
+        return body.toByteArray();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "application/json",
+                "{\"event\":\"error\",\"message\":\"" + SimulationJob.escape(String.valueOf(message)) + "\"}\n");
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Stops accepting requests, lets queued jobs finish and closes the pooled engines.
+    @Override
+    public void close() {
+        server.stop(0);
+        jobs.shutdown();
+        try {
+            if (!jobs.awaitTermination(1, TimeUnit.MINUTES)) {
+                jobs.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            jobs.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        connections.shutdown();
+        pool.close();
+    }
+}
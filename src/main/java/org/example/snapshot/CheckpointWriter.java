@@ -0,0 +1,62 @@
+package org.example.snapshot;
+
+import org.example.model.Grid;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Writes snapshots on a background thread. The compute loop only pays for copying the words; if the
+// disk falls behind, a pending snapshot that has not started yet is replaced by the newer one.
+public class CheckpointWriter implements AutoCloseable {
+    private final File file;
+    private final boolean compress;
+    private final String rule;
+    private final ThreadPoolExecutor executor;
+
+    // The rule is stored with every snapshot, so a resumed run continues with the same one.
+    public CheckpointWriter(File file, boolean compress, String rule) {
+        this.file = file;
+        this.compress = compress;
+        this.rule = rule;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                r -> {
+                    Thread t = new Thread(r, "GameOfLife-Checkpoint");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    public void submit(Grid grid, long generation) {
+        Snapshot snapshot = Snapshot.capture(grid, generation, rule);
+        executor.execute(() -> write(snapshot));
+    }
+
+    private void write(Snapshot snapshot) {
+        long start = System.currentTimeMillis();
+        try {
+            snapshot.write(file, compress);
+            System.out.println("Checkpoint at generation " + snapshot.getGeneration() + " written to " + file
+                    + " (" + (System.currentTimeMillis() - start) + " ms)");
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint: " + e.getMessage());
+        }
+    }
+
+    // Waits for the pending snapshots to reach the disk.
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+                System.err.println("Timed out waiting for checkpoint writer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
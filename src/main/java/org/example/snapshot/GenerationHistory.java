@@ -0,0 +1,292 @@
+package org.example.snapshot;
+
+import org.example.model.Grid;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// In-memory history of recorded generations within a fixed byte budget. Frames are encoded like a
+// recording (see RecordingFormat): every keyframeInterval-th frame a keyframe, the others the XOR with the
+// previous frame, run-length encoded, kept in a ring of frames ordered by generation. When a frame does not
+// fit, the oldest keyframe and its deltas are dropped together, since the deltas cannot be decoded without
+// it; if only the frame's own group is left, the frame is stored as a keyframe instead. The budget covers
+// the frames, their bookkeeping and the two word arrays and encode buffer kept for recording, so memory
+// stays bounded however many generations are recorded. stateAt rebuilds a generation from its keyframe,
+// with several threads each applying the frames to their own range of words.
+public class GenerationHistory implements AutoCloseable {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+    // Generation, payload reference, keyframe flag and the byte[] header, plus slack for the ring's growth.
+    private static final int FRAME_OVERHEAD = 64;
+    private static final int MIN_WORDS_PER_THREAD = 1 << 14;
+
+    private final int width;
+    private final int height;
+    private final int wordCount;
+    private final long budget;
+    private final int keyframeInterval;
+    private final int threads;
+    private final ExecutorService executor;
+
+    private long[] words;
+    private long[] previous;
+    private final ByteBuffer encodeBuffer;
+
+    private long[] generations = new long[16];
+    private byte[][] payloads = new byte[16][];
+    private boolean[] keyframes = new boolean[16];
+    private int head;
+    private int count;
+    private int keyframeCount;
+    private int sinceKeyframe;
+    private long frameBytes;
+    private long evictedFrames;
+
+    public GenerationHistory(int width, int height, long budget, int keyframeInterval, int threads) {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Keyframe interval must be positive: " + keyframeInterval);
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Threads must be positive: " + threads);
+        }
+        this.width = width;
+        this.height = height;
+        this.wordCount = (int) (((long) width * height + 63) / 64);
+        this.keyframeInterval = keyframeInterval;
+        this.threads = threads;
+        this.budget = budget;
+        long minimum = fixedBytes() + FRAME_OVERHEAD + RecordingFormat.maxPayloadBytes(wordCount);
+        if (budget < minimum) {
+            throw new IllegalArgumentException("History budget of " + budget + " bytes is below the " + minimum
+                    + " needed for one keyframe of a " + width + "x" + height + " grid");
+        }
+
+        this.words = new long[wordCount];
+        this.encodeBuffer = ByteBuffer.allocate(RecordingFormat.maxPayloadBytes(wordCount));
+        this.executor = threads > 1 ? Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "GameOfLife-History");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    // Records the grid's current generation, which must be later than the last one recorded.
+    public synchronized void record(Grid grid, long generation) {
+        if (grid.getWidth() != width || grid.getHeight() != height) {
+            throw new IllegalArgumentException("Grid is " + grid.getWidth() + "x" + grid.getHeight()
+                    + ", history is " + width + "x" + height);
+        }
+        if (count > 0 && generation <= generations[slot(count - 1)]) {
+            throw new IllegalArgumentException("Generation " + generation + " is not after "
+                    + generations[slot(count - 1)]);
+        }
+        grid.exportWords(words, 0);
+
+        boolean keyframe = previous == null || sinceKeyframe >= keyframeInterval;
+        int length = encode(keyframe);
+        if (!keyframe) {
+            while (frameBytes + FRAME_OVERHEAD + length > frameBudget() && keyframeCount > 1) {
+                evictOldestGroup();
+            }
+            if (frameBytes + FRAME_OVERHEAD + length > frameBudget()) {
+                keyframe = true;
+                length = encode(true);
+            }
+        }
+        if (keyframe) {
+            while (frameBytes + FRAME_OVERHEAD + length > frameBudget()) {
+                evictOldestGroup();
+            }
+        }
+
+        append(generation, Arrays.copyOf(encodeBuffer.array(), length), keyframe);
+        sinceKeyframe = keyframe ? 1 : sinceKeyframe + 1;
+
+        long[] temp = previous != null ? previous : new long[wordCount];
+        previous = words;
+        words = temp;
+    }
+
+    // Rebuilds a recorded generation from its keyframe. The grid and its words are allocated per call and
+    // are not part of the budget.
+    public Grid stateAt(long generation) {
+        long[] decoded = new long[wordCount];
+        byte[][] frames;
+        synchronized (this) {
+            int index = indexOf(generation);
+            if (index < 0) {
+                throw new IllegalArgumentException("Generation " + generation + " is not in the history"
+                        + (count > 0 ? " (" + count + " frames from generation " + getOldestGeneration() + " to "
+                        + getNewestGeneration() + ")" : ""));
+            }
+            int start = index;
+            while (!keyframes[slot(start)]) {
+                start--;
+            }
+            frames = new byte[index - start + 1][];
+            for (int i = start; i <= index; i++) {
+                frames[i - start] = payloads[slot(i)];
+            }
+        }
+
+        // Payloads are never modified once stored, so they are decoded outside the lock.
+        int parts = executor == null ? 1 : Math.min(threads, Math.max(1, wordCount / MIN_WORDS_PER_THREAD));
+        if (parts == 1) {
+            for (byte[] frame : frames) {
+                RecordingFormat.decodeInto(ByteBuffer.wrap(frame), decoded);
+            }
+        } else {
+            decodeInParallel(frames, decoded, parts);
+        }
+
+        Grid grid = new Grid(width, height);
+        grid.importWords(decoded);
+        return grid;
+    }
+
+    private void decodeInParallel(byte[][] frames, long[] decoded, int parts) {
+        List<Callable<Void>> tasks = new ArrayList<>(parts);
+        for (int p = 0; p < parts; p++) {
+            int from = (int) ((long) wordCount * p / parts);
+            int to = (int) ((long) wordCount * (p + 1) / parts);
+            tasks.add(() -> {
+                for (byte[] frame : frames) {
+                    RecordingFormat.decodeRange(ByteBuffer.wrap(frame), decoded, from, to);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding a generation", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error rebuilding a generation", e.getCause());
+        }
+    }
+
+    public synchronized boolean contains(long generation) {
+        return indexOf(generation) >= 0;
+    }
+
+    public synchronized int getFrameCount() {
+        return count;
+    }
+
+    public synchronized long getOldestGeneration() {
+        return count > 0 ? generations[head] : -1;
+    }
+
+    public synchronized long getNewestGeneration() {
+        return count > 0 ? generations[slot(count - 1)] : -1;
+    }
+
+    // Frames dropped so far to stay within the budget.
+    public synchronized long getEvictedFrames() {
+        return evictedFrames;
+    }
+
+    // Bytes held against the budget: the frames and their bookkeeping, and the recording buffers.
+    public synchronized long getMemoryUsed() {
+        return frameBytes + fixedBytes();
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private int encode(boolean keyframe) {
+        encodeBuffer.clear();
+        RecordingFormat.encode(words, keyframe ? null : previous, encodeBuffer);
+        return encodeBuffer.position();
+    }
+
+    private void append(long generation, byte[] payload, boolean keyframe) {
+        if (count == generations.length) {
+            grow();
+        }
+        int slot = slot(count);
+        generations[slot] = generation;
+        payloads[slot] = payload;
+        keyframes[slot] = keyframe;
+        count++;
+        frameBytes += FRAME_OVERHEAD + payload.length;
+        if (keyframe) {
+            keyframeCount++;
+        }
+    }
+
+    private void evictOldestGroup() {
+        do {
+            frameBytes -= FRAME_OVERHEAD + payloads[head].length;
+            if (keyframes[head]) {
+                keyframeCount--;
+            }
+            payloads[head] = null;
+            head = (head + 1) % generations.length;
+            count--;
+            evictedFrames++;
+        } while (count > 0 && !keyframes[head]);
+    }
+
+    private void grow() {
+        int capacity = generations.length * 2;
+        long[] newGenerations = new long[capacity];
+        byte[][] newPayloads = new byte[capacity][];
+        boolean[] newKeyframes = new boolean[capacity];
+        for (int i = 0; i < count; i++) {
+            newGenerations[i] = generations[slot(i)];
+            newPayloads[i] = payloads[slot(i)];
+            newKeyframes[i] = keyframes[slot(i)];
+        }
+        generations = newGenerations;
+        payloads = newPayloads;
+        keyframes = newKeyframes;
+        head = 0;
+    }
+
+    private int indexOf(long generation) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long g = generations[slot(mid)];
+            if (g == generation) {
+                return mid;
+            } else if (g < generation) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int slot(int index) {
+        return (head + index) % generations.length;
+    }
+
+    private long frameBudget() {
+        return budget - fixedBytes();
+    }
+
+    private long fixedBytes() {
+        return 2L * wordCount * Long.BYTES + RecordingFormat.maxPayloadBytes(wordCount);
+    }
+}
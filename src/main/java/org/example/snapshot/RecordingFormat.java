@@ -0,0 +1,88 @@
+package org.example.snapshot;
+
+import java.nio.ByteBuffer;
+
+// Layout of a recording: a header (magic, version, width, height, word count, keyframe interval, then the
+// rule as a length-prefixed ASCII string) followed by frames. A frame is a type byte, the generation, the
+// payload length in bytes and the payload. The payload is a run-length encoding of the frame's words XORed
+// with the previous frame's (with zeros for a keyframe): runs of an int count of all-zero words and an int
+// count of literal words, followed by the literal words, until the word count is covered.
+final class RecordingFormat {
+    static final int MAGIC = 0x474F4C52;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 6 * Integer.BYTES;
+    static final int FRAME_HEADER_BYTES = 1 + Long.BYTES + Integer.BYTES;
+
+    static final byte KEYFRAME = 0;
+    static final byte DELTA = 1;
+
+    private RecordingFormat() {
+    }
+
+    // Largest payload for wordCount words: one run of literals.
+    static int maxPayloadBytes(int wordCount) {
+        return 2 * Integer.BYTES + wordCount * Long.BYTES;
+    }
+
+    // Appends the encoding of words XOR previous (previous may be null) to out.
+    static void encode(long[] words, long[] previous, ByteBuffer out) {
+        int i = 0;
+        while (i < words.length) {
+            int zeroStart = i;
+            while (i < words.length && xor(words, previous, i) == 0) {
+                i++;
+            }
+            int literalStart = i;
+            // A single zero word between literals is cheaper to copy than to start a new run for.
+            while (i < words.length && (xor(words, previous, i) != 0
+                    || (i + 1 < words.length && xor(words, previous, i + 1) != 0))) {
+                i++;
+            }
+            out.putInt(literalStart - zeroStart);
+            out.putInt(i - literalStart);
+            for (int k = literalStart; k < i; k++) {
+                out.putLong(xor(words, previous, k));
+            }
+        }
+    }
+
+    // XORs the encoded words from in into words.
+    static void decodeInto(ByteBuffer in, long[] words) {
+        int i = 0;
+        while (i < words.length) {
+            i += in.getInt();
+            int literals = in.getInt();
+            if (literals < 0 || i < 0 || i + literals > words.length) {
+                throw new IllegalStateException("Corrupt frame payload");
+            }
+            for (int end = i + literals; i < end; i++) {
+                words[i] ^= in.getLong();
+            }
+        }
+    }
+
+    // Like decodeInto, but only XORs the words in [from, to); the literals outside are skipped unread, so
+    // threads can decode disjoint ranges of the same payload.
+    static void decodeRange(ByteBuffer in, long[] words, int from, int to) {
+        int i = 0;
+        while (i < to) {
+            i += in.getInt();
+            int literals = in.getInt();
+            if (literals < 0 || i < 0 || i + literals > words.length) {
+                throw new IllegalStateException("Corrupt frame payload");
+            }
+            int start = Math.max(i, from);
+            int end = Math.min(i + literals, to);
+            int position = in.position();
+            for (int k = start; k < end; k++) {
+                words[k] ^= in.getLong(position + (k - i) * Long.BYTES);
+            }
+            in.position(position + literals * Long.BYTES);
+            i += literals;
+        }
+    }
+
+    private static long xor(long[] words, long[] previous, int i) {
+        return previous == null ? words[i] : words[i] ^ previous[i];
+    }
+}
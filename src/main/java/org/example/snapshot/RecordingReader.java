@@ -0,0 +1,187 @@
+package org.example.snapshot;
+
+import org.example.model.Grid;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Random access to a recording. Opening it scans the frame headers only; reading a frame decodes from the
+// nearest keyframe at or before it, so a seek costs at most one keyframe interval of deltas.
+public class RecordingReader implements AutoCloseable {
+    private final File file;
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int wordCount;
+    private final String rule;
+
+    private int frameCount;
+    private long[] positions = new long[64];
+    private int[] lengths = new int[64];
+    private long[] generations = new long[64];
+    private boolean[] keyframes = new boolean[64];
+
+    // Last decoded frame, so reading frames in order only applies one delta each.
+    private int decodedFrame = -1;
+    private long[] decoded;
+
+    public RecordingReader(File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(0, RecordingFormat.HEADER_BYTES);
+            if (header.getInt() != RecordingFormat.MAGIC) {
+                throw new IOException("Not a recording: " + file);
+            }
+            int version = header.getInt();
+            if (version != RecordingFormat.VERSION) {
+                throw new IOException("Unsupported recording version " + version + " in " + file);
+            }
+            this.width = header.getInt();
+            this.height = header.getInt();
+            this.wordCount = header.getInt();
+            if (width <= 0 || height <= 0 || wordCount != (int) (((long) width * height + 63) / 64)) {
+                throw new IOException("Corrupt recording header in " + file);
+            }
+            header.getInt();
+            int ruleLength = read(RecordingFormat.HEADER_BYTES, Integer.BYTES).getInt();
+            if (ruleLength < 0 || ruleLength > 256) {
+                throw new IOException("Corrupt recording header in " + file);
+            }
+            this.rule = StandardCharsets.US_ASCII.decode(read(RecordingFormat.HEADER_BYTES + Integer.BYTES, ruleLength))
+                    .toString();
+            scanFrames(RecordingFormat.HEADER_BYTES + Integer.BYTES + ruleLength);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Indexes the frames; a frame cut short by an interrupted run is ignored.
+    private void scanFrames(long position) throws IOException {
+        long size = channel.size();
+        while (position + RecordingFormat.FRAME_HEADER_BYTES <= size) {
+            ByteBuffer header = read(position, RecordingFormat.FRAME_HEADER_BYTES);
+            byte type = header.get();
+            long generation = header.getLong();
+            int length = header.getInt();
+            if ((type != RecordingFormat.KEYFRAME && type != RecordingFormat.DELTA) || length < 0) {
+                throw new IOException("Corrupt frame at byte " + position + " in " + file);
+            }
+            if (position + RecordingFormat.FRAME_HEADER_BYTES + length > size) {
+                break;
+            }
+            if (frameCount == 0 && type != RecordingFormat.KEYFRAME) {
+                throw new IOException("Recording does not start with a keyframe: " + file);
+            }
+            if (frameCount == positions.length) {
+                positions = Arrays.copyOf(positions, frameCount * 2);
+                lengths = Arrays.copyOf(lengths, frameCount * 2);
+                generations = Arrays.copyOf(generations, frameCount * 2);
+                keyframes = Arrays.copyOf(keyframes, frameCount * 2);
+            }
+            positions[frameCount] = position;
+            lengths[frameCount] = length;
+            generations[frameCount] = generation;
+            keyframes[frameCount] = type == RecordingFormat.KEYFRAME;
+            frameCount++;
+            position += RecordingFormat.FRAME_HEADER_BYTES + length;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public long getGeneration(int frame) {
+        checkFrame(frame);
+        return generations[frame];
+    }
+
+    // Index of the last frame at or before generation, or -1 if the recording starts later.
+    public int findFrame(long generation) {
+        int low = 0;
+        int high = frameCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (generations[mid] <= generation) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    public Grid readFrame(int frame) throws IOException {
+        checkFrame(frame);
+        int start = frame;
+        while (!keyframes[start]) {
+            start--;
+        }
+        if (decodedFrame >= start && decodedFrame <= frame) {
+            start = decodedFrame + 1;
+        } else {
+            decoded = new long[wordCount];
+        }
+
+        for (int f = start; f <= frame; f++) {
+            if (keyframes[f]) {
+                Arrays.fill(decoded, 0L);
+            }
+            ByteBuffer payload = read(positions[f] + RecordingFormat.FRAME_HEADER_BYTES, lengths[f]);
+            try {
+                RecordingFormat.decodeInto(payload, decoded);
+            } catch (RuntimeException e) {
+                decodedFrame = -1;
+                throw new IOException("Corrupt frame " + f + " in " + file, e);
+            }
+            decodedFrame = f;
+        }
+
+        Grid grid = new Grid(width, height);
+        grid.importWords(decoded);
+        return grid;
+    }
+
+    private void checkFrame(int frame) {
+        if (frame < 0 || frame >= frameCount) {
+            throw new IndexOutOfBoundsException("Frame " + frame + " of " + frameCount);
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.snapshot;
+
+import org.example.model.Grid;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+
+// Records a run as a stream of frames (see RecordingFormat). The compute loop only copies the grid's words
+// into one of a fixed set of frame buffers; the writer thread XORs them with the previous frame, run-length
+// encodes the result and writes it through a FileChannel. The compute loop never waits for the disk: when
+// every buffer is taken, the newest frame still waiting is overwritten with the current generation, so the
+// recording skips that frame but always ends with the last generation recorded. Skipped frames are counted
+// and reported on close.
+public class RecordingWriter implements AutoCloseable {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+    // Frame buffers are allocated as needed up to this many bytes, and at least three: the frame being
+    // written, the previous one, which the writer holds for the next delta, and one to record into.
+    private static final long BUFFER_BYTES = 64L << 20;
+    private static final int MAX_BUFFERS = 4096;
+
+    private static final class Frame {
+        long generation;
+        final long[] words;
+
+        Frame(int wordCount) {
+            this.words = new long[wordCount];
+        }
+    }
+
+    private final File file;
+    private final int wordCount;
+    private final int keyframeInterval;
+    private final FileChannel channel;
+    private final Object lock = new Object();
+    private final int bufferCount;
+    private final ArrayDeque<Frame> ready = new ArrayDeque<>();
+    private final ArrayDeque<Frame> free = new ArrayDeque<>();
+    private int allocated;
+    private boolean closed;
+    private long dropped;
+    private final Thread thread;
+    private volatile IOException error;
+    private int frames;
+    private long bytes;
+    private final int headerBytes;
+
+    public RecordingWriter(File file, int width, int height, String rule, int keyframeInterval) throws IOException {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Keyframe interval must be positive: " + keyframeInterval);
+        }
+        this.file = file;
+        this.wordCount = (int) (((long) width * height + 63) / 64);
+        this.keyframeInterval = keyframeInterval;
+        long frameBytes = (long) wordCount * Long.BYTES + 1;
+        this.bufferCount = (int) Math.max(3, Math.min(MAX_BUFFERS, BUFFER_BYTES / frameBytes));
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        byte[] ruleBytes = rule.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer header = ByteBuffer.allocate(RecordingFormat.HEADER_BYTES + Integer.BYTES + ruleBytes.length);
+        header.putInt(RecordingFormat.MAGIC).putInt(RecordingFormat.VERSION).putInt(width).putInt(height)
+                .putInt(wordCount).putInt(keyframeInterval).putInt(ruleBytes.length).put(ruleBytes).flip();
+        headerBytes = writeFully(header);
+
+        this.thread = new Thread(this::writeLoop, "GameOfLife-Recorder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Copies the grid's current generation into a free buffer, or over the newest waiting frame when the
+    // writer is behind. The writer only holds the lock to take or return a buffer, never while writing.
+    public void record(Grid grid, long generation) {
+        synchronized (lock) {
+            Frame frame = free.pollFirst();
+            if (frame == null && allocated < bufferCount) {
+                frame = new Frame(wordCount);
+                allocated++;
+            }
+            if (frame == null) {
+                // The writer holds at most two buffers, so the others are all waiting.
+                frame = ready.pollLast();
+                dropped++;
+            }
+            frame.generation = generation;
+            grid.exportWords(frame.words, 0);
+            ready.addLast(frame);
+            lock.notifyAll();
+        }
+    }
+
+    // Frames overwritten before the writer reached them.
+    public long getDroppedFrames() {
+        synchronized (lock) {
+            return dropped;
+        }
+    }
+
+    private void writeLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RecordingFormat.FRAME_HEADER_BYTES
+                + RecordingFormat.maxPayloadBytes(wordCount));
+        Frame previous = null;
+        try {
+            while (true) {
+                Frame frame;
+                synchronized (lock) {
+                    while (ready.isEmpty() && !closed) {
+                        lock.wait();
+                    }
+                    frame = ready.pollFirst();
+                }
+                if (frame == null) {
+                    return;
+                }
+
+                if (error == null) {
+                    boolean keyframe = frames % keyframeInterval == 0;
+                    buffer.clear();
+                    buffer.put(keyframe ? RecordingFormat.KEYFRAME : RecordingFormat.DELTA)
+                            .putLong(frame.generation)
+                            .putInt(0);
+                    RecordingFormat.encode(frame.words, keyframe || previous == null ? null : previous.words, buffer);
+                    buffer.putInt(1 + Long.BYTES, buffer.position() - RecordingFormat.FRAME_HEADER_BYTES);
+                    buffer.flip();
+                    try {
+                        bytes += writeFully(buffer);
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                    frames++;
+                }
+                synchronized (lock) {
+                    if (previous != null) {
+                        free.addLast(previous);
+                    }
+                }
+                previous = frame;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int writeFully(ByteBuffer buffer) throws IOException {
+        int written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return written;
+    }
+
+    // Waits for the queued frames to reach the file and closes it.
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            System.err.println("Error writing recording: " + error.getMessage());
+        } else {
+            System.out.println("Recorded " + frames + " frames to " + file + " (" + (bytes + headerBytes)
+                    + " bytes)" + (dropped > 0 ? ", " + dropped + " skipped while the disk was behind" : ""));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.example.snapshot;
+
+import org.example.model.Grid;
+import org.example.model.Rule;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Content-addressed store of computed generations. A run is keyed by the SHA-256 of its initial state, rule
+// and engine mode (see key), and each entry is the snapshot of that run after some number of generations.
+// The mode is part of the key so a run is only ever served results its own engine computed: timings stay
+// the engine's, and a faulty engine cannot hand its results to the others. Entries live in an in-memory LRU bounded by bytes
+// and, when a directory is given, in compressed snapshot files "<key>-<generation>.snap" bounded by total
+// size, the least recently used files going first. Several processes may share a directory: files are
+// renamed into place whole, and one that disappears under a reader counts as a miss.
+public class ResultCache {
+    public static final long DEFAULT_MEMORY_BYTES = 256L << 20;
+    public static final long DEFAULT_DISK_BYTES = 1L << 30;
+
+    private static final String SUFFIX = ".snap";
+    private static final int HASH_CHUNK_WORDS = 8192;
+
+    private final File directory;
+    private final long memoryBytes;
+    private final long diskBytes;
+    private final LinkedHashMap<String, Snapshot> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryUsed;
+    private long hits;
+    private long resumes;
+    private long misses;
+    private long generationsSaved;
+
+    // directory may be null for a memory-only cache.
+    public ResultCache(File directory, long memoryBytes, long diskBytes) {
+        if (memoryBytes < 0 || diskBytes < 0) {
+            throw new IllegalArgumentException("Cache sizes must not be negative");
+        }
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create cache directory " + directory);
+        }
+        this.directory = directory;
+        this.memoryBytes = memoryBytes;
+        this.diskBytes = diskBytes;
+    }
+
+    // Hex SHA-256 of the engine mode, the rule, the dimensions and the cell words of the grid's current
+    // generation.
+    public static String key(Grid grid, Rule rule, String mode) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        // Each string is followed by a zero byte, which neither contains, so "a" + "bc" and "ab" + "c" differ.
+        digest.update(mode.getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) 0);
+        digest.update(rule.toString().getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) 0);
+        ByteBuffer chunk = ByteBuffer.allocate(HASH_CHUNK_WORDS * Long.BYTES);
+        chunk.putInt(grid.getWidth()).putInt(grid.getHeight());
+        digest.update(chunk.array(), 0, chunk.position());
+
+        long[] words = grid.toWords();
+        for (int i = 0; i < words.length; i += HASH_CHUNK_WORDS) {
+            int count = Math.min(HASH_CHUNK_WORDS, words.length - i);
+            chunk.clear();
+            chunk.asLongBuffer().put(words, i, count);
+            digest.update(chunk.array(), 0, count * Long.BYTES);
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    // Returns the furthest cached generation of the run that is not past generation, or null. An entry at
+    // exactly generation counts as a hit, an earlier one as a resume, none as a miss.
+    public synchronized Snapshot lookup(String key, long generation) {
+        Snapshot best = null;
+        String prefix = key + "-";
+        // Iterating does not reorder the access-ordered map; only the get below does.
+        for (Map.Entry<String, Snapshot> entry : memory.entrySet()) {
+            Snapshot snapshot = entry.getValue();
+            if (entry.getKey().startsWith(prefix) && snapshot.getGeneration() <= generation
+                    && (best == null || snapshot.getGeneration() > best.getGeneration())) {
+                best = snapshot;
+            }
+        }
+        if (best != null && best.getGeneration() < generation) {
+            Snapshot fromDisk = readFurthest(key, best.getGeneration(), generation);
+            best = fromDisk != null ? fromDisk : best;
+        } else if (best == null) {
+            best = readFurthest(key, -1, generation);
+        }
+
+        if (best != null) {
+            memory.get(prefix + best.getGeneration());
+            if (best.getGeneration() == generation) {
+                hits++;
+            } else {
+                resumes++;
+            }
+            generationsSaved += best.getGeneration();
+        } else {
+            misses++;
+        }
+        return best;
+    }
+
+    // Stores a copy of the grid as generation generation of the run.
+    public void store(String key, Grid grid, long generation) {
+        Snapshot snapshot = new Snapshot(grid.getWidth(), grid.getHeight(), generation, grid.toWords(), null);
+        synchronized (this) {
+            remember(key, snapshot);
+        }
+        if (directory != null) {
+            File file = new File(directory, key + "-" + generation + SUFFIX);
+            try {
+                snapshot.write(file, true);
+                evictFiles();
+            } catch (IOException e) {
+                System.err.println("Error writing cache entry: " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getResumes() {
+        return resumes;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // Generations not recomputed thanks to hits and resumes.
+    public synchronized long getGenerationsSaved() {
+        return generationsSaved;
+    }
+
+    public synchronized int getMemoryEntries() {
+        return memory.size();
+    }
+
+    public synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    public synchronized String summary() {
+        long lookups = hits + resumes + misses;
+        return hits + " hits, " + resumes + " resumed, " + misses + " misses"
+                + (lookups > 0 ? String.format(" (%.1f%% hit rate, %.1f%% miss rate)",
+                hits * 100.0 / lookups, misses * 100.0 / lookups) : "")
+                + ", " + generationsSaved + " generations saved, " + memory.size() + " entries ("
+                + (memoryUsed >> 10) + " KB) in memory";
+    }
+
+    private void remember(String key, Snapshot snapshot) {
+        long size = entrySize(snapshot);
+        if (size > memoryBytes) {
+            return;
+        }
+        Snapshot previous = memory.put(key + "-" + snapshot.getGeneration(), snapshot);
+        memoryUsed += size - (previous != null ? entrySize(previous) : 0);
+        Iterator<Snapshot> eldest = memory.values().iterator();
+        while (memoryUsed > memoryBytes) {
+            memoryUsed -= entrySize(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    // Reads the furthest file of the run in (after, upTo] into memory. Reading a file touches it, so
+    // eviction sees it as recently used.
+    private Snapshot readFurthest(String key, long after, long upTo) {
+        if (directory == null) {
+            return null;
+        }
+        String prefix = key + "-";
+        String[] names = directory.list((dir, name) -> name.startsWith(prefix) && name.endsWith(SUFFIX));
+        if (names == null) {
+            return null;
+        }
+        long[] generations = new long[names.length];
+        int count = 0;
+        for (String name : names) {
+            try {
+                long generation = Long.parseLong(name.substring(prefix.length(), name.length() - SUFFIX.length()));
+                if (generation > after && generation <= upTo) {
+                    generations[count++] = generation;
+                }
+            } catch (NumberFormatException e) {
+                // Not one of ours.
+            }
+        }
+        Arrays.sort(generations, 0, count);
+
+        for (int i = count - 1; i >= 0; i--) {
+            File file = new File(directory, prefix + generations[i] + SUFFIX);
+            try {
+                Snapshot snapshot = Snapshot.read(file);
+                file.setLastModified(System.currentTimeMillis());
+                remember(key, snapshot);
+                return snapshot;
+            } catch (IOException e) {
+                // Evicted by another process or cut short; try the next one down.
+            }
+        }
+        return null;
+    }
+
+    private void evictFiles() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= diskBytes) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= diskBytes) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private static long entrySize(Snapshot snapshot) {
+        return (long) snapshot.getWordCount() * Long.BYTES;
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.snapshot;
+
+import org.example.model.Grid;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Binary snapshot of a grid: a header (magic, version, flags, dimensions, generation, word count, then the
+// rule as a length-prefixed ASCII string, -1 when none was recorded) followed by the packed cell words of
+// Grid's row-major layout, optionally deflated. Version 1 files have no rule and are still read.
+public class Snapshot {
+    private static final int MAGIC = 0x474F4C53;
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_RULE = 1;
+    private static final int FLAG_COMPRESSED = 1;
+    private static final int CHUNK_WORDS = 8192;
+    private static final int MAX_RULE_BYTES = 64;
+
+    private final int width;
+    private final int height;
+    private final long generation;
+    private final long[] words;
+    private final String rule;
+
+    // rule may be null when the snapshot is not tied to one, as for the result cache, whose keys include it.
+    public Snapshot(int width, int height, long generation, long[] words, String rule) {
+        this.width = width;
+        this.height = height;
+        this.generation = generation;
+        this.words = words;
+        this.rule = rule;
+    }
+
+    // Copies the current generation, so the grid can keep changing while the snapshot is written.
+    public static Snapshot capture(Grid grid, long generation, String rule) {
+        return new Snapshot(grid.getWidth(), grid.getHeight(), generation, grid.getCurrent().toLongArray(), rule);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public int getWordCount() {
+        return words.length;
+    }
+
+    // The rule the grid was simulated with, or null if none was recorded.
+    public String getRule() {
+        return rule;
+    }
+
+    public Grid toGrid() {
+        Grid grid = new Grid(width, height);
+        grid.importWords(words);
+        return grid;
+    }
+
+    // Writes to a uniquely named temporary file next to the target and renames it, so an interrupted write
+    // never replaces the previous snapshot with a truncated one and concurrent writers of the same file,
+    // in this process or another, never share a temporary file.
+    public void write(File file, boolean compress) throws IOException {
+        Path directory = file.getAbsoluteFile().getParentFile().toPath();
+        Path temp = Files.createTempFile(directory, file.getName(), ".tmp");
+        try {
+            try (DataOutputStream header = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeInt(compress ? FLAG_COMPRESSED : 0);
+                header.writeInt(width);
+                header.writeInt(height);
+                header.writeLong(generation);
+                header.writeInt(words.length);
+                if (rule == null) {
+                    header.writeInt(-1);
+                } else {
+                    byte[] ruleBytes = rule.getBytes(StandardCharsets.US_ASCII);
+                    header.writeInt(ruleBytes.length);
+                    header.write(ruleBytes);
+                }
+
+                OutputStream payload = compress ? new DeflaterOutputStream(header) : header;
+                writeWords(payload);
+                payload.flush();
+                if (payload instanceof DeflaterOutputStream) {
+                    ((DeflaterOutputStream) payload).finish();
+                }
+            }
+
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    public static Snapshot read(File file) throws IOException {
+        try (DataInputStream header = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return read(header, file, false);
+        }
+    }
+
+    // Reads only the header, for the rule of a checkpoint before its grid is needed.
+    public static String readRule(File file) throws IOException {
+        try (DataInputStream header = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return read(header, file, true).getRule();
+        }
+    }
+
+    private static Snapshot read(DataInputStream header, File file, boolean headerOnly) throws IOException {
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Not a snapshot file: " + file);
+        }
+        int version = header.readInt();
+        if (version != VERSION && version != VERSION_WITHOUT_RULE) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + file);
+        }
+
+        int flags = header.readInt();
+        int width = header.readInt();
+        int height = header.readInt();
+        long generation = header.readLong();
+        int wordCount = header.readInt();
+
+        if (width <= 0 || height <= 0 || wordCount < 0 || (long) wordCount * 64 > (long) width * height + 63) {
+            throw new IOException("Corrupt snapshot header in " + file);
+        }
+
+        String rule = null;
+        if (version != VERSION_WITHOUT_RULE) {
+            int ruleLength = header.readInt();
+            if (ruleLength > MAX_RULE_BYTES) {
+                throw new IOException("Corrupt snapshot header in " + file);
+            }
+            if (ruleLength >= 0) {
+                byte[] ruleBytes = new byte[ruleLength];
+                header.readFully(ruleBytes);
+                rule = new String(ruleBytes, StandardCharsets.US_ASCII);
+            }
+        }
+        if (headerOnly) {
+            return new Snapshot(width, height, generation, null, rule);
+        }
+
+        InputStream payload = (flags & FLAG_COMPRESSED) != 0 ? new InflaterInputStream(header) : header;
+        long[] words = readWords(payload, wordCount);
+        return new Snapshot(width, height, generation, words, rule);
+    }
+
+    private void writeWords(OutputStream out) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_WORDS * Long.BYTES);
+        for (int i = 0; i < words.length; i += CHUNK_WORDS) {
+            int count = Math.min(CHUNK_WORDS, words.length - i);
+            chunk.clear();
+            chunk.asLongBuffer().put(words, i, count);
+            out.write(chunk.array(), 0, count * Long.BYTES);
+        }
+    }
+
+    private static long[] readWords(InputStream in, int wordCount) throws IOException {
+        long[] words = new long[wordCount];
+        DataInputStream data = new DataInputStream(in);
+        byte[] bytes = new byte[CHUNK_WORDS * Long.BYTES];
+
+        for (int i = 0; i < wordCount; i += CHUNK_WORDS) {
+            int count = Math.min(CHUNK_WORDS, wordCount - i);
+            data.readFully(bytes, 0, count * Long.BYTES);
+            ByteBuffer.wrap(bytes, 0, count * Long.BYTES).asLongBuffer().get(words, i, count);
+        }
+        return words;
+    }
+}
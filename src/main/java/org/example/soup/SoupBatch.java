@@ -0,0 +1,182 @@
+package org.example.soup;
+
+import org.example.algorithms.StateHash;
+import org.example.algorithms.WordRules;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+// A fixed number of independent 64x64 bounded universes packed into one long[]: slot s owns words
+// [64s, 64s + 64), one word per row, so each universe is stepped with one SWAR word per row and the whole
+// batch is a single sequential pass over memory. A universe is retired as soon as it dies or repeats an
+// earlier state (verified exactly, like CycleDetector) and its slot is refilled with the next soup.
+class SoupBatch {
+    static final int SIZE = 64;
+
+    private final int slots;
+    private final int soupSize;
+    private final long seed;
+    private final int maxGenerations;
+    private final int maxPeriod;
+
+    private long[] current;
+    private long[] next;
+
+    private final long[] soupIndex;
+    private final int[] generation;
+    private final long[] hash;
+    private final int[] population;
+    // Hash of generation g of slot s is at hashes[s * maxPeriod + g % maxPeriod].
+    private final long[] hashes;
+    // Cycle candidate found by hash: generation it was found at, its period, and a copy of the state.
+    private final int[] candidateGeneration;
+    private final int[] candidatePeriod;
+    private final long[] candidateState;
+
+    SoupBatch(int slots, int soupSize, long seed, int maxGenerations, int maxPeriod) {
+        if (soupSize < 1 || soupSize > SIZE) {
+            throw new IllegalArgumentException("Soup size must be between 1 and " + SIZE + ": " + soupSize);
+        }
+        this.slots = slots;
+        this.soupSize = soupSize;
+        this.seed = seed;
+        this.maxGenerations = maxGenerations;
+        this.maxPeriod = maxPeriod;
+
+        this.current = new long[slots * SIZE];
+        this.next = new long[slots * SIZE];
+        this.soupIndex = new long[slots];
+        this.generation = new int[slots];
+        this.hash = new long[slots];
+        this.population = new int[slots];
+        this.hashes = new long[slots * maxPeriod];
+        this.candidateGeneration = new int[slots];
+        this.candidatePeriod = new int[slots];
+        this.candidateState = new long[slots * SIZE];
+    }
+
+    // Runs until nextSoup returns a negative index and every slot has been retired.
+    void run(LongSupplier nextSoup, Consumer<SoupResult> results) {
+        int active = 0;
+        for (int s = 0; s < slots; s++) {
+            if (load(s, nextSoup.getAsLong())) {
+                active++;
+            }
+        }
+
+        while (active > 0) {
+            step();
+            for (int s = 0; s < slots; s++) {
+                if (soupIndex[s] < 0) {
+                    continue;
+                }
+                SoupResult result = check(s);
+                if (result != null) {
+                    results.accept(result);
+                    if (!load(s, nextSoup.getAsLong())) {
+                        active--;
+                    }
+                }
+            }
+        }
+    }
+
+    // Fills the slot with soup index: soupSize x soupSize random cells (density 1/2) in the centre of the
+    // universe. The cells only depend on the seed and the index, so a soup can be reproduced on its own.
+    private boolean load(int s, long index) {
+        soupIndex[s] = index;
+        int base = s * SIZE;
+        Arrays.fill(current, base, base + SIZE, 0L);
+        if (index < 0) {
+            return false;
+        }
+
+        SplittableRandom random = new SplittableRandom(seed + index * 0x9E3779B97F4A7C15L);
+        int offset = (SIZE - soupSize) / 2;
+        long mask = soupSize == SIZE ? -1L : (1L << soupSize) - 1;
+        long h = 0;
+        int pop = 0;
+        for (int r = 0; r < SIZE; r++) {
+            if (r >= offset && r < offset + soupSize) {
+                current[base + r] = (random.nextLong() & mask) << offset;
+            }
+            h += StateHash.ofWord(r, current[base + r]);
+            pop += Long.bitCount(current[base + r]);
+        }
+
+        generation[s] = 0;
+        hash[s] = h;
+        population[s] = pop;
+        hashes[s * maxPeriod] = h;
+        candidatePeriod[s] = 0;
+        return true;
+    }
+
+    // Advances every active slot by one generation, keeping each slot's hash and population current.
+    private void step() {
+        for (int s = 0; s < slots; s++) {
+            if (soupIndex[s] < 0) {
+                continue;
+            }
+            int base = s * SIZE;
+            long h = hash[s];
+            int pop = 0;
+            long above = 0;
+            long row = current[base];
+            for (int r = 0; r < SIZE; r++) {
+                long below = r < SIZE - 1 ? current[base + r + 1] : 0;
+                long result = WordRules.nextWord(0, above, 0, 0, row, 0, 0, below, 0);
+                next[base + r] = result;
+                h += StateHash.delta(r, row, result);
+                pop += Long.bitCount(result);
+                above = row;
+                row = below;
+            }
+            hash[s] = h;
+            population[s] = pop;
+            generation[s]++;
+        }
+
+        long[] temp = current;
+        current = next;
+        next = temp;
+    }
+
+    // Returns the census entry if the slot is finished, recording its hash otherwise.
+    private SoupResult check(int s) {
+        int gen = generation[s];
+        if (population[s] == 0) {
+            return new SoupResult(soupIndex[s], SoupResult.Status.DIED, gen, 1, 0);
+        }
+
+        int base = s * SIZE;
+        if (candidatePeriod[s] > 0 && gen == candidateGeneration[s] + candidatePeriod[s]) {
+            int period = candidatePeriod[s];
+            candidatePeriod[s] = 0;
+            if (Arrays.equals(current, base, base + SIZE, candidateState, base, base + SIZE)) {
+                int start = candidateGeneration[s] - period;
+                return new SoupResult(soupIndex[s], SoupResult.Status.STABLE, start, period, population[s]);
+            }
+        }
+
+        if (candidatePeriod[s] == 0) {
+            int ring = s * maxPeriod;
+            for (int p = 1; p <= Math.min(gen, maxPeriod); p++) {
+                if (hashes[ring + (gen - p) % maxPeriod] == hash[s]) {
+                    candidateGeneration[s] = gen;
+                    candidatePeriod[s] = p;
+                    System.arraycopy(current, base, candidateState, base, SIZE);
+                    break;
+                }
+            }
+        }
+        hashes[s * maxPeriod + gen % maxPeriod] = hash[s];
+
+        if (gen >= maxGenerations) {
+            return new SoupResult(soupIndex[s], SoupResult.Status.UNSETTLED, gen, 0, population[s]);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.soup;
+
+// Census entry of one soup: how it ended, when its final cycle started, the cycle period and the
+// population at that point.
+public class SoupResult {
+    public enum Status {
+        DIED,
+        STABLE,
+        UNSETTLED
+    }
+
+    private final long index;
+    private final Status status;
+    private final int generation;
+    private final int period;
+    private final int population;
+
+    SoupResult(long index, Status status, int generation, int period, int population) {
+        this.index = index;
+        this.status = status;
+        this.generation = generation;
+        this.period = period;
+        this.population = population;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    // First generation of the final cycle (or of the empty board); for UNSETTLED soups the generation
+    // limit.
+    public int getGeneration() {
+        return generation;
+    }
+
+    // 1 for still lifes and dead soups, 0 for UNSETTLED soups.
+    public int getPeriod() {
+        return period;
+    }
+
+    public int getPopulation() {
+        return population;
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.soup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs many random soups to stabilization. Each worker thread owns one SoupBatch and pulls soup indices
+// from a shared counter, so a thread whose soups settle quickly simply takes more of them.
+public class SoupSearch {
+    public static final int DEFAULT_SOUP_SIZE = 16;
+    public static final int DEFAULT_MAX_GENERATIONS = 10000;
+    public static final int DEFAULT_BATCH_SIZE = 512;
+    // Longest period recognized; soups in longer cycles end up UNSETTLED.
+    public static final int MAX_PERIOD = 32;
+
+    private final int soupSize;
+    private final long seed;
+    private final int maxGenerations;
+    private final int threads;
+
+    public SoupSearch(int soupSize, long seed, int maxGenerations, int threads) {
+        if (soupSize < 1 || soupSize > SoupBatch.SIZE) {
+            throw new IllegalArgumentException("Soup size must be between 1 and " + SoupBatch.SIZE + ": " + soupSize);
+        }
+        if (maxGenerations <= 0) {
+            throw new IllegalArgumentException("Max generations must be positive: " + maxGenerations);
+        }
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        int actualThreads = Math.max(1, Math.min(threads, maxThreads));
+        if (actualThreads != threads) {
+            System.out.println("Warning: Requested " + threads + " threads, but only using "
+                    + actualThreads + " (system maximum)");
+        }
+        this.soupSize = soupSize;
+        this.seed = seed;
+        this.maxGenerations = maxGenerations;
+        this.threads = actualThreads;
+    }
+
+    // Evolves soups 0 .. count-1 and returns their census entries ordered by index.
+    public List<SoupResult> run(long count) {
+        AtomicLong nextSoup = new AtomicLong();
+        int batchSize = (int) Math.max(1, Math.min(DEFAULT_BATCH_SIZE, (count + threads - 1) / threads));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "GameOfLife-Soup");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<List<SoupResult>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    List<SoupResult> results = new ArrayList<>();
+                    new SoupBatch(batchSize, soupSize, seed, maxGenerations, MAX_PERIOD).run(() -> {
+                        long index = nextSoup.getAndIncrement();
+                        return index < count ? index : -1;
+                    }, results::add);
+                    return results;
+                }));
+            }
+
+            List<SoupResult> census = new ArrayList<>();
+            for (Future<List<SoupResult>> future : futures) {
+                census.addAll(future.get());
+            }
+            census.sort(Comparator.comparingLong(SoupResult::getIndex));
+            return census;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Soup search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Soup search failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public static void printSummary(List<SoupResult> census, long timeMs) {
+        Map<SoupResult.Status, Integer> byStatus = new TreeMap<>();
+        Map<Integer, Integer> byPeriod = new TreeMap<>();
+        for (SoupResult result : census) {
+            byStatus.merge(result.getStatus(), 1, Integer::sum);
+            if (result.getStatus() == SoupResult.Status.STABLE) {
+                byPeriod.merge(result.getPeriod(), 1, Integer::sum);
+            }
+        }
+
+        System.out.println("Soups: " + census.size());
+        System.out.println("Time: " + timeMs + " ms (" + String.format("%.0f", census.size() * 1000.0 / Math.max(1, timeMs))
+                + " soups/s)");
+        for (Map.Entry<SoupResult.Status, Integer> entry : byStatus.entrySet()) {
+            System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+        for (Map.Entry<Integer, Integer> entry : byPeriod.entrySet()) {
+            System.out.println("    period " + entry.getKey() + ": " + entry.getValue());
+        }
+
+        List<SoupResult> longest = new ArrayList<>(census);
+        longest.removeIf(result -> result.getStatus() == SoupResult.Status.UNSETTLED);
+        longest.sort(Comparator.comparingInt(SoupResult::getGeneration).reversed());
+        System.out.println("Longest-lived soups:");
+        for (SoupResult result : longest.subList(0, Math.min(5, longest.size()))) {
+            System.out.println("  #" + result.getIndex() + ": " + result.getStatus() + " at generation "
+                    + result.getGeneration() + ", period " + result.getPeriod() + ", population "
+                    + result.getPopulation());
+        }
+    }
+
+    public static void writeCensus(List<SoupResult> census, File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("soup,status,generation,period,population");
+            for (SoupResult result : census) {
+                writer.println(result.getIndex() + "," + result.getStatus() + "," + result.getGeneration() + ","
+                        + result.getPeriod() + "," + result.getPopulation());
+            }
+        }
+    }
+}
@@ -1,40 +1,54 @@
 package org.example.utils;
 
+import org.example.model.ChunkedGrid;
 import org.example.model.Grid;
 
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 
 public class StatisticsLogger {
     private static final String LOG_FILE = "performance_stats.csv";
-    private static boolean headerWritten = false;
+    private static final String CACHE_LOG_FILE = "cache_stats.csv";
 
     public static void log(String method, long time , Grid grid, int threads, int steps) {
+        log(method, time, grid.getLiveCellCount(), (long) grid.getWidth() * grid.getHeight(), threads, steps);
+    }
+
+    // An unbounded universe has no fixed size, so dead cells are counted inside the live bounding box.
+    public static void log(String method, long time, ChunkedGrid grid, int threads, int steps) {
+        long[] box = grid.getBoundingBox();
+        long area = box == null ? 0 : (box[2] - box[0] + 1) * (box[3] - box[1] + 1);
+        System.out.println("Chunks in use: " + grid.getChunkCount());
+        log(method, time, grid.getLiveCellCount(), area, threads, steps);
+    }
+
+    public static void log(String method, long time, long liveCellCount, long totalCells, int threads, int steps) {
         System.out.println("Method: " + method);
         System.out.println("Execution time: " + time + " ms");
 
         String baseMethod = method.contains("-") ? method.substring(0, method.indexOf("-")) : method;
         String patternName = method.contains("-") ? method.substring(method.indexOf("-") + 1) : "unknown";
 
-        if (baseMethod.equals("parallel")) {
+        if (threads > 0) {
             System.out.println("Threads: " + threads);
         }
 
-        int liveCellCount = grid.getLiveCellCount();
-        int totalCells = grid.getWidth() * grid.getHeight();
-        int deadCellCount = totalCells - liveCellCount;
-        double liveCellPercentage = (double) liveCellCount / totalCells * 100;
+        long deadCellCount = totalCells - liveCellCount;
+        double liveCellPercentage = totalCells == 0 ? 0 : (double) liveCellCount / totalCells * 100;
 
         logToCsv(patternName, baseMethod, time, liveCellCount, deadCellCount, liveCellPercentage, threads, steps);
     }
 
-    private static void logToCsv(String patternName, String baseMethod, long time,
-                                 int liveCells, int deadCells, double livePercentage, int threads, int steps) {
+    // The header is written only when the file is new, so rows from separate runs share a single header.
+    private static synchronized void logToCsv(String patternName, String baseMethod, long time,
+                                              long liveCells, long deadCells, double livePercentage,
+                                              int threads, int steps) {
+        boolean newFile = new File(LOG_FILE).length() == 0;
         try (PrintWriter writer = new PrintWriter(new FileWriter(LOG_FILE, true))) {
-            if (!headerWritten) {
+            if (newFile) {
                 writer.println("Method, PatternName, ExecutionTime(ms), LiveCells, DeadCells, LiveCellPercentage, Threads, Steps");
-                headerWritten = true;
             }
             writer.println(baseMethod + ", " + patternName + ", " + time + ", " +
                     liveCells + ", " + deadCells + ", " +
@@ -46,6 +60,28 @@ public class StatisticsLogger {
         }
     }
 
+    // Result cache lookups go to a file of their own, so that performance_stats.csv only holds simulated runs.
+    public static synchronized void logCache(String method, long hits, long resumes, long misses,
+                                             long generationsSaved) {
+        String baseMethod = method.contains("-") ? method.substring(0, method.indexOf("-")) : method;
+        String patternName = method.contains("-") ? method.substring(method.indexOf("-") + 1) : "unknown";
+        long lookups = hits + resumes + misses;
+        double hitRate = lookups == 0 ? 0 : (double) hits / lookups * 100;
+        double missRate = lookups == 0 ? 0 : (double) misses / lookups * 100;
+
+        boolean newFile = new File(CACHE_LOG_FILE).length() == 0;
+        try (PrintWriter writer = new PrintWriter(new FileWriter(CACHE_LOG_FILE, true))) {
+            if (newFile) {
+                writer.println("Method, PatternName, Hits, Resumes, Misses, HitRate, MissRate, GenerationsSaved");
+            }
+            writer.println(baseMethod + ", " + patternName + ", " + hits + ", " + resumes + ", " + misses + ", "
+                    + String.format("%.2f", hitRate) + ", " + String.format("%.2f", missRate) + ", "
+                    + generationsSaved);
+        } catch (IOException e) {
+            System.err.println("Error writing to log file: " + e.getMessage());
+        }
+    }
+
     public static void logSystemInfo() {
         System.out.println("\nSystem Information:");
         System.out.println("------------------");
@@ -0,0 +1,113 @@
+// Word-level kernel: the board uses the PackedGrid layout (64 cells per ulong, rows padded to whole
+// words, bit i of word k is column 64k + i). Each work-group loads a tile of TILE_ROWS x TILE_WORDS
+// words plus a halo of GENS rows and one word on each side into local memory, advances it up to GENS
+// generations there and writes the inner words back. Every output word is written by exactly one
+// work-group, so the output buffer needs no clearing and no atomics.
+//
+// Built with -D TILE_WORDS=.. -D TILE_ROWS=.. -D GENS=.. (GENS <= 64, so one halo word is enough).
+
+#define LOCAL_WORDS (TILE_WORDS + 2)
+#define LOCAL_ROWS (TILE_ROWS + 2 * GENS)
+
+inline ulong nextWord(ulong nw, ulong n, ulong ne,
+                      ulong w, ulong c, ulong e,
+                      ulong sw, ulong s, ulong se) {
+    ulong aboveWest = (n << 1) | (nw >> 63);
+    ulong aboveEast = (n >> 1) | (ne << 63);
+    ulong west = (c << 1) | (w >> 63);
+    ulong east = (c >> 1) | (e << 63);
+    ulong belowWest = (s << 1) | (sw >> 63);
+    ulong belowEast = (s >> 1) | (se << 63);
+
+    ulong above0 = aboveWest ^ n ^ aboveEast;
+    ulong above1 = (aboveWest & n) | (aboveEast & (aboveWest ^ n));
+    ulong below0 = belowWest ^ s ^ belowEast;
+    ulong below1 = (belowWest & s) | (belowEast & (belowWest ^ s));
+    ulong middle0 = west ^ east;
+    ulong middle1 = west & east;
+
+    ulong sum0 = above0 ^ below0;
+    ulong carry0 = above0 & below0;
+    ulong sum1 = above1 ^ below1 ^ carry0;
+    ulong sum2 = (above1 & below1) | (carry0 & (above1 ^ below1));
+
+    ulong count0 = sum0 ^ middle0;
+    ulong carry1 = sum0 & middle0;
+    ulong count1 = sum1 ^ middle1 ^ carry1;
+    ulong carry2 = (sum1 & middle1) | (carry1 & (sum1 ^ middle1));
+    ulong count2 = sum2 ^ carry2;
+
+    return ~count2 & count1 & (count0 | c);
+}
+
+inline ulong localWord(__local ulong tile[LOCAL_ROWS][LOCAL_WORDS], int r, int k) {
+    return (r < 0 || r >= LOCAL_ROWS || k < 0 || k >= LOCAL_WORDS) ? 0 : tile[r][k];
+}
+
+__kernel void lifeGenerations(
+    __global const ulong *input,
+    __global ulong *output,
+    const int wordsPerRow,
+    const int height,
+    const ulong lastWordMask,
+    const int generations
+) {
+    __local ulong tiles[2][LOCAL_ROWS][LOCAL_WORDS];
+
+    int lx = (int) get_local_id(0);
+    int ly = (int) get_local_id(1);
+    int sx = (int) get_local_size(0);
+    int sy = (int) get_local_size(1);
+    int firstWord = (int) get_group_id(0) * TILE_WORDS - 1;
+    int firstRow = (int) get_group_id(1) * TILE_ROWS - generations;
+
+    for (int r = ly; r < LOCAL_ROWS; r += sy) {
+        int row = firstRow + r;
+        for (int k = lx; k < LOCAL_WORDS; k += sx) {
+            int word = firstWord + k;
+            bool inside = row >= 0 && row < height && word >= 0 && word < wordsPerRow;
+            tiles[0][r][k] = inside ? input[row * wordsPerRow + word] : 0;
+        }
+    }
+    barrier(CLK_LOCAL_MEM_FENCE);
+
+    int src = 0;
+    for (int g = 0; g < generations; g++) {
+        for (int r = ly; r < LOCAL_ROWS; r += sy) {
+            int row = firstRow + r;
+            for (int k = lx; k < LOCAL_WORDS; k += sx) {
+                int word = firstWord + k;
+                ulong result = 0;
+                // Cells outside the grid stay dead; cells near the tile edge go wrong, but they are
+                // at least GENS cells away from the words that are written back.
+                if (row >= 0 && row < height && word >= 0 && word < wordsPerRow) {
+                    result = nextWord(localWord(tiles[src], r - 1, k - 1), localWord(tiles[src], r - 1, k),
+                                      localWord(tiles[src], r - 1, k + 1),
+                                      localWord(tiles[src], r, k - 1), tiles[src][r][k],
+                                      localWord(tiles[src], r, k + 1),
+                                      localWord(tiles[src], r + 1, k - 1), localWord(tiles[src], r + 1, k),
+                                      localWord(tiles[src], r + 1, k + 1));
+                    if (word == wordsPerRow - 1) {
+                        result &= lastWordMask;
+                    }
+                }
+                tiles[1 - src][r][k] = result;
+            }
+        }
+        barrier(CLK_LOCAL_MEM_FENCE);
+        src = 1 - src;
+    }
+
+    for (int r = generations + ly; r < generations + TILE_ROWS; r += sy) {
+        int row = firstRow + r;
+        if (row >= height) {
+            break;
+        }
+        for (int k = 1 + lx; k <= TILE_WORDS; k += sx) {
+            int word = firstWord + k;
+            if (word < wordsPerRow) {
+                output[row * wordsPerRow + word] = tiles[src][r][k];
+            }
+        }
+    }
+}
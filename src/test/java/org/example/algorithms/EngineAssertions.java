@@ -0,0 +1,149 @@
+package org.example.algorithms;
+
+import org.example.engine.EngineOptions;
+import org.example.engine.EngineRegistry;
+import org.example.engine.GenerationObserver;
+import org.example.engine.LifeEngine;
+import org.example.model.Grid;
+import org.example.model.Rule;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+// Checks an engine from the registry against a reference on random boards. Sizes are odd so rows end inside
+// a word, and the steps are split over two calls so engines that keep state between calls are covered.
+final class EngineAssertions {
+    static final int[][] SIZES = {{37, 23}, {101, 67}, {129, 65}, {65, 1}};
+    static final int FIRST_STEPS = 23;
+    static final int SECOND_STEPS = 38;
+
+    private static final EngineRegistry REGISTRY = EngineRegistry.createDefault();
+
+    private EngineAssertions() {
+    }
+
+    static EngineOptions options(Consumer<EngineOptions> setup) {
+        EngineOptions options = new EngineOptions();
+        setup.accept(options);
+        return options;
+    }
+
+    // Compares the engine with GameOfLifeSequential on every size; inspect sees each engine before it is closed.
+    static void assertMatchesSequential(String mode, EngineOptions options, Consumer<LifeEngine> inspect) {
+        for (int[] size : SIZES) {
+            Grid expected = randomGrid(size[0], size[1], size[0] * 31L + size[1]);
+            Grid actual = copy(expected);
+
+            GameOfLifeSequential sequential = new GameOfLifeSequential();
+            sequential.simulate(expected, FIRST_STEPS);
+            sequential.simulate(expected, SECOND_STEPS);
+
+            try (LifeEngine engine = REGISTRY.create(mode, options)) {
+                engine.simulate(actual, FIRST_STEPS);
+                engine.simulate(actual, SECOND_STEPS);
+                inspect.accept(engine);
+            }
+            assertArrayEquals(expected.toWords(), actual.toWords(), mode + " on " + size[0] + "x" + size[1]);
+        }
+    }
+
+    static void assertMatchesSequential(String mode, EngineOptions options) {
+        assertMatchesSequential(mode, options, engine -> { });
+    }
+
+    // Runs the engine through an observer that stops after one generation, then two, then three and so on,
+    // and compares every grid it is shown with GameOfLifeSequential.
+    static void assertObservedMatchesSequential(String mode, EngineOptions options) {
+        for (int[] size : SIZES) {
+            Grid expected = randomGrid(size[0], size[1], size[0] * 13L + size[1]);
+            Grid actual = copy(expected);
+            GameOfLifeSequential sequential = new GameOfLifeSequential();
+            int[] stops = new int[1];
+
+            try (LifeEngine engine = REGISTRY.create(mode, options)) {
+                engine.simulate(actual, FIRST_STEPS + SECOND_STEPS, new GenerationObserver() {
+                    @Override
+                    public int stepsToNext() {
+                        return stops[0] + 1;
+                    }
+
+                    @Override
+                    public void observe(Grid grid, int steps) {
+                        sequential.simulate(expected, steps);
+                        stops[0]++;
+                        assertArrayEquals(expected.toWords(), grid.toWords(),
+                                mode + " on " + size[0] + "x" + size[1] + " at stop " + stops[0]);
+                    }
+                });
+            }
+            assertArrayEquals(expected.toWords(), actual.toWords(), mode + " on " + size[0] + "x" + size[1]);
+        }
+    }
+
+    // Compares the engine with a cell-by-cell step of the rule, for rules the sequential engine cannot run.
+    static void assertMatchesRule(String mode, Rule rule) {
+        EngineOptions options = new EngineOptions();
+        options.setRule(rule);
+        for (int[] size : SIZES) {
+            Grid expected = randomGrid(size[0], size[1], size[0] * 17L + size[1]);
+            Grid actual = copy(expected);
+
+            for (int i = 0; i < FIRST_STEPS + SECOND_STEPS; i++) {
+                step(expected, rule);
+            }
+
+            try (LifeEngine engine = REGISTRY.create(mode, options)) {
+                engine.simulate(actual, FIRST_STEPS);
+                engine.simulate(actual, SECOND_STEPS);
+            }
+            assertArrayEquals(expected.toWords(), actual.toWords(), rule + " on " + size[0] + "x" + size[1]);
+        }
+    }
+
+    static Grid randomGrid(int width, int height, long seed) {
+        Random random = new Random(seed);
+        Grid grid = new Grid(width, height);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                grid.setCell(row, col, random.nextInt(3) == 0);
+            }
+        }
+        return grid;
+    }
+
+    static Grid copy(Grid grid) {
+        Grid copy = new Grid(grid.getWidth(), grid.getHeight());
+        copy.importWords(grid.toWords());
+        return copy;
+    }
+
+    // One generation of the rule straight from its definition, with everything outside the grid dead.
+    static void step(Grid grid, Rule rule) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        boolean[][] next = new boolean[height][width];
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int neighbours = 0;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int r = row + dr;
+                        int c = col + dc;
+                        if ((dr != 0 || dc != 0) && r >= 0 && r < height && c >= 0 && c < width
+                                && grid.getCell(r, c)) {
+                            neighbours++;
+                        }
+                    }
+                }
+                next[row][col] = rule.nextState(grid.getCell(row, col), neighbours);
+            }
+        }
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                grid.setCell(row, col, next[row][col]);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.example.algorithms.EngineAssertions.assertMatchesSequential;
+import static org.example.algorithms.EngineAssertions.options;
+
+class GameOfLifeBandParallelTest {
+
+    @Test
+    void matchesSequential() {
+        assertMatchesSequential("bands", options(o -> o.setThreads(3)));
+    }
+}
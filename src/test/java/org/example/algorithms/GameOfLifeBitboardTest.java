@@ -0,0 +1,27 @@
+package org.example.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.example.algorithms.EngineAssertions.assertMatchesSequential;
+import static org.example.algorithms.EngineAssertions.assertObservedMatchesSequential;
+import static org.example.algorithms.EngineAssertions.options;
+
+class GameOfLifeBitboardTest {
+
+    @Test
+    void matchesSequential() {
+        assertMatchesSequential("bitboard", options(o -> { }));
+    }
+
+    // The detector keeps its history from the first call into the second, which must not change the result.
+    @Test
+    void matchesSequentialWithCycleDetection() {
+        assertMatchesSequential("bitboard", options(o -> o.setCycleWindow(16)));
+    }
+
+    // The detector is run once per stop and carries its history across them.
+    @Test
+    void observedMatchesSequential() {
+        assertObservedMatchesSequential("bitboard", options(o -> o.setCycleWindow(16)));
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.example.algorithms.EngineAssertions.assertMatchesSequential;
+import static org.example.algorithms.EngineAssertions.options;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameOfLifeHashLifeTest {
+
+    @Test
+    void matchesSequential() {
+        assertMatchesSequential("hashlife", options(o -> { }));
+    }
+
+    // A node limit this small forces the table to be collected in the middle of the runs.
+    @Test
+    void matchesSequentialWhileCollectingNodes() {
+        long[] collections = new long[1];
+        assertMatchesSequential("hashlife", options(o -> o.setMaxNodes(2000)),
+                engine -> collections[0] += ((GameOfLifeHashLife) engine).getCollections());
+        assertTrue(collections[0] > 0, "node table never collected");
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.algorithms;
+
+import org.example.model.Rule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.example.algorithms.EngineAssertions.assertMatchesRule;
+import static org.example.algorithms.EngineAssertions.assertMatchesSequential;
+import static org.example.algorithms.EngineAssertions.assertObservedMatchesSequential;
+import static org.example.algorithms.EngineAssertions.options;
+
+class GameOfLifeLookupTest {
+
+    @Test
+    void matchesSequential() {
+        assertMatchesSequential("lookup", options(o -> { }));
+    }
+
+    // B0 rules bring dead cells with no neighbours to life, which must stop at the grid border.
+    @ParameterizedTest
+    @ValueSource(strings = {"B3/S23", "B36/S23", "B2/S", "B0/S8", "B01/S012345678", "B345/S5"})
+    void matchesRule(String rule) {
+        assertMatchesRule("lookup", Rule.parse(rule));
+    }
+
+    @Test
+    void observedMatchesSequential() {
+        assertObservedMatchesSequential("lookup", options(o -> { }));
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.example.algorithms.EngineAssertions.assertMatchesSequential;
+import static org.example.algorithms.EngineAssertions.options;
+
+class GameOfLifeParallelTest {
+
+    @Test
+    void matchesSequential() {
+        assertMatchesSequential("parallel", options(o -> o.setThreads(3)));
+    }
+
+    @Test
+    void stealingMatchesSequential() {
+        assertMatchesSequential("parallel", options(o -> {
+            o.setThreads(3);
+            o.setScheduler(GameOfLifeParallel.SCHEDULER_STEALING);
+        }));
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.example.algorithms.EngineAssertions.assertMatchesSequential;
+import static org.example.algorithms.EngineAssertions.options;
+
+class GameOfLifeTemporalTest {
+
+    // A depth that divides neither call's steps, and tiles that split the rows and words unevenly.
+    @Test
+    void matchesSequential() {
+        assertMatchesSequential("temporal", options(o -> {
+            o.setBlockDepth(4);
+            o.setBlockSize(7, 100);
+            o.setThreads(2);
+        }));
+    }
+
+    @Test
+    void singleTileMatchesSequential() {
+        assertMatchesSequential("temporal", options(o -> {
+            o.setBlockDepth(5);
+            o.setBlockSize(1000, 1000);
+            o.setThreads(1);
+        }));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.algorithms;
+
+import org.example.engine.GenerationObserver;
+import org.example.model.Grid;
+import org.junit.jupiter.api.Test;
+
+import static org.example.algorithms.EngineAssertions.assertMatchesSequential;
+import static org.example.algorithms.EngineAssertions.assertObservedMatchesSequential;
+import static org.example.algorithms.EngineAssertions.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameOfLifeTiledTest {
+
+    // Tiles of five rows do not divide any of the heights, so the last tile row is partial.
+    @Test
+    void matchesSequential() {
+        assertMatchesSequential("tiled", options(o -> o.setTileRows(5)));
+    }
+
+    // The detector keeps its history from the first call into the second, which must not change the result.
+    @Test
+    void matchesSequentialWithCycleDetection() {
+        assertMatchesSequential("tiled", options(o -> {
+            o.setTileRows(5);
+            o.setCycleWindow(16);
+        }));
+    }
+
+    @Test
+    void observedMatchesSequential() {
+        assertObservedMatchesSequential("tiled", options(o -> o.setTileRows(5)));
+    }
+
+    // A glider in the corner of a 16x16-tile board keeps at most a few tiles awake. Stopping after every
+    // generation must not wake the others: only the first generation steps all 256 tiles.
+    @Test
+    void tilesSleepAcrossObserverStops() {
+        Grid grid = new Grid(1024, 1024);
+        int[][] glider = {{0, 1}, {1, 2}, {2, 0}, {2, 1}, {2, 2}};
+        for (int[] cell : glider) {
+            grid.setCell(10 + cell[0], 10 + cell[1], true);
+        }
+
+        GameOfLifeTiled engine = new GameOfLifeTiled();
+        engine.simulate(grid, 40, new GenerationObserver() {
+            @Override
+            public int stepsToNext() {
+                return 1;
+            }
+
+            @Override
+            public void observe(Grid current, int steps) {
+            }
+        });
+
+        String[] counts = engine.getSummary().replace("Tiles stepped: ", "").split(" of ");
+        long stepped = Long.parseLong(counts[0]);
+        assertEquals(256 * 40, Long.parseLong(counts[1]));
+        assertTrue(stepped < 256 + 39 * 9, "tiles stepped: " + stepped);
+    }
+}
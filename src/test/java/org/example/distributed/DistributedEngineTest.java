@@ -0,0 +1,50 @@
+package org.example.distributed;
+
+import org.example.algorithms.GameOfLifeBitboard;
+import org.example.model.Grid;
+import org.example.rle.RLEParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DistributedEngineTest {
+    private static final File GUN = new File("src/main/resources/patterns/gosper_glider_gun.rle");
+    private static final int STEPS = 300;
+
+    @Test
+    void twoWorkersMatchBitboard() {
+        assertMatchesBitboard(2);
+    }
+
+    @Test
+    void threeWorkersMatchBitboard() {
+        assertMatchesBitboard(3);
+    }
+
+    // Workers that cannot load their class never connect; the timeout must surface, not a failure in close.
+    @Test
+    void failedStartReportsTimeout() {
+        Grid grid = RLEParser.parse(GUN);
+        try (DistributedEngine engine = new DistributedEngine(2, "does-not-exist", 2000)) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> engine.simulate(grid, 1));
+            assertTrue(e.getMessage().contains("Timed out"), e.getMessage());
+        }
+    }
+
+    // Runs the steps in two calls, so the second one reuses the running workers.
+    private static void assertMatchesBitboard(int workers) {
+        Grid expected = RLEParser.parse(GUN);
+        new GameOfLifeBitboard().simulate(expected, STEPS);
+
+        Grid actual = RLEParser.parse(GUN);
+        try (DistributedEngine engine = new DistributedEngine(workers)) {
+            engine.simulate(actual, STEPS / 2);
+            engine.simulate(actual, STEPS - STEPS / 2);
+        }
+        assertArrayEquals(expected.toWords(), actual.toWords());
+    }
+}
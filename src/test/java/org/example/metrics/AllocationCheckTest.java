@@ -0,0 +1,57 @@
+package org.example.metrics;
+
+import org.example.algorithms.GameOfLifeParallel;
+import org.example.algorithms.GameOfLifeSequential;
+import org.example.engine.LifeEngine;
+import org.example.model.Grid;
+import org.example.rle.RLEParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AllocationCheckTest {
+    private static final File GUN = new File("src/main/resources/patterns/gosper_glider_gun.rle");
+    private static final int STEPS = AllocationCheck.DEFAULT_WARMUP_STEPS + 2000;
+
+    @AfterEach
+    void disable() {
+        AllocationCheck.disable();
+    }
+
+    @Test
+    void sequentialStepsAllocateNothing() {
+        assertNoAllocation(new GameOfLifeSequential());
+    }
+
+    @Test
+    void parallelStepsAllocateNothing() {
+        try (GameOfLifeParallel engine = new GameOfLifeParallel(2)) {
+            assertNoAllocation(engine);
+        }
+    }
+
+    @Test
+    void failsOnFirstAllocatingStep() {
+        AllocationCheck check = AllocationCheck.enable(1);
+        check.beginStep();
+        check.endStep();
+        check.beginStep();
+        byte[][] garbage = new byte[1][];
+        garbage[0] = new byte[1024];
+        assertThrows(IllegalStateException.class, check::endStep);
+        assertEquals(1024, garbage[0].length);
+    }
+
+    private static void assertNoAllocation(LifeEngine engine) {
+        Grid grid = RLEParser.parse(GUN);
+        AllocationCheck check = AllocationCheck.enable(AllocationCheck.DEFAULT_WARMUP_STEPS);
+        engine.simulate(grid, STEPS);
+        assertEquals(STEPS - AllocationCheck.DEFAULT_WARMUP_STEPS, check.getCheckedSteps());
+        assertTrue(grid.getLiveCellCount() > 0);
+    }
+}
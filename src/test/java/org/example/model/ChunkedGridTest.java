@@ -0,0 +1,92 @@
+package org.example.model;
+
+import org.example.algorithms.GameOfLifeParallel;
+import org.example.algorithms.GameOfLifeSequential;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The unbounded universe is compared with a bounded Grid whose margin is wider than the steps, so a
+// pattern can never reach its border and the two must agree cell for cell.
+class ChunkedGridTest {
+    private static final int STEPS = 150;
+    private static final int MARGIN = STEPS + 2;
+
+    // A soup straddling the origin covers chunks on both sides of both axes.
+    @Test
+    void soupAcrossOriginMatchesGrid() {
+        Random random = new Random(5);
+        boolean[][] cells = new boolean[90][150];
+        for (boolean[] row : cells) {
+            for (int col = 0; col < row.length; col++) {
+                row[col] = random.nextInt(3) == 0;
+            }
+        }
+        assertMatchesGrid(cells, -45, -75, false);
+        assertMatchesGrid(cells, -45, -75, true);
+    }
+
+    // A glider heading up and left from near the origin crosses chunk boundaries into negative coordinates.
+    @Test
+    void gliderIntoNegativeCoordinatesMatchesGrid() {
+        boolean[][] cells = {
+                {true, true, true},
+                {true, false, false},
+                {false, true, false},
+        };
+        assertMatchesGrid(cells, 2, 2, false);
+        assertMatchesGrid(cells, 62, 62, true);
+    }
+
+    private static void assertMatchesGrid(boolean[][] cells, long top, long left, boolean parallel) {
+        int height = cells.length;
+        int width = cells[0].length;
+        ChunkedGrid chunked = new ChunkedGrid();
+        Grid bounded = new Grid(width + 2 * MARGIN, height + 2 * MARGIN);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (cells[row][col]) {
+                    chunked.setCell(top + row, left + col, true);
+                    bounded.setCell(MARGIN + row, MARGIN + col, true);
+                }
+            }
+        }
+
+        if (parallel) {
+            try (GameOfLifeParallel engine = new GameOfLifeParallel(3)) {
+                engine.simulate(chunked, STEPS, 3);
+            }
+        } else {
+            new GameOfLifeSequential().simulate(chunked, STEPS);
+        }
+        new GameOfLifeSequential().simulate(bounded, STEPS);
+
+        assertEquals(bounded.getLiveCellCount(), chunked.getLiveCellCount());
+        for (int row = 0; row < bounded.getHeight(); row++) {
+            for (int col = 0; col < bounded.getWidth(); col++) {
+                assertEquals(bounded.getCell(row, col), chunked.getCell(top - MARGIN + row, left - MARGIN + col),
+                        "cell " + (top - MARGIN + row) + "," + (left - MARGIN + col));
+            }
+        }
+        assertArrayEquals(boundingBox(bounded, top - MARGIN, left - MARGIN), chunked.getBoundingBox());
+    }
+
+    private static long[] boundingBox(Grid grid, long top, long left) {
+        long minRow = Long.MAX_VALUE, minCol = Long.MAX_VALUE;
+        long maxRow = Long.MIN_VALUE, maxCol = Long.MIN_VALUE;
+        for (int row = 0; row < grid.getHeight(); row++) {
+            for (int col = 0; col < grid.getWidth(); col++) {
+                if (grid.getCell(row, col)) {
+                    minRow = Math.min(minRow, top + row);
+                    maxRow = Math.max(maxRow, top + row);
+                    minCol = Math.min(minCol, left + col);
+                    maxCol = Math.max(maxCol, left + col);
+                }
+            }
+        }
+        return minRow == Long.MAX_VALUE ? null : new long[]{minRow, minCol, maxRow, maxCol};
+    }
+}
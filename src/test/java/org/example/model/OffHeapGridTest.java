@@ -0,0 +1,107 @@
+package org.example.model;
+
+import org.example.algorithms.GameOfLifeBandParallel;
+import org.example.algorithms.GameOfLifeBitboard;
+import org.example.algorithms.GameOfLifeSequential;
+import org.example.rle.RLEParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Off-heap boards are checked against the on-heap Grid. Segments are shrunk to a few rows so that every
+// board spans several buffers, with a partial last segment, and widths end inside a word.
+class OffHeapGridTest {
+    private static final File GUN = new File("src/main/resources/patterns/gosper_glider_gun.rle");
+    private static final int[] WIDTHS = {37, 64, 100, 129};
+    private static final int HEIGHT = 41;
+    private static final int ROWS_PER_SEGMENT = 4;
+    private static final int STEPS = 60;
+
+    @Test
+    void streamingLoadMatchesParse() throws IOException {
+        Grid expected = RLEParser.parse(GUN);
+        try (OffHeapGrid direct = RLEParser.parseOffHeap(GUN, null)) {
+            assertSameCells(expected, direct);
+        }
+
+        File mapFile = File.createTempFile("offheap", ".grid");
+        mapFile.deleteOnExit();
+        try (OffHeapGrid mapped = RLEParser.parseOffHeap(GUN, mapFile)) {
+            assertSameCells(expected, mapped);
+        }
+    }
+
+    @Test
+    void bitboardStepsMatchSequential() throws IOException {
+        for (int width : WIDTHS) {
+            Grid expected = randomGrid(width, width);
+            new GameOfLifeSequential().simulate(expected, STEPS);
+
+            try (OffHeapGrid grid = segmented(width, null)) {
+                fill(grid, width);
+                new GameOfLifeBitboard().simulate(grid, STEPS);
+                assertSameCells(expected, grid);
+            }
+        }
+    }
+
+    @Test
+    void bandStepsOnMappedFileMatchSequential() throws IOException {
+        for (int width : WIDTHS) {
+            Grid expected = randomGrid(width, width);
+            new GameOfLifeSequential().simulate(expected, STEPS);
+
+            File mapFile = File.createTempFile("offheap", ".grid");
+            mapFile.deleteOnExit();
+            try (OffHeapGrid grid = segmented(width, mapFile);
+                 GameOfLifeBandParallel engine = new GameOfLifeBandParallel(3)) {
+                fill(grid, width);
+                engine.simulate(grid, STEPS, 3);
+                assertSameCells(expected, grid);
+            }
+        }
+    }
+
+    private static OffHeapGrid segmented(int width, File mapFile) {
+        long segmentBytes = (long) ((width + 63) >>> 6) * Long.BYTES * ROWS_PER_SEGMENT;
+        return mapFile == null
+                ? OffHeapGrid.allocate(width, HEIGHT, segmentBytes)
+                : OffHeapGrid.mapped(width, HEIGHT, mapFile, segmentBytes);
+    }
+
+    private static Grid randomGrid(int width, long seed) {
+        Random random = new Random(seed);
+        Grid grid = new Grid(width, HEIGHT);
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int col = 0; col < width; col++) {
+                grid.setCell(row, col, random.nextInt(3) == 0);
+            }
+        }
+        return grid;
+    }
+
+    // The same cells randomGrid(width, width) sets.
+    private static void fill(OffHeapGrid grid, int width) {
+        Grid source = randomGrid(width, width);
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int col = 0; col < width; col++) {
+                grid.setCell(row, col, source.getCell(row, col));
+            }
+        }
+    }
+
+    private static void assertSameCells(Grid expected, OffHeapGrid actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals((long) expected.getLiveCellCount(), actual.getLiveCellCount());
+        for (int row = 0; row < expected.getHeight(); row++) {
+            for (int col = 0; col < expected.getWidth(); col++) {
+                assertEquals(expected.getCell(row, col), actual.getCell(row, col), "cell " + row + "," + col);
+            }
+        }
+    }
+}
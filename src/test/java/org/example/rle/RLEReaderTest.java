@@ -0,0 +1,42 @@
+package org.example.rle;
+
+import org.example.model.Grid;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RLEReaderTest {
+
+    @Test
+    void rejectsRunCountBeyondInt() {
+        assertThrows(IllegalArgumentException.class, () -> parse("x = 10, y = 10\n3000000000o!"));
+    }
+
+    @Test
+    void rejectsRunCountThatWouldOverflowLong() {
+        assertThrows(IllegalArgumentException.class, () -> parse("x = 10, y = 10\n99999999999999999999999o!"));
+    }
+
+    @Test
+    void rejectsLiveCellsPastHeaderWidth() {
+        assertThrows(IllegalArgumentException.class, () -> parse("x = 10, y = 10\n5b6o!"));
+    }
+
+    @Test
+    void acceptsRunEndingAtHeaderWidth() throws IOException {
+        assertEquals(6, parse("x = 10, y = 10\n4b6o$10b!").getLiveCellCount());
+    }
+
+    static Grid parse(String rle) throws IOException {
+        byte[] bytes = rle.getBytes(StandardCharsets.US_ASCII);
+        try (RLEReader reader = new RLEReader(Channels.newChannel(new ByteArrayInputStream(bytes)))) {
+            return RLEParser.parse(reader);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.rle;
+
+import org.example.model.Grid;
+import org.example.model.PackedGrid;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Boards are written with RLEWriter and decoded again with RLEReader; the decoded pattern must be the
+// board cropped to its bounding box, with the rule carried through the header.
+class RLEWriterTest {
+    private static final String RULE = "B36/S23";
+
+    @Test
+    void randomBoardsRoundTrip() throws IOException {
+        Random random = new Random(11);
+        int[][] sizes = {{1, 1}, {37, 23}, {64, 5}, {129, 65}, {300, 3}};
+        for (int[] size : sizes) {
+            Grid grid = new Grid(size[0], size[1]);
+            for (int row = 0; row < size[1]; row++) {
+                for (int col = 0; col < size[0]; col++) {
+                    grid.setCell(row, col, random.nextInt(2) == 0);
+                }
+            }
+            // Make sure the corners are live, so the bounding box is the whole board.
+            grid.setCell(0, 0, true);
+            grid.setCell(size[1] - 1, size[0] - 1, true);
+            assertRoundTrip(grid, 0, 0, size[0], size[1]);
+        }
+    }
+
+    // A pattern in the middle of the board, with empty rows inside it, comes back cropped.
+    @Test
+    void boardIsCroppedToBoundingBox() throws IOException {
+        Grid grid = new Grid(200, 90);
+        grid.setCell(30, 70, true);
+        grid.setCell(30, 71, true);
+        grid.setCell(41, 135, true);
+        grid.setCell(52, 64, true);
+        assertRoundTrip(grid, 64, 30, 135 - 64 + 1, 52 - 30 + 1);
+    }
+
+    @Test
+    void emptyBoardRoundTrips() throws IOException {
+        try (RLEReader reader = write(new Grid(100, 100))) {
+            RLEReader.Header header = reader.readHeader();
+            assertEquals(1, header.getWidth());
+            assertEquals(1, header.getHeight());
+            assertEquals(RULE, header.getRule());
+            int[] rows = new int[1];
+            reader.decode((row, words, wordCount) -> rows[0]++);
+            assertEquals(0, rows[0]);
+        }
+    }
+
+    private static void assertRoundTrip(Grid grid, int left, int top, int width, int height) throws IOException {
+        Grid decoded = new Grid(width, height);
+        try (RLEReader reader = write(grid)) {
+            RLEReader.Header header = reader.readHeader();
+            assertEquals(width, header.getWidth());
+            assertEquals(height, header.getHeight());
+            assertEquals(RULE, header.getRule());
+
+            reader.decode((row, words, wordCount) -> RLEReader.forEachRun(words, wordCount, (col, length) -> {
+                for (int j = 0; j < length; j++) {
+                    decoded.setCell(row, col + j, true);
+                }
+            }));
+        }
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                assertEquals(grid.getCell(top + row, left + col), decoded.getCell(row, col),
+                        "cell " + row + "," + col);
+            }
+        }
+        assertEquals(grid.getLiveCellCount(), decoded.getLiveCellCount());
+    }
+
+    private static RLEReader write(Grid grid) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RLEWriter.write(PackedGrid.fromGrid(grid), Channels.newChannel(out), RULE);
+        return new RLEReader(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.server;
+
+import org.example.engine.EngineOptions;
+import org.example.engine.EngineRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulationServerTest {
+    private SimulationServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new SimulationServer(EngineRegistry.createDefault(), new EngineOptions(), 0, 1, 4, null);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    void runsPattern() throws IOException {
+        Response response = post("engine=bitboard&steps=2", "x = 3, y = 1\n3o!");
+        assertEquals(200, response.status);
+        assertTrue(response.body.contains("\"event\":\"done\""), response.body);
+    }
+
+    @Test
+    void rejectsHugeRunCount() throws IOException {
+        Response response = post("engine=bitboard&steps=1", "x = 10, y = 10\n3000000000o!");
+        assertEquals(400, response.status);
+    }
+
+    @Test
+    void rejectsRunPastHeaderWidth() throws IOException {
+        Response response = post("engine=bitboard&steps=1", "x = 10, y = 10\n11o!");
+        assertEquals(400, response.status);
+        assertTrue(response.body.contains("header width"), response.body);
+    }
+
+    @Test
+    void rejectsHugeHeaderBeforeDecoding() throws IOException {
+        Response response = post("engine=bitboard&steps=1", "x = 2000000000, y = 2000000000\no!");
+        assertEquals(413, response.status);
+    }
+
+    @Test
+    void rejectsUnsupportedRuleBeforeQueueing() throws IOException {
+        Response response = post("engine=bitboard&steps=1&rule=B36/S23", "x = 3, y = 1\n3o!");
+        assertEquals(400, response.status);
+        assertTrue(response.body.contains("lookup"), response.body);
+        assertEquals(200, post("engine=lookup&steps=1&rule=B36/S23", "x = 3, y = 1\n3o!").status);
+    }
+
+    private Response post(String query, String body) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getPort() + "/simulate?" + query);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.US_ASCII));
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new Response(status, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
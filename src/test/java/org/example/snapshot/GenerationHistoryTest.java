@@ -0,0 +1,81 @@
+package org.example.snapshot;
+
+import org.example.algorithms.GameOfLifeBitboard;
+import org.example.model.Grid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenerationHistoryTest {
+
+    // A soup that keeps changing fills a 16 KB budget many times over. After every frame the history must
+    // be within budget and hold one unbroken run of generations up to the newest, starting on a keyframe
+    // group boundary, so whatever was dropped was the oldest.
+    @Test
+    void evictsOldestGroupsWithinBudget() {
+        Grid grid = randomGrid(64, 64, 3);
+        GameOfLifeBitboard engine = new GameOfLifeBitboard();
+        long oldest = 0;
+        try (GenerationHistory history = new GenerationHistory(64, 64, 16 << 10, 8, 1)) {
+            for (long generation = 0; generation < 300; generation++) {
+                history.record(grid, generation);
+                engine.simulate(grid, 1);
+
+                assertTrue(history.getMemoryUsed() <= history.getBudget(),
+                        history.getMemoryUsed() + " bytes used at generation " + generation);
+                assertEquals(generation, history.getNewestGeneration());
+                assertTrue(history.getOldestGeneration() >= oldest);
+                oldest = history.getOldestGeneration();
+                assertEquals(0, oldest % 8, "oldest generation " + oldest);
+                assertEquals(generation - oldest + 1, history.getFrameCount());
+                assertEquals(oldest, history.getEvictedFrames());
+                assertFalse(history.contains(oldest - 1));
+            }
+            assertTrue(history.getEvictedFrames() > 0);
+        }
+    }
+
+    // Every kept generation is rebuilt exactly, by one thread and by four threads each decoding a range of
+    // the 2048x2048 board's words.
+    @Test
+    void rebuildsRecordedGenerations() {
+        for (int threads : new int[]{1, 4}) {
+            Grid grid = randomGrid(2048, 2048, 5);
+            GameOfLifeBitboard engine = new GameOfLifeBitboard();
+            List<long[]> expected = new ArrayList<>();
+            try (GenerationHistory history = new GenerationHistory(2048, 2048, 64L << 20, 8, threads)) {
+                for (long generation = 0; generation < 20; generation++) {
+                    history.record(grid, generation * 2);
+                    expected.add(grid.toWords());
+                    engine.simulate(grid, 2);
+                }
+
+                assertEquals(20, history.getFrameCount());
+                assertEquals(0, history.getEvictedFrames());
+                for (int frame = 19; frame >= 0; frame--) {
+                    assertArrayEquals(expected.get(frame), history.stateAt(frame * 2L).toWords(),
+                            "generation " + frame * 2 + " with " + threads + " threads");
+                }
+                assertFalse(history.contains(3));
+            }
+        }
+    }
+
+    private static Grid randomGrid(int width, int height, long seed) {
+        Random random = new Random(seed);
+        Grid grid = new Grid(width, height);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                grid.setCell(row, col, random.nextInt(3) == 0);
+            }
+        }
+        return grid;
+    }
+}
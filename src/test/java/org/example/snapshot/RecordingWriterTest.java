@@ -0,0 +1,109 @@
+package org.example.snapshot;
+
+import org.example.algorithms.GameOfLifeBitboard;
+import org.example.model.Grid;
+import org.example.rle.RLEParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordingWriterTest {
+    private static final File GUN = new File("src/main/resources/patterns/gosper_glider_gun.rle");
+
+    // Generations 10, 13, 16, ... with a keyframe every fifth frame, read back in a shuffled order so most
+    // reads start from a keyframe and some continue from the frame decoded before.
+    @Test
+    void readsFramesInAnyOrder() throws IOException {
+        File file = tempFile();
+        Grid grid = RLEParser.parse(GUN);
+        GameOfLifeBitboard engine = new GameOfLifeBitboard();
+        List<long[]> expected = new ArrayList<>();
+        try (RecordingWriter writer = new RecordingWriter(file, grid.getWidth(), grid.getHeight(), "B3/S23", 5)) {
+            for (int frame = 0; frame < 41; frame++) {
+                writer.record(grid, 10 + frame * 3L);
+                expected.add(grid.toWords());
+                engine.simulate(grid, 3);
+            }
+        }
+
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertEquals(grid.getWidth(), reader.getWidth());
+            assertEquals(grid.getHeight(), reader.getHeight());
+            assertEquals("B3/S23", reader.getRule());
+            assertEquals(41, reader.getFrameCount());
+            assertEquals(-1, reader.findFrame(9));
+            assertEquals(0, reader.findFrame(10));
+            assertEquals(3, reader.findFrame(20));
+            assertEquals(40, reader.findFrame(1000));
+
+            List<Integer> order = new ArrayList<>();
+            for (int frame = 0; frame < 41; frame++) {
+                order.add(frame);
+                order.add(frame);
+            }
+            Collections.shuffle(order, new Random(7));
+            for (int frame : order) {
+                assertEquals(10 + frame * 3L, reader.getGeneration(frame));
+                assertArrayEquals(expected.get(frame), reader.readFrame(frame).toWords(), "frame " + frame);
+            }
+        }
+    }
+
+    // Frames of two unrelated random boards alternate faster than the writer can encode them, so it falls
+    // behind and overwrites waiting frames. Every frame that reaches the file must still be whole: exactly
+    // the board recorded for its generation, and the last generation must be there.
+    @Test
+    void droppedFramesLeaveWholeFrames() throws IOException {
+        File file = tempFile();
+        Grid[] boards = {randomGrid(4096, 4096, 1), randomGrid(4096, 4096, 2)};
+        long last = 0;
+        long dropped;
+        try (RecordingWriter writer = new RecordingWriter(file, 4096, 4096, "B3/S23", 8)) {
+            do {
+                writer.record(boards[(int) (last & 1)], last);
+                last++;
+            } while (writer.getDroppedFrames() == 0 && last < 5000);
+            dropped = writer.getDroppedFrames();
+        }
+        assertTrue(dropped > 0, "the writer never fell behind");
+
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertTrue(reader.getFrameCount() < last);
+            assertEquals(last - 1, reader.getGeneration(reader.getFrameCount() - 1));
+            long previous = -1;
+            for (int frame = 0; frame < reader.getFrameCount(); frame++) {
+                long generation = reader.getGeneration(frame);
+                assertTrue(generation > previous, "frame " + frame + " goes back to generation " + generation);
+                assertArrayEquals(boards[(int) (generation & 1)].toWords(), reader.readFrame(frame).toWords(),
+                        "frame " + frame + " (generation " + generation + ")");
+                previous = generation;
+            }
+        }
+    }
+
+    private static Grid randomGrid(int width, int height, long seed) {
+        Random random = new Random(seed);
+        long[] words = new long[(int) (((long) width * height + 63) >>> 6)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = random.nextLong();
+        }
+        Grid grid = new Grid(width, height);
+        grid.importWords(words);
+        return grid;
+    }
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("recording", ".bin");
+        file.deleteOnExit();
+        return file;
+    }
+}
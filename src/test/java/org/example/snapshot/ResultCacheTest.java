@@ -0,0 +1,125 @@
+package org.example.snapshot;
+
+import org.example.algorithms.GameOfLifeBitboard;
+import org.example.model.Grid;
+import org.example.model.Rule;
+import org.example.rle.RLEParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResultCacheTest {
+    private static final File GUN = new File("src/main/resources/patterns/gosper_glider_gun.rle");
+
+    @Test
+    void hitsStoredGenerationInMemory() throws IOException {
+        ResultCache cache = new ResultCache(null, ResultCache.DEFAULT_MEMORY_BYTES, 0);
+        Grid start = RLEParser.parse(GUN);
+        String key = ResultCache.key(start, Rule.CONWAY, "bitboard");
+        Grid result = simulated(start, 50);
+        cache.store(key, result, 50);
+
+        Snapshot cached = cache.lookup(key, 50);
+        assertEquals(50, cached.getGeneration());
+        assertArrayEquals(result.toWords(), cached.toGrid().toWords());
+        assertEquals(1, cache.getHits());
+        assertEquals(50, cache.getGenerationsSaved());
+    }
+
+    // A longer run resumes from the furthest generation not past it; a shorter one than anything stored misses.
+    @Test
+    void resumesFromShorterRun() throws IOException {
+        ResultCache cache = new ResultCache(null, ResultCache.DEFAULT_MEMORY_BYTES, 0);
+        Grid start = RLEParser.parse(GUN);
+        String key = ResultCache.key(start, Rule.CONWAY, "bitboard");
+        cache.store(key, simulated(start, 30), 30);
+        cache.store(key, simulated(start, 60), 60);
+
+        Snapshot cached = cache.lookup(key, 80);
+        assertEquals(60, cached.getGeneration());
+        assertArrayEquals(simulated(start, 60).toWords(), cached.toGrid().toWords());
+        assertEquals(30, cache.lookup(key, 59).getGeneration());
+        assertNull(cache.lookup(key, 20));
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getResumes());
+        assertEquals(1, cache.getMisses());
+        assertEquals(90, cache.getGenerationsSaved());
+    }
+
+    @Test
+    void missesWhenRuleOrEngineDiffers() throws IOException {
+        ResultCache cache = new ResultCache(null, ResultCache.DEFAULT_MEMORY_BYTES, 0);
+        Grid start = RLEParser.parse(GUN);
+        String key = ResultCache.key(start, Rule.CONWAY, "bitboard");
+        cache.store(key, simulated(start, 40), 40);
+
+        String otherRule = ResultCache.key(start, Rule.parse("B36/S23"), "bitboard");
+        String otherEngine = ResultCache.key(start, Rule.CONWAY, "tiled");
+        assertNotEquals(key, otherRule);
+        assertNotEquals(key, otherEngine);
+        assertNull(cache.lookup(otherRule, 40));
+        assertNull(cache.lookup(otherEngine, 40));
+        assertEquals(2, cache.getMisses());
+        assertEquals(key, ResultCache.key(RLEParser.parse(GUN), Rule.CONWAY, "bitboard"));
+    }
+
+    // Room for two entries: the one not looked up since both were stored goes first.
+    @Test
+    void evictsLeastRecentlyUsed() throws IOException {
+        Grid start = RLEParser.parse(GUN);
+        long entryBytes = (long) start.getWordCount() * Long.BYTES;
+        ResultCache cache = new ResultCache(null, 2 * entryBytes, 0);
+        String first = ResultCache.key(start, Rule.CONWAY, "bitboard");
+        String second = ResultCache.key(start, Rule.CONWAY, "tiled");
+        String third = ResultCache.key(start, Rule.CONWAY, "lookup");
+        cache.store(first, simulated(start, 10), 10);
+        cache.store(second, simulated(start, 10), 10);
+        cache.lookup(first, 10);
+        cache.store(third, simulated(start, 10), 10);
+
+        assertEquals(2, cache.getMemoryEntries());
+        assertEquals(2 * entryBytes, cache.getMemoryUsed());
+        assertNull(cache.lookup(second, 10));
+        assertEquals(10, cache.lookup(first, 10).getGeneration());
+        assertEquals(10, cache.lookup(third, 10).getGeneration());
+    }
+
+    // A second cache on the same directory starts with nothing in memory and reads the run's files.
+    @Test
+    void reloadsFromDisk() throws IOException {
+        File directory = Files.createTempDirectory("result-cache").toFile();
+        try {
+            Grid start = RLEParser.parse(GUN);
+            String key = ResultCache.key(start, Rule.CONWAY, "bitboard");
+            new ResultCache(directory, ResultCache.DEFAULT_MEMORY_BYTES, ResultCache.DEFAULT_DISK_BYTES)
+                    .store(key, simulated(start, 70), 70);
+            assertEquals(1, directory.list().length);
+
+            ResultCache reloaded = new ResultCache(directory, 0, ResultCache.DEFAULT_DISK_BYTES);
+            assertEquals(0, reloaded.getMemoryEntries());
+            Snapshot cached = reloaded.lookup(key, 100);
+            assertEquals(70, cached.getGeneration());
+            assertArrayEquals(simulated(start, 70).toWords(), cached.toGrid().toWords());
+            assertEquals(1, reloaded.getResumes());
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private static Grid simulated(Grid start, int steps) {
+        Grid grid = new Grid(start.getWidth(), start.getHeight());
+        grid.importWords(start.toWords());
+        new GameOfLifeBitboard().simulate(grid, steps);
+        return grid;
+    }
+}
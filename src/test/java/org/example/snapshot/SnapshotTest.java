@@ -0,0 +1,97 @@
+package org.example.snapshot;
+
+import org.example.algorithms.GameOfLifeBitboard;
+import org.example.model.Grid;
+import org.example.rle.RLEParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SnapshotTest {
+    private static final File GUN = new File("src/main/resources/patterns/gosper_glider_gun.rle");
+    private static final int STEPS = 300;
+    private static final int CHECKPOINT_AT = 137;
+
+    @Test
+    void writesAndReadsRuleAndWords() throws IOException {
+        Grid grid = RLEParser.parse(GUN);
+        for (boolean compress : new boolean[]{false, true}) {
+            File file = tempFile();
+            Snapshot.capture(grid, 42, "B36/S23").write(file, compress);
+
+            Snapshot read = Snapshot.read(file);
+            assertEquals(42, read.getGeneration());
+            assertEquals("B36/S23", read.getRule());
+            assertEquals("B36/S23", Snapshot.readRule(file));
+            assertArrayEquals(grid.toWords(), read.toGrid().toWords());
+        }
+    }
+
+    @Test
+    void writesWithoutRule() throws IOException {
+        File file = tempFile();
+        Snapshot.capture(RLEParser.parse(GUN), 0, null).write(file, true);
+        assertNull(Snapshot.read(file).getRule());
+    }
+
+    // Version 1 had no rule field; such files still load and report no rule, so --resume uses the default.
+    @Test
+    void readsVersionOneWithoutRule() throws IOException {
+        Grid grid = RLEParser.parse(GUN);
+        long[] words = grid.getCurrent().toLongArray();
+        File file = tempFile();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(0x474F4C53);
+            out.writeInt(1);
+            out.writeInt(0);
+            out.writeInt(grid.getWidth());
+            out.writeInt(grid.getHeight());
+            out.writeLong(7);
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        Snapshot read = Snapshot.read(file);
+        assertEquals(7, read.getGeneration());
+        assertNull(read.getRule());
+        assertNull(Snapshot.readRule(file));
+        assertArrayEquals(grid.toWords(), read.toGrid().toWords());
+    }
+
+    @Test
+    void resumedRunMatchesUninterruptedRun() throws IOException {
+        Grid expected = RLEParser.parse(GUN);
+        new GameOfLifeBitboard().simulate(expected, STEPS);
+
+        File file = tempFile();
+        Grid grid = RLEParser.parse(GUN);
+        try (CheckpointWriter writer = new CheckpointWriter(file, true, "B3/S23")) {
+            new GameOfLifeBitboard().simulate(grid, CHECKPOINT_AT);
+            writer.submit(grid, CHECKPOINT_AT);
+            // Later steps must not leak into the checkpoint already submitted.
+            new GameOfLifeBitboard().simulate(grid, 10);
+        }
+
+        Snapshot snapshot = Snapshot.read(file);
+        assertEquals(CHECKPOINT_AT, snapshot.getGeneration());
+        assertEquals("B3/S23", snapshot.getRule());
+        Grid resumed = snapshot.toGrid();
+        new GameOfLifeBitboard().simulate(resumed, (int) (STEPS - snapshot.getGeneration()));
+        assertArrayEquals(expected.toWords(), resumed.toWords());
+    }
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("snapshot", ".ckpt");
+        file.deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.soup;
+
+import org.example.algorithms.GameOfLifeSequential;
+import org.example.model.Grid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Every soup of a search is run again on a 64x64 Grid with the sequential engine, keeping all states, and
+// its census entry must match: died, settled into a cycle of at most MAX_PERIOD, or still unsettled at
+// the generation limit.
+class SoupSearchTest {
+    private static final long SEED = 20;
+    private static final int SOUPS = 120;
+
+    @Test
+    void censusMatchesSequential() {
+        assertCensusMatches(SoupSearch.DEFAULT_SOUP_SIZE, 1500);
+    }
+
+    // A low limit leaves many soups unsettled, and an odd soup size is not centred on a word boundary.
+    @Test
+    void unsettledSoupsMatchSequential() {
+        assertCensusMatches(7, 40);
+    }
+
+    private static void assertCensusMatches(int soupSize, int maxGenerations) {
+        List<SoupResult> census = new SoupSearch(soupSize, SEED, maxGenerations, 2).run(SOUPS);
+        assertEquals(SOUPS, census.size());
+        for (SoupResult result : census) {
+            SoupResult expected = runSequential(result.getIndex(), soupSize, maxGenerations);
+            String soup = "soup " + result.getIndex();
+            assertEquals(expected.getStatus(), result.getStatus(), soup);
+            assertEquals(expected.getGeneration(), result.getGeneration(), soup);
+            assertEquals(expected.getPeriod(), result.getPeriod(), soup);
+            assertEquals(expected.getPopulation(), result.getPopulation(), soup);
+        }
+    }
+
+    // The census entry of the soup as the search defines it. A cycle is reported once its first repeat has
+    // been confirmed one period later, so one confirmed after the limit counts as unsettled.
+    private static SoupResult runSequential(long index, int soupSize, int maxGenerations) {
+        Grid grid = soup(index, soupSize);
+        GameOfLifeSequential engine = new GameOfLifeSequential();
+        List<long[]> states = new ArrayList<>();
+        states.add(grid.toWords());
+        for (int gen = 1; ; gen++) {
+            engine.step(grid);
+            long[] state = grid.toWords();
+            states.add(state);
+            if (grid.getLiveCellCount() == 0) {
+                return new SoupResult(index, SoupResult.Status.DIED, gen, 1, 0);
+            }
+            for (int p = 1; p <= Math.min(gen, SoupSearch.MAX_PERIOD); p++) {
+                if (Arrays.equals(state, states.get(gen - p))) {
+                    if (gen + p > maxGenerations) {
+                        break;
+                    }
+                    return new SoupResult(index, SoupResult.Status.STABLE, gen - p, p, grid.getLiveCellCount());
+                }
+            }
+            if (gen >= maxGenerations) {
+                return new SoupResult(index, SoupResult.Status.UNSETTLED, gen, 0, grid.getLiveCellCount());
+            }
+        }
+    }
+
+    // The same cells SoupBatch loads: soupSize x soupSize random cells in the centre of the universe.
+    private static Grid soup(long index, int soupSize) {
+        Grid grid = new Grid(SoupBatch.SIZE, SoupBatch.SIZE);
+        SplittableRandom random = new SplittableRandom(SEED + index * 0x9E3779B97F4A7C15L);
+        int offset = (SoupBatch.SIZE - soupSize) / 2;
+        long mask = soupSize == SoupBatch.SIZE ? -1L : (1L << soupSize) - 1;
+        for (int row = offset; row < offset + soupSize; row++) {
+            long word = (random.nextLong() & mask) << offset;
+            for (int col = 0; col < SoupBatch.SIZE; col++) {
+                grid.setCell(row, col, (word & (1L << col)) != 0);
+            }
+        }
+        return grid;
+    }
+}